@@ -0,0 +1,202 @@
+package tech.picnic.errorprone.benchmark;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * A JMH benchmark that measures the memory allocated while compiling a synthetic corpus with
+ * individual bug checkers enabled.
+ *
+ * <p>When run through its {@link #main(String...)} method, the benchmark acts as an allocation
+ * regression test: using JMH's {@link GCProfiler}, it compares the normalized allocation rate of
+ * each bug checker against that of Error Prone with all checks disabled, and fails if any of the
+ * checkers allocates more than the given fraction of additional memory.
+ */
+// XXX: Extend the list of benchmarked checkers as more of them are optimized for allocation.
+@SuppressWarnings("Nopen" /* JMH generates subclasses of this class. */)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(
+    value = 1,
+    jvmArgsAppend = {
+      "--add-exports=jdk.compiler/com.sun.tools.javac.api=ALL-UNNAMED",
+      "--add-exports=jdk.compiler/com.sun.tools.javac.code=ALL-UNNAMED",
+      "--add-exports=jdk.compiler/com.sun.tools.javac.file=ALL-UNNAMED",
+      "--add-exports=jdk.compiler/com.sun.tools.javac.main=ALL-UNNAMED",
+      "--add-exports=jdk.compiler/com.sun.tools.javac.model=ALL-UNNAMED",
+      "--add-exports=jdk.compiler/com.sun.tools.javac.parser=ALL-UNNAMED",
+      "--add-exports=jdk.compiler/com.sun.tools.javac.processing=ALL-UNNAMED",
+      "--add-exports=jdk.compiler/com.sun.tools.javac.tree=ALL-UNNAMED",
+      "--add-exports=jdk.compiler/com.sun.tools.javac.util=ALL-UNNAMED",
+      "--add-opens=jdk.compiler/com.sun.tools.javac.comp=ALL-UNNAMED"
+    })
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class AllocationBenchmark {
+  private static final String BASELINE = "none";
+  private static final String CHECK_NAME_PARAM = "checkName";
+  private static final String ALLOCATION_RATE_METRIC = "gc.alloc.rate.norm";
+
+  /** The bug checker to enable, or {@value #BASELINE} to enable none. */
+  @Param({BASELINE, "StaticImport", "RedundantStringConversion"})
+  public String checkName = BASELINE;
+
+  private Path workDirectory = Path.of("");
+  private ImmutableList<Path> sources = ImmutableList.of();
+  private ImmutableList<String> options = ImmutableList.of();
+
+  /**
+   * Generates the corpus to be compiled.
+   *
+   * @throws IOException If the corpus cannot be written.
+   */
+  @Setup
+  public void setUp() throws IOException {
+    workDirectory = Files.createTempDirectory("allocation-benchmark");
+    sources = CorpusGenerator.generate(workDirectory.resolve("src"), 10, 10);
+    Path outputDirectory = Files.createDirectories(workDirectory.resolve("classes"));
+
+    String pluginOption = "-Xplugin:ErrorProne -XepDisableAllChecks";
+    options =
+        ImmutableList.of(
+            "-classpath",
+            System.getProperty("java.class.path"),
+            "-d",
+            outputDirectory.toString(),
+            "-proc:none",
+            "-XDcompilePolicy=simple",
+            BASELINE.equals(checkName)
+                ? pluginOption
+                : String.join(" ", pluginOption, "-Xep:" + checkName + ":WARN"));
+  }
+
+  /**
+   * Deletes the generated corpus.
+   *
+   * @throws IOException If the corpus cannot be deleted.
+   */
+  @TearDown
+  public void tearDown() throws IOException {
+    MoreFiles.deleteRecursively(workDirectory, RecursiveDeleteOption.ALLOW_INSECURE);
+  }
+
+  /**
+   * Compiles the generated corpus.
+   *
+   * @return Whether compilation succeeded.
+   * @throws IOException If the file manager cannot be closed.
+   */
+  @Benchmark
+  public boolean compile() throws IOException {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, UTF_8)) {
+      return compiler
+          .getTask(
+              null,
+              fileManager,
+              null,
+              options,
+              null,
+              fileManager.getJavaFileObjectsFromFiles(
+                  sources.stream().map(Path::toFile).collect(toImmutableList())))
+          .call();
+    }
+  }
+
+  /**
+   * Runs this benchmark using JMH's {@link GCProfiler}, and verifies that no bug checker causes
+   * more than the given fraction of additional allocations.
+   *
+   * @param args Optionally, the maximum tolerated fraction of additional allocations relative to
+   *     Error Prone with all checks disabled; defaults to {@code 0.05}.
+   * @throws RunnerException If the benchmark cannot be run.
+   */
+  public static void main(String... args) throws RunnerException {
+    checkArgument(args.length <= 1, "Usage: AllocationBenchmark [max-relative-overhead]");
+    double maxRelativeOverhead = args.length > 0 ? Double.parseDouble(args[0]) : 0.05;
+
+    Collection<RunResult> results =
+        new Runner(
+                new OptionsBuilder()
+                    .include(AllocationBenchmark.class.getName())
+                    .addProfiler(GCProfiler.class)
+                    .build())
+            .run();
+
+    Map<String, Double> allocationsByCheck = new HashMap<>();
+    for (RunResult result : results) {
+      BenchmarkParams params = result.getParams();
+      allocationsByCheck.put(params.getParam(CHECK_NAME_PARAM), getAllocationRate(result));
+    }
+
+    Double baseline = allocationsByCheck.remove(BASELINE);
+    checkState(baseline != null, "No baseline allocation rate measured");
+
+    List<String> violations = new ArrayList<>();
+    allocationsByCheck.forEach(
+        (check, allocations) -> {
+          double overhead = (allocations - baseline) / baseline;
+          if (overhead > maxRelativeOverhead) {
+            violations.add(
+                String.format(
+                    "%s: %.0f bytes/op (%.1f%% more than baseline)",
+                    check, allocations, overhead * 100));
+          }
+        });
+
+    if (!violations.isEmpty()) {
+      throw new IllegalStateException(
+          String.format(
+              "Allocation overhead exceeds %.1f%% of baseline (%.0f bytes/op): %s",
+              maxRelativeOverhead * 100, baseline, violations));
+    }
+  }
+
+  private static double getAllocationRate(RunResult result) {
+    return result.getSecondaryResults().entrySet().stream()
+        .filter(e -> e.getKey().endsWith(ALLOCATION_RATE_METRIC))
+        .map(Map.Entry::getValue)
+        .mapToDouble(Result::getScore)
+        .findFirst()
+        .orElseThrow(
+            () -> new IllegalStateException("Missing metric " + ALLOCATION_RATE_METRIC));
+  }
+}
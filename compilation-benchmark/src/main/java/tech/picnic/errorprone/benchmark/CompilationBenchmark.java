@@ -0,0 +1,252 @@
+package tech.picnic.errorprone.benchmark;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import com.google.errorprone.BugCheckerInfo;
+import com.google.errorprone.bugpatterns.BugChecker;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.ServiceLoader.Provider;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * A command line utility that measures the wall-clock time and peak heap usage of compiling a
+ * synthetic corpus with plain {@code javac}, with Error Prone, and with each individual bug checker
+ * defined by Error Prone Support (including the Refaster bug checker).
+ *
+ * <p>Compilation times are reported relative to plain {@code javac} compilation of the same corpus.
+ * As the generated corpus is deterministic, these relative figures are comparable across commits,
+ * even if the absolute figures depend on the machine on which the benchmark is run.
+ *
+ * <p>The reported peak heap usage is the sum of the peak usage of each heap memory pool, and as
+ * such an upper bound on the actual peak heap usage.
+ */
+public final class CompilationBenchmark {
+  private static final String ERROR_PRONE_SUPPORT_PACKAGE = "tech.picnic.errorprone.";
+  private static final String ERROR_PRONE_PLUGIN_OPTION =
+      "-Xplugin:ErrorProne -XepDisableAllChecks";
+
+  private CompilationBenchmark() {}
+
+  /**
+   * Generates a synthetic corpus, compiles it using various configurations, and writes a
+   * tab-separated report of the results.
+   *
+   * @param args The path of the report to write, optionally followed by the number of classes to
+   *     generate per corpus flavor, the number of methods to generate per class, and the number of
+   *     measured compilations per configuration.
+   * @throws IOException If the corpus cannot be generated or the report cannot be written.
+   */
+  public static void main(String... args) throws IOException {
+    checkArgument(
+        args.length >= 1 && args.length <= 4,
+        "Usage: CompilationBenchmark <report> "
+            + "[classes-per-flavor] [methods-per-class] [iterations]");
+
+    Path report = Path.of(args[0]);
+    int classesPerFlavor = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+    int methodsPerClass = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+    int iterations = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+    Path workDirectory = Files.createTempDirectory("compilation-benchmark");
+    try {
+      ImmutableList<Path> sources =
+          CorpusGenerator.generate(workDirectory.resolve("src"), classesPerFlavor, methodsPerClass);
+      Path outputDirectory = Files.createDirectories(workDirectory.resolve("classes"));
+
+      List<Measurement> measurements = new ArrayList<>();
+      for (Configuration configuration : getConfigurations()) {
+        measurements.add(measure(configuration, sources, outputDirectory, iterations));
+      }
+
+      writeReport(
+          report,
+          String.format(
+              "# classes-per-flavor=%s methods-per-class=%s iterations=%s",
+              classesPerFlavor, methodsPerClass, iterations),
+          measurements);
+    } finally {
+      MoreFiles.deleteRecursively(workDirectory, RecursiveDeleteOption.ALLOW_INSECURE);
+    }
+  }
+
+  /**
+   * Returns the compiler configurations to benchmark. The first configuration is the baseline
+   * against which the others are compared.
+   */
+  private static ImmutableList<Configuration> getConfigurations() {
+    ImmutableList.Builder<Configuration> configurations =
+        ImmutableList.<Configuration>builder()
+            .add(Configuration.create("javac", ImmutableList.of()))
+            .add(
+                Configuration.create(
+                    "error-prone", errorProneOptions(ERROR_PRONE_PLUGIN_OPTION)));
+
+    for (String checkName : getErrorProneSupportCheckNames()) {
+      configurations.add(
+          Configuration.create(
+              checkName,
+              errorProneOptions(
+                  String.join(" ", ERROR_PRONE_PLUGIN_OPTION, "-Xep:" + checkName + ":WARN"))));
+    }
+
+    return configurations.build();
+  }
+
+  private static ImmutableList<String> errorProneOptions(String pluginOption) {
+    return ImmutableList.of("-XDcompilePolicy=simple", pluginOption);
+  }
+
+  private static ImmutableList<String> getErrorProneSupportCheckNames() {
+    return ServiceLoader.load(BugChecker.class).stream()
+        .map(Provider::type)
+        .filter(type -> type.getName().startsWith(ERROR_PRONE_SUPPORT_PACKAGE))
+        .map(type -> BugCheckerInfo.create(type).canonicalName())
+        .sorted()
+        .collect(toImmutableList());
+  }
+
+  private static Measurement measure(
+      Configuration configuration,
+      ImmutableList<Path> sources,
+      Path outputDirectory,
+      int iterations) {
+    /* The first compilation warms up the JVM; its results are discarded. */
+    compile(configuration, sources, outputDirectory);
+
+    List<Long> durations = new ArrayList<>(iterations);
+    long peakHeapUsage = 0;
+    for (int i = 0; i < iterations; i++) {
+      Measurement measurement = compile(configuration, sources, outputDirectory);
+      durations.add(measurement.durationMillis());
+      peakHeapUsage = Math.max(peakHeapUsage, measurement.peakHeapBytes());
+    }
+
+    Collections.sort(durations);
+    return Measurement.create(configuration.name(), durations.get(iterations / 2), peakHeapUsage);
+  }
+
+  private static Measurement compile(
+      Configuration configuration, ImmutableList<Path> sources, Path outputDirectory) {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    try (StandardJavaFileManager fileManager =
+        compiler.getStandardFileManager(diagnostics, null, UTF_8)) {
+      ImmutableList<String> options =
+          ImmutableList.<String>builder()
+              .add("-classpath", System.getProperty("java.class.path"))
+              .add("-d", outputDirectory.toString())
+              .add("-proc:none")
+              .addAll(configuration.options())
+              .build();
+      JavaCompiler.CompilationTask task =
+          compiler.getTask(
+              null,
+              fileManager,
+              diagnostics,
+              options,
+              null,
+              fileManager.getJavaFileObjectsFromFiles(
+                  sources.stream().map(Path::toFile).collect(toImmutableList())));
+
+      /* Heap usage is measured from a clean slate. */
+      System.gc();
+      resetPeakHeapUsage();
+      long start = System.nanoTime();
+      boolean success = task.call();
+      long durationMillis = (System.nanoTime() - start) / 1_000_000;
+      checkState(
+          success,
+          "Compilation using configuration '%s' failed: %s",
+          configuration.name(),
+          diagnostics.getDiagnostics());
+
+      return Measurement.create(configuration.name(), durationMillis, getPeakHeapUsage());
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to close file manager", e);
+    }
+  }
+
+  private static void resetPeakHeapUsage() {
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        pool.resetPeakUsage();
+      }
+    }
+  }
+
+  private static long getPeakHeapUsage() {
+    return ManagementFactory.getMemoryPoolMXBeans().stream()
+        .filter(pool -> pool.getType() == MemoryType.HEAP)
+        .mapToLong(pool -> pool.getPeakUsage().getUsed())
+        .sum();
+  }
+
+  private static void writeReport(Path report, String header, List<Measurement> measurements)
+      throws IOException {
+    long baselineMillis = measurements.get(0).durationMillis();
+
+    List<String> lines = new ArrayList<>();
+    lines.add(header);
+    lines.add("configuration\tmedian-millis\trelative-to-javac\tpeak-heap-mb");
+    for (Measurement measurement : measurements) {
+      lines.add(
+          String.format(
+              "%s\t%d\t%.3f\t%d",
+              measurement.configuration(),
+              measurement.durationMillis(),
+              (double) measurement.durationMillis() / baselineMillis,
+              measurement.peakHeapBytes() / (1024 * 1024)));
+    }
+
+    Path parent = report.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    Files.write(report, lines, UTF_8);
+  }
+
+  @AutoValue
+  abstract static class Configuration {
+    abstract String name();
+
+    abstract ImmutableList<String> options();
+
+    static Configuration create(String name, ImmutableList<String> options) {
+      return new AutoValue_CompilationBenchmark_Configuration(name, options);
+    }
+  }
+
+  @AutoValue
+  abstract static class Measurement {
+    abstract String configuration();
+
+    abstract long durationMillis();
+
+    abstract long peakHeapBytes();
+
+    static Measurement create(String configuration, long durationMillis, long peakHeapBytes) {
+      return new AutoValue_CompilationBenchmark_Measurement(
+          configuration, durationMillis, peakHeapBytes);
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package tech.picnic.errorprone.benchmark;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Generates a deterministic corpus of synthetic Java source files, against which the compilation
+ * overhead of Error Prone Support can be measured.
+ *
+ * <p>The corpus mixes code in several styles, such that a representative subset of bug checkers
+ * and Refaster rules is exercised.
+ */
+final class CorpusGenerator {
+  private static final String PACKAGE_NAME = "corpus";
+
+  private CorpusGenerator() {}
+
+  /** The kinds of code included in the generated corpus. */
+  enum Flavor {
+    /** Code that makes heavy use of Project Reactor. */
+    REACTOR(
+        "ReactorCode",
+        ImmutableList.of(
+            "java.util.List",
+            "reactor.core.publisher.Flux",
+            "reactor.core.publisher.Mono",
+            "reactor.core.scheduler.Schedulers"),
+        "  Mono<Integer> method%1$d(Flux<Integer> flux) {",
+        "    return flux.map(i -> i + %1$d)",
+        "        .filter(i -> i > 0)",
+        "        .flatMap(i -> Mono.just(i).publishOn(Schedulers.parallel()))",
+        "        .collectList()",
+        "        .map(List::size)",
+        "        .switchIfEmpty(Mono.empty());",
+        "  }"),
+    /** Test code that makes heavy use of AssertJ. */
+    ASSERTJ(
+        "AssertJCode",
+        ImmutableList.of("static org.assertj.core.api.Assertions.assertThat", "java.util.List"),
+        "  void method%1$d(List<String> list, String string) {",
+        "    assertThat(list.size()).isEqualTo(%1$d);",
+        "    assertThat(string.isEmpty()).isTrue();",
+        "    assertThat(list.contains(string)).isFalse();",
+        "    assertThat(string.startsWith(\"prefix-%1$d\")).isTrue();",
+        "  }"),
+    /** Plain code that makes heavy use of Guava. */
+    GUAVA(
+        "GuavaCode",
+        ImmutableList.of(
+            "static com.google.common.collect.ImmutableSet.toImmutableSet",
+            "com.google.common.base.Preconditions",
+            "com.google.common.collect.ImmutableList",
+            "com.google.common.collect.ImmutableSet",
+            "java.util.List"),
+        "  ImmutableSet<String> method%1$d(List<String> values) {",
+        "    Preconditions.checkArgument(!values.isEmpty(), \"Expected %1$d values\");",
+        "    ImmutableList<String> copy = ImmutableList.copyOf(values);",
+        "    return copy.stream()",
+        "        .filter(v -> !v.isEmpty())",
+        "        .map(v -> v + \"-%1$d\")",
+        "        .collect(toImmutableSet());",
+        "  }");
+
+    private final String classNamePrefix;
+    private final ImmutableList<String> imports;
+    private final String methodTemplate;
+
+    Flavor(String classNamePrefix, ImmutableList<String> imports, String... methodTemplate) {
+      this.classNamePrefix = classNamePrefix;
+      this.imports = imports;
+      this.methodTemplate = String.join("\n", methodTemplate);
+    }
+
+    private String getClassName(int index) {
+      return classNamePrefix + index;
+    }
+
+    private String generateClass(int index, int methodCount) {
+      StringBuilder source = new StringBuilder();
+      source.append("package ").append(PACKAGE_NAME).append(";\n\n");
+      for (String type : imports) {
+        source.append("import ").append(type).append(";\n");
+      }
+
+      source.append("\nfinal class ").append(getClassName(index)).append(" {\n");
+      for (int i = 0; i < methodCount; i++) {
+        source.append(String.format(methodTemplate, i)).append("\n\n");
+      }
+      return source.append("}\n").toString();
+    }
+  }
+
+  /**
+   * Writes a synthetic corpus to the given directory.
+   *
+   * @param directory The directory to which to write the corpus.
+   * @param classesPerFlavor The number of classes to generate for each {@link Flavor}.
+   * @param methodsPerClass The number of methods to generate for each class.
+   * @return The paths of the generated source files.
+   * @throws IOException If a source file cannot be written.
+   */
+  static ImmutableList<Path> generate(Path directory, int classesPerFlavor, int methodsPerClass)
+      throws IOException {
+    Path packageDirectory = Files.createDirectories(directory.resolve(PACKAGE_NAME));
+
+    ImmutableList.Builder<Path> sources = ImmutableList.builder();
+    for (Flavor flavor : Flavor.values()) {
+      for (int i = 0; i < classesPerFlavor; i++) {
+        Path source = packageDirectory.resolve(flavor.getClassName(i) + ".java");
+        Files.writeString(source, flavor.generateClass(i, methodsPerClass), UTF_8);
+        sources.add(source);
+      }
+    }
+    return sources.build();
+  }
+}
@@ -0,0 +1,7 @@
+/**
+ * A utility that measures the compilation overhead introduced by the bug checkers and Refaster
+ * rules defined by Error Prone Support.
+ */
+@com.google.errorprone.annotations.CheckReturnValue
+@org.jspecify.annotations.NullMarked
+package tech.picnic.errorprone.benchmark;
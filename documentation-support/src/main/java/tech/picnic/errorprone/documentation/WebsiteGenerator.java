@@ -0,0 +1,179 @@
+package tech.picnic.errorprone.documentation;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Streams;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A command line utility that generates website pages from the JSON files emitted by the {@link
+ * DocumentationGenerator}.
+ *
+ * <p>Pages are generated in parallel. A page is only written if its content differs from that of
+ * the page currently on disk, such that repeated invocations do not touch pages whose source data
+ * did not change.
+ */
+// XXX: Once a Refaster rule collection `Extractor` is available, also generate pages for the
+// `website/refasterrules` section.
+public final class WebsiteGenerator {
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final String JSON_FILE_EXTENSION = ".json";
+  private static final String BUG_PATTERN_PREFIX =
+      ExtractorType.BUG_PATTERN.getIdentifier() + '-';
+
+  private final Path inputDirectory;
+  private final Path websiteDirectory;
+
+  @VisibleForTesting
+  WebsiteGenerator(Path inputDirectory, Path websiteDirectory) {
+    this.inputDirectory = inputDirectory;
+    this.websiteDirectory = websiteDirectory;
+  }
+
+  /**
+   * Generates website pages from the documentation data in a given directory.
+   *
+   * @param args The directory containing the extracted documentation data, followed by the root
+   *     directory of the website.
+   * @throws IOException If the documentation data cannot be read or a page cannot be written.
+   */
+  public static void main(String... args) throws IOException {
+    checkArgument(
+        args.length == 2, "Usage: WebsiteGenerator <input-directory> <website-directory>");
+
+    new WebsiteGenerator(Path.of(args[0]), Path.of(args[1])).generate();
+  }
+
+  /**
+   * Generates the website pages for all documentation data files in the input directory.
+   *
+   * @return The pages that were created or updated; pages whose content is unchanged are omitted.
+   * @throws IOException If the input directory cannot be listed.
+   */
+  @VisibleForTesting
+  ImmutableList<Path> generate() throws IOException {
+    ImmutableList<Path> sources;
+    try (Stream<Path> files = Files.list(inputDirectory)) {
+      sources =
+          files
+              .filter(WebsiteGenerator::isBugPatternDocumentation)
+              .sorted()
+              .collect(toImmutableList());
+    }
+
+    Path bugPatternDirectory = websiteDirectory.resolve("bugpatterns");
+    Files.createDirectories(bugPatternDirectory);
+
+    return sources.parallelStream()
+        .map(source -> generateBugPatternPage(source, bugPatternDirectory))
+        .flatMap(Optional::stream)
+        .sorted()
+        .collect(toImmutableList());
+  }
+
+  private static boolean isBugPatternDocumentation(Path path) {
+    String fileName = path.getFileName().toString();
+    return fileName.startsWith(BUG_PATTERN_PREFIX) && fileName.endsWith(JSON_FILE_EXTENSION);
+  }
+
+  private static Optional<Path> generateBugPatternPage(Path source, Path targetDirectory) {
+    JsonNode documentation = readJson(source);
+    Path target = targetDirectory.resolve(documentation.get("name").asText() + ".md");
+    return writeIfChanged(target, renderBugPatternPage(documentation));
+  }
+
+  @VisibleForTesting
+  static String renderBugPatternPage(JsonNode documentation) {
+    String name = documentation.get("name").asText();
+    StringBuilder page =
+        new StringBuilder()
+            .append("---\n")
+            .append("layout: default\n")
+            .append("title: ")
+            .append(name)
+            .append('\n')
+            .append("parent: Bug Patterns\n")
+            .append("---\n")
+            .append('\n')
+            .append("# ")
+            .append(name)
+            .append('\n')
+            .append('\n')
+            .append("{: .summary }\n")
+            .append(documentation.get("summary").asText())
+            .append('\n')
+            .append('\n')
+            .append("Severity: `")
+            .append(documentation.get("severityLevel").asText())
+            .append("`\n");
+
+    String tags = joinTextValues(documentation.get("tags"));
+    if (!tags.isEmpty()) {
+      page.append('\n').append("Tags: ").append(tags).append('\n');
+    }
+
+    String explanation = documentation.get("explanation").asText();
+    if (!explanation.isEmpty()) {
+      page.append('\n').append("## Explanation\n").append('\n').append(explanation).append('\n');
+    }
+
+    page.append('\n').append("## Suppression\n").append('\n');
+    if (documentation.get("canDisable").asBoolean()) {
+      page.append("Disable this check by passing `-Xep:")
+          .append(name)
+          .append(":OFF` to Error Prone. ");
+    }
+    page.append("Suppress false positives by adding `@SuppressWarnings(\"")
+        .append(name)
+        .append("\")` to the enclosing element.\n");
+
+    String suppressionAnnotations = joinTextValues(documentation.get("suppressionAnnotations"));
+    if (!suppressionAnnotations.isEmpty()) {
+      page.append('\n')
+          .append("Alternatively, annotate the enclosing element with any of the following: ")
+          .append(suppressionAnnotations)
+          .append(".\n");
+    }
+
+    return page.toString();
+  }
+
+  private static String joinTextValues(JsonNode array) {
+    return Streams.stream(array.elements())
+        .map(element -> '`' + element.asText() + '`')
+        .collect(Collectors.joining(", "));
+  }
+
+  private static JsonNode readJson(Path source) {
+    try {
+      return OBJECT_MAPPER.readTree(source.toFile());
+    } catch (IOException e) {
+      throw new UncheckedIOException(String.format("Cannot read file '%s'", source), e);
+    }
+  }
+
+  private static Optional<Path> writeIfChanged(Path target, String content) {
+    try {
+      if (Files.exists(target) && Files.readString(target, UTF_8).equals(content)) {
+        return Optional.empty();
+      }
+
+      Files.writeString(target, content, UTF_8);
+      return Optional.of(target);
+    } catch (IOException e) {
+      throw new UncheckedIOException(String.format("Cannot write to file '%s'", target), e);
+    }
+  }
+}
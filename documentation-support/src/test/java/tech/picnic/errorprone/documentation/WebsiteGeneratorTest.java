@@ -0,0 +1,42 @@
+package tech.picnic.errorprone.documentation;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.io.Resources;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class WebsiteGeneratorTest {
+  @Test
+  void generate(@TempDir Path inputDirectory, @TempDir Path websiteDirectory) throws IOException {
+    Files.writeString(
+        inputDirectory.resolve("bugpattern-CompleteBugChecker.json"),
+        getResource("bugpattern-documentation-complete.json"),
+        UTF_8);
+    Files.writeString(inputDirectory.resolve("unrelated.json"), "{}", UTF_8);
+
+    WebsiteGenerator generator = new WebsiteGenerator(inputDirectory, websiteDirectory);
+    Path page = websiteDirectory.resolve("bugpatterns").resolve("OtherName.md");
+
+    assertThat(generator.generate()).containsExactly(page);
+    assertThat(page).content(UTF_8).isEqualTo(getResource("bugpattern-page-complete.md"));
+    assertThat(generator.generate()).isEmpty();
+  }
+
+  @Test
+  void mainWithInvalidArguments() {
+    assertThatThrownBy(() -> WebsiteGenerator.main("foo"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Usage: WebsiteGenerator <input-directory> <website-directory>");
+  }
+
+  private static String getResource(String resourceName) throws IOException {
+    return Resources.toString(
+        Resources.getResource(WebsiteGeneratorTest.class, resourceName), UTF_8);
+  }
+}
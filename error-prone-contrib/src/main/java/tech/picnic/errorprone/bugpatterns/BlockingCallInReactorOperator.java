@@ -0,0 +1,263 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.errorprone.BugPattern.LinkType.CUSTOM;
+import static com.google.errorprone.BugPattern.SeverityLevel.WARNING;
+import static com.google.errorprone.BugPattern.StandardTags.CONCURRENCY;
+import static com.google.errorprone.BugPattern.StandardTags.PERFORMANCE;
+import static com.google.errorprone.matchers.Matchers.anyOf;
+import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+import static com.google.errorprone.predicates.TypePredicates.isDescendantOf;
+import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
+
+import com.google.auto.service.AutoService;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.ErrorProneFlags;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MemberReferenceTreeMatcher;
+import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.MemberReferenceTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreePath;
+import java.util.Optional;
+import org.jspecify.annotations.Nullable;
+import tech.picnic.errorprone.bugpatterns.util.Flags;
+import tech.picnic.errorprone.bugpatterns.util.HotPaths;
+import tech.picnic.errorprone.bugpatterns.util.MethodMatcherFactory;
+
+/**
+ * A {@link BugChecker} that flags blocking method invocations inside lambda expressions and method
+ * references passed to Reactor operators.
+ *
+ * <p>Such functions are generally executed on a non-blocking thread, such as a Netty event loop
+ * thread, which should never be blocked. Invocations inside pipelines that visibly offload work
+ * using {@code publishOn(Schedulers.boundedElastic())} or {@code
+ * subscribeOn(Schedulers.boundedElastic())} are not flagged.
+ *
+ * <p>Additional blocking methods can be specified using the {@code
+ * BlockingCallInReactorOperator:ExtraBlockingMethods} flag, which accepts a comma-separated list
+ * of method signatures of the form {@code com.example.Foo#bar(java.lang.String)}.
+ */
+// XXX: Also recognize pipelines that offload work to a scheduler that is stored in a field or
+// variable.
+@AutoService(BugChecker.class)
+@BugPattern(
+    summary = "Avoid blocking calls inside Reactor operators",
+    link = BUG_PATTERNS_BASE_URL + "BlockingCallInReactorOperator",
+    linkType = CUSTOM,
+    severity = WARNING,
+    tags = {CONCURRENCY, PERFORMANCE})
+public final class BlockingCallInReactorOperator extends BugChecker
+    implements MethodInvocationTreeMatcher, MemberReferenceTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final String EXTRA_BLOCKING_METHODS_FLAG =
+      "BlockingCallInReactorOperator:ExtraBlockingMethods";
+  private static final String PUBLISHER = "org.reactivestreams.Publisher";
+  private static final Matcher<ExpressionTree> WELL_KNOWN_BLOCKING_METHODS =
+      anyOf(
+          instanceMethod()
+              .onDescendantOf("reactor.core.publisher.Mono")
+              .namedAnyOf("block", "blockOptional"),
+          instanceMethod()
+              .onDescendantOf("reactor.core.publisher.Flux")
+              .namedAnyOf("blockFirst", "blockLast"),
+          staticMethod().onClass("java.lang.Thread").named("sleep"),
+          instanceMethod().onDescendantOf("java.lang.Thread").named("join"),
+          instanceMethod().onDescendantOf("java.util.concurrent.Future").named("get"),
+          instanceMethod().onDescendantOf("java.util.concurrent.CompletableFuture").named("join"),
+          instanceMethod().onDescendantOf("java.util.concurrent.CountDownLatch").named("await"),
+          instanceMethod()
+              .onDescendantOf("java.util.concurrent.BlockingQueue")
+              .namedAnyOf("put", "take"),
+          instanceMethod().onDescendantOf("javax.sql.DataSource").named("getConnection"),
+          staticMethod().onClass("java.sql.DriverManager").named("getConnection"),
+          instanceMethod()
+              .onDescendantOf("java.sql.Statement")
+              .namedAnyOf(
+                  "execute",
+                  "executeBatch",
+                  "executeLargeBatch",
+                  "executeLargeUpdate",
+                  "executeQuery",
+                  "executeUpdate"),
+          instanceMethod().onDescendantOf("java.sql.Connection").namedAnyOf("commit", "rollback"),
+          staticMethod()
+              .onClass("java.nio.file.Files")
+              .namedAnyOf(
+                  "copy",
+                  "delete",
+                  "deleteIfExists",
+                  "lines",
+                  "move",
+                  "newBufferedReader",
+                  "newBufferedWriter",
+                  "newInputStream",
+                  "newOutputStream",
+                  "readAllBytes",
+                  "readAllLines",
+                  "readString",
+                  "write",
+                  "writeString"));
+  private static final Matcher<ExpressionTree> PUBLISHER_OPERATOR =
+      instanceMethod().onDescendantOf(PUBLISHER);
+  private static final Matcher<ExpressionTree> PUBLISHER_FACTORY =
+      staticMethod().onClass(isDescendantOf(PUBLISHER));
+  private static final Matcher<ExpressionTree> OFFLOADING_OPERATOR =
+      instanceMethod().onDescendantOf(PUBLISHER).namedAnyOf("publishOn", "subscribeOn");
+  private static final Matcher<ExpressionTree> SUBSCRIBE_ON =
+      instanceMethod().onDescendantOf(PUBLISHER).named("subscribeOn");
+  private static final Matcher<ExpressionTree> BOUNDED_ELASTIC_SCHEDULER =
+      staticMethod()
+          .onClass("reactor.core.scheduler.Schedulers")
+          .namedAnyOf("boundedElastic", "newBoundedElastic");
+
+  private final Matcher<ExpressionTree> blockingMethodMatcher;
+
+  /** Instantiates a default {@link BlockingCallInReactorOperator} instance. */
+  public BlockingCallInReactorOperator() {
+    this(ErrorProneFlags.empty());
+  }
+
+  /**
+   * Instantiates a customized {@link BlockingCallInReactorOperator}.
+   *
+   * @param flags Any provided command line flags.
+   */
+  public BlockingCallInReactorOperator(ErrorProneFlags flags) {
+    blockingMethodMatcher = createBlockingMethodMatcher(flags);
+  }
+
+  @Override
+  public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+    return match(tree, state);
+  }
+
+  @Override
+  public Description matchMemberReference(MemberReferenceTree tree, VisitorState state) {
+    return match(tree, state);
+  }
+
+  private Description match(ExpressionTree tree, VisitorState state) {
+    if (!blockingMethodMatcher.matches(tree, state)) {
+      return Description.NO_MATCH;
+    }
+
+    return findEnclosingOperator(state)
+        .filter(operator -> !isOffloaded(operator, state))
+        .map(operator -> describeBlockingCall(tree, operator, state))
+        .orElse(Description.NO_MATCH);
+  }
+
+  private Description describeBlockingCall(
+      ExpressionTree tree, TreePath operator, VisitorState state) {
+    Description.Builder description =
+        buildDescription(tree)
+            .setMessage(
+                String.format(
+                    "Avoid blocking calls inside Reactor operators such as `%s`, as these may be "
+                        + "executed on a non-blocking thread",
+                    ASTHelpers.getSymbol((MethodInvocationTree) operator.getLeaf())
+                        .getSimpleName()));
+    return HotPaths.escalateSeverity(description, this, state).build();
+  }
+
+  /**
+   * Returns the path to the innermost Reactor operator invocation to which the current path is
+   * passed as (part of) a lambda expression or method reference, if any.
+   *
+   * <p>Functions passed to static Reactor factory methods such as {@code Mono#fromCallable} are
+   * executed on the subscribing thread. As such, these are considered safe only if the resultant
+   * publisher is visibly subscribed to on a bounded elastic scheduler; otherwise the search
+   * continues with the enclosing expression.
+   */
+  private static Optional<TreePath> findEnclosingOperator(VisitorState state) {
+    TreePath path = state.getPath();
+    for (TreePath parent = path.getParentPath(); parent != null; parent = parent.getParentPath()) {
+      Tree tree = path.getLeaf();
+      if (tree instanceof MethodTree || tree instanceof ClassTree) {
+        return Optional.empty();
+      }
+
+      if ((tree instanceof LambdaExpressionTree || tree instanceof MemberReferenceTree)
+          && parent.getLeaf() instanceof MethodInvocationTree
+          && ((MethodInvocationTree) parent.getLeaf()).getArguments().contains(tree)) {
+        ExpressionTree invocation = (ExpressionTree) parent.getLeaf();
+        if (PUBLISHER_OPERATOR.matches(invocation, state)) {
+          return Optional.of(parent);
+        }
+        if (PUBLISHER_FACTORY.matches(invocation, state)
+            && isSubscribedOnBoundedElasticScheduler(parent, state)) {
+          return Optional.empty();
+        }
+      }
+      path = parent;
+    }
+
+    return Optional.empty();
+  }
+
+  /**
+   * Tells whether the given operator is part of a pipeline that offloads its work to a bounded
+   * elastic scheduler, either by an upstream {@code publishOn} or {@code subscribeOn} invocation,
+   * or by a downstream {@code subscribeOn} invocation.
+   */
+  private static boolean isOffloaded(TreePath operator, VisitorState state) {
+    for (@Nullable
+        ExpressionTree upstream = ASTHelpers.getReceiver((ExpressionTree) operator.getLeaf());
+        upstream instanceof MethodInvocationTree;
+        upstream = ASTHelpers.getReceiver(upstream)) {
+      if (OFFLOADING_OPERATOR.matches(upstream, state)
+          && isBoundedElasticScheduler((MethodInvocationTree) upstream, state)) {
+        return true;
+      }
+    }
+
+    return isSubscribedOnBoundedElasticScheduler(operator, state);
+  }
+
+  /**
+   * Tells whether the publisher produced by the given invocation is subscribed to on a bounded
+   * elastic scheduler, by means of a downstream {@code subscribeOn} invocation.
+   */
+  private static boolean isSubscribedOnBoundedElasticScheduler(
+      TreePath publisher, VisitorState state) {
+    for (TreePath downstream = publisher;
+        downstream.getParentPath().getLeaf() instanceof MemberSelectTree
+            && downstream.getParentPath().getParentPath().getLeaf()
+                instanceof MethodInvocationTree;
+        downstream = downstream.getParentPath().getParentPath()) {
+      MethodInvocationTree invocation =
+          (MethodInvocationTree) downstream.getParentPath().getParentPath().getLeaf();
+      if (SUBSCRIBE_ON.matches(invocation, state)
+          && isBoundedElasticScheduler(invocation, state)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private static boolean isBoundedElasticScheduler(
+      MethodInvocationTree invocation, VisitorState state) {
+    return invocation.getArguments().stream()
+        .anyMatch(arg -> BOUNDED_ELASTIC_SCHEDULER.matches(arg, state));
+  }
+
+  private static Matcher<ExpressionTree> createBlockingMethodMatcher(ErrorProneFlags flags) {
+    // XXX: ErrorProneFlags#getList splits by comma, so methods accepting more than one argument
+    // cannot currently be specified.
+    return anyOf(
+        WELL_KNOWN_BLOCKING_METHODS,
+        new MethodMatcherFactory().create(Flags.getList(flags, EXTRA_BLOCKING_METHODS_FLAG)));
+  }
+}
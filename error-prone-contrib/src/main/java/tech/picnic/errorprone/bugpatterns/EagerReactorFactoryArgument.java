@@ -0,0 +1,280 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.errorprone.BugPattern.LinkType.CUSTOM;
+import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
+import static com.google.errorprone.BugPattern.StandardTags.PERFORMANCE;
+import static com.google.errorprone.matchers.Matchers.anyOf;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
+
+import com.google.auto.service.AutoService;
+import com.google.common.collect.Iterables;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.fixes.SuggestedFixes;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.suppliers.Supplier;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.ReturnTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symbol.MethodSymbol;
+import com.sun.tools.javac.code.Type;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.lang.model.element.ElementKind;
+import org.jspecify.annotations.Nullable;
+import tech.picnic.errorprone.bugpatterns.util.HotPaths;
+import tech.picnic.errorprone.bugpatterns.util.MoreSuppliers;
+
+/**
+ * A {@link BugChecker} that flags Reactor factory method invocations whose argument requires
+ * computation that is performed when the publisher is assembled, rather than when (and each time)
+ * it is subscribed to.
+ *
+ * <p>Such work is wasted if the publisher is never subscribed to, as is commonly the case for
+ * fallback publishers passed to e.g. {@code Mono#switchIfEmpty} and {@code Mono#onErrorResume}.
+ * Moreover, the work is not repeated upon resubscription, e.g. when the publisher is retried.
+ * Factory method invocations whose result is returned from a lambda expression are not flagged, as
+ * the latter is generally evaluated lazily already.
+ *
+ * <p>The suggested fix defers evaluation of the argument using {@code Mono#fromSupplier}, {@code
+ * Mono#defer}, {@code Flux#defer} or a {@link java.util.function.Supplier}-accepting overload of
+ * the invoked factory method. If the argument may throw a checked exception, then {@code
+ * Mono#fromCallable} is suggested instead of {@code Mono#fromSupplier}, while no fix is suggested
+ * for the other factory methods. Note that, unlike {@code Mono.just(null)}, {@code
+ * Mono.fromSupplier(() -> null)} yields an empty {@code Mono} rather than throwing an exception.
+ */
+// XXX: Consider the arguments of method invocations with well-known cheap results, such as
+// `Collections#emptyList()` or simple getters, trivial.
+@AutoService(BugChecker.class)
+@BugPattern(
+    summary = "Defer work required to create a `Mono` or `Flux` until it is subscribed to",
+    link = BUG_PATTERNS_BASE_URL + "EagerReactorFactoryArgument",
+    linkType = CUSTOM,
+    severity = SUGGESTION,
+    tags = PERFORMANCE)
+public final class EagerReactorFactoryArgument extends BugChecker
+    implements MethodInvocationTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final String MONO = "reactor.core.publisher.Mono";
+  private static final String FLUX = "reactor.core.publisher.Flux";
+  private static final Matcher<ExpressionTree> MONO_JUST =
+      staticMethod().onClass(MONO).namedAnyOf("just", "justOrEmpty");
+  private static final Matcher<ExpressionTree> FLUX_FROM_ITERABLE =
+      staticMethod().onClass(FLUX).named("fromIterable");
+  private static final Matcher<ExpressionTree> SUPPLIER_ACCEPTING_FACTORY =
+      anyOf(
+          staticMethod()
+              .onClass(FLUX)
+              .named("fromStream")
+              .withParameters("java.util.stream.Stream"),
+          staticMethod()
+              .onClass(MONO)
+              .named("fromFuture")
+              .withParameters("java.util.concurrent.CompletableFuture"),
+          staticMethod()
+              .onClass(MONO)
+              .named("fromCompletionStage")
+              .withParameters("java.util.concurrent.CompletionStage"));
+  private static final Matcher<ExpressionTree> CHEAP_FACTORY_METHOD =
+      staticMethod().anyClass().namedAnyOf("empty", "of", "ofNullable", "valueOf");
+  private static final Supplier<Type> OPTIONAL =
+      MoreSuppliers.memoize(state -> state.getTypeFromString(Optional.class.getName()));
+
+  /** Instantiates a new {@link EagerReactorFactoryArgument} instance. */
+  public EagerReactorFactoryArgument() {}
+
+  @Override
+  public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+    boolean isMonoJust = MONO_JUST.matches(tree, state);
+    boolean isFluxFromIterable = FLUX_FROM_ITERABLE.matches(tree, state);
+    if (!isMonoJust && !isFluxFromIterable && !SUPPLIER_ACCEPTING_FACTORY.matches(tree, state)) {
+      return Description.NO_MATCH;
+    }
+
+    ExpressionTree argument = Iterables.getOnlyElement(tree.getArguments());
+    if (!isNonTrivial(argument, state) || isLambdaResult(state)) {
+      return Description.NO_MATCH;
+    }
+
+    Description.Builder description = buildDescription(tree);
+    if (canBeCaptured(argument)) {
+      suggestDeferral(tree, argument, isMonoJust, isFluxFromIterable, state)
+          .ifPresent(description::addFix);
+    }
+    return HotPaths.escalateSeverityInHotContext(description, this, state).build();
+  }
+
+  /**
+   * Suggests deferring evaluation of the given argument, if this can be done without introducing a
+   * compilation error.
+   *
+   * <p>Lambda expressions that throw a checked exception are compatible only with {@code
+   * Mono#fromCallable}; the other factory methods and {@code Mono#defer} and {@code Flux#defer}
+   * accept only {@link java.util.function.Supplier}s.
+   */
+  private static Optional<SuggestedFix> suggestDeferral(
+      MethodInvocationTree tree,
+      ExpressionTree argument,
+      boolean isMonoJust,
+      boolean isFluxFromIterable,
+      VisitorState state) {
+    boolean mayThrowCheckedException = mayThrowCheckedException(argument, state);
+    boolean isOptional =
+        ASTHelpers.isSubtype(ASTHelpers.getType(argument), OPTIONAL.get(state), state);
+    if (mayThrowCheckedException && (!isMonoJust || isOptional)) {
+      return Optional.empty();
+    }
+
+    if (isFluxFromIterable) {
+      return Optional.of(defer(tree, FLUX, state));
+    }
+
+    if (isMonoJust) {
+      if (isOptional) {
+        return Optional.of(defer(tree, MONO, state));
+      }
+
+      return Optional.of(
+          SuggestedFix.builder()
+              .merge(
+                  SuggestedFixes.renameMethodInvocation(
+                      tree, mayThrowCheckedException ? "fromCallable" : "fromSupplier", state))
+              .prefixWith(argument, "() -> ")
+              .build());
+    }
+
+    return Optional.of(SuggestedFix.prefixWith(argument, "() -> "));
+  }
+
+  private static boolean isNonTrivial(ExpressionTree argument, VisitorState state) {
+    ExpressionTree expression = ASTHelpers.stripParentheses(argument);
+    switch (expression.getKind()) {
+      case METHOD_INVOCATION:
+        return ASTHelpers.constValue(expression) == null
+            && !CHEAP_FACTORY_METHOD.matches(expression, state);
+      case NEW_CLASS:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Tells whether the current path, or the result of any operators invoked on it, is the result of
+   * a lambda expression.
+   */
+  private static boolean isLambdaResult(VisitorState state) {
+    TreePath path = state.getPath();
+    while (path.getParentPath().getLeaf() instanceof MemberSelectTree
+        && path.getParentPath().getParentPath().getLeaf() instanceof MethodInvocationTree) {
+      path = path.getParentPath().getParentPath();
+    }
+
+    Tree parent = path.getParentPath().getLeaf();
+    if (parent instanceof LambdaExpressionTree) {
+      return true;
+    }
+
+    if (parent instanceof ReturnTree) {
+      for (Tree tree : path) {
+        if (tree instanceof LambdaExpressionTree) {
+          return true;
+        }
+        if (tree instanceof MethodTree || tree instanceof ClassTree) {
+          return false;
+        }
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Tells whether the given expression can be moved into a lambda expression; i.e., whether it
+   * references only local variables and parameters that are effectively final.
+   */
+  private static boolean canBeCaptured(ExpressionTree expression) {
+    AtomicBoolean capturable = new AtomicBoolean(true);
+    new TreeScanner<@Nullable Void, @Nullable Void>() {
+      @Override
+      public @Nullable Void visitIdentifier(IdentifierTree node, @Nullable Void unused) {
+        @Nullable Symbol symbol = ASTHelpers.getSymbol(node);
+        if (symbol != null
+            && (symbol.getKind() == ElementKind.LOCAL_VARIABLE
+                || symbol.getKind() == ElementKind.PARAMETER)
+            && !ASTHelpers.isConsideredFinal(symbol)) {
+          capturable.set(false);
+        }
+        return null;
+      }
+    }.scan(expression, null);
+    return capturable.get();
+  }
+
+  /**
+   * Tells whether evaluation of the given expression may throw a checked exception; i.e., whether
+   * it (transitively) invokes a method or constructor that declares to throw one.
+   */
+  private static boolean mayThrowCheckedException(ExpressionTree expression, VisitorState state) {
+    AtomicBoolean mayThrow = new AtomicBoolean();
+    new TreeScanner<@Nullable Void, @Nullable Void>() {
+      @Override
+      public @Nullable Void visitMethodInvocation(
+          MethodInvocationTree node, @Nullable Void unused) {
+        checkThrownTypes(ASTHelpers.getSymbol(node));
+        return super.visitMethodInvocation(node, null);
+      }
+
+      @Override
+      public @Nullable Void visitNewClass(NewClassTree node, @Nullable Void unused) {
+        checkThrownTypes(ASTHelpers.getSymbol(node));
+        return super.visitNewClass(node, null);
+      }
+
+      @Override
+      public @Nullable Void visitLambdaExpression(
+          LambdaExpressionTree node, @Nullable Void unused) {
+        /* The body of a lambda expression is not evaluated as part of the enclosing expression. */
+        return null;
+      }
+
+      @Override
+      public @Nullable Void visitClass(ClassTree node, @Nullable Void unused) {
+        /* Likewise, the members of an anonymous class are not evaluated. */
+        return null;
+      }
+
+      private void checkThrownTypes(@Nullable MethodSymbol symbol) {
+        if (symbol != null
+            && symbol.getThrownTypes().stream()
+                .anyMatch(type -> ASTHelpers.isCheckedExceptionType(type, state))) {
+          mayThrow.set(true);
+        }
+      }
+    }.scan(expression, null);
+    return mayThrow.get();
+  }
+
+  private static SuggestedFix defer(
+      MethodInvocationTree tree, String publisherType, VisitorState state) {
+    SuggestedFix.Builder fix = SuggestedFix.builder();
+    String publisher = SuggestedFixes.qualifyType(state, fix, publisherType);
+    return fix.prefixWith(tree, publisher + ".defer(() -> ").postfixWith(tree, ")").build();
+  }
+}
@@ -1,16 +1,27 @@
 package tech.picnic.errorprone.bugpatterns;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.errorprone.BugPattern.LinkType.CUSTOM;
 import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
 import static com.google.errorprone.BugPattern.StandardTags.STYLE;
 import static com.google.errorprone.matchers.Matchers.anyOf;
 import static com.google.errorprone.matchers.Matchers.instanceMethod;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
 import static java.util.stream.Collectors.joining;
 import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
 
 import com.google.auto.service.AutoService;
 import com.google.common.base.Splitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import com.google.errorprone.BugPattern;
+import com.google.errorprone.ErrorProneFlags;
 import com.google.errorprone.VisitorState;
 import com.google.errorprone.bugpatterns.BugChecker;
 import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
@@ -27,8 +38,16 @@ import com.sun.source.tree.ExpressionTree;
 import com.sun.source.tree.MethodInvocationTree;
 import com.sun.source.tree.Tree;
 import com.sun.tools.javac.util.Position;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+import org.jspecify.annotations.Nullable;
 
 /**
  * A {@link BugChecker} that flags improperly formatted Error Prone test code.
@@ -43,6 +62,13 @@ import java.util.Optional;
  * refactoring operation is allowed to have unused imports, as most {@link BugChecker}s do not (and
  * are not able to) remove imports that become obsolete as a result of applying their suggested
  * fix(es).
+ *
+ * <p>As formatting is relatively expensive, the outcome of formatting a given piece of code is
+ * cached in memory, in a bounded least-recently-used fashion. Additionally, the flag {@value
+ * #CACHE_FILE_FLAG} may be used to specify a file in which hashes of code known to be properly
+ * formatted are persisted, such that unchanged test code need not be formatted again by subsequent
+ * builds. This file is periodically compacted, such that it retains only the hashes of the {@value
+ * #MAX_PERSISTED_FORMATTED_SOURCES} most recently recorded sources; malformed entries are ignored.
  */
 // XXX: Once we target JDK 17 (optionally?) suggest text block fixes.
 // XXX: GJF guesses the line separator to be used by inspecting the source. When using text blocks
@@ -58,7 +84,27 @@ import java.util.Optional;
 public final class ErrorProneTestHelperSourceFormat extends BugChecker
     implements MethodInvocationTreeMatcher {
   private static final long serialVersionUID = 1L;
+  private static final String CACHE_FILE_FLAG = "ErrorProneTestHelperSourceFormat:CacheFile";
   private static final Formatter FORMATTER = new Formatter();
+  /**
+   * The version of Google Java Format in use. It is included in cache keys, such that a change in
+   * formatting behavior invalidates previously persisted cache entries.
+   */
+  private static final String FORMATTER_VERSION =
+      String.valueOf(Formatter.class.getPackage().getImplementationVersion());
+  /**
+   * Formatting outcomes, indexed by a hash of the formatted source code. An empty value indicates
+   * that the associated source code is already properly formatted.
+   */
+  private static final Cache<HashCode, Optional<String>> FORMATTING_RESULTS =
+      CacheBuilder.newBuilder().maximumSize(1024).build();
+  /** The maximum number of hashes of properly formatted source code retained per cache file. */
+  private static final int MAX_PERSISTED_FORMATTED_SOURCES = 4096;
+  private static final Pattern PERSISTED_HASH =
+      Pattern.compile(String.format("[0-9a-f]{%d}", Hashing.sha256().bits() / 4));
+  /** Hashes of source code known to be properly formatted, indexed by cache file. */
+  private static final ConcurrentMap<Path, PersistedFormattedSources> PERSISTED_FORMATTED_SOURCES =
+      new ConcurrentHashMap<>();
   private static final Matcher<ExpressionTree> INPUT_SOURCE_ACCEPTING_METHOD =
       anyOf(
           instanceMethod()
@@ -72,8 +118,21 @@ public final class ErrorProneTestHelperSourceFormat extends BugChecker
           .onDescendantOf("com.google.errorprone.BugCheckerRefactoringTestHelper.ExpectOutput")
           .named("addOutputLines");
 
-  /** Instantiates a new {@link ErrorProneTestHelperSourceFormat} instance. */
-  public ErrorProneTestHelperSourceFormat() {}
+  private final @Nullable String cacheFile;
+
+  /** Instantiates a default {@link ErrorProneTestHelperSourceFormat} instance. */
+  public ErrorProneTestHelperSourceFormat() {
+    this(ErrorProneFlags.empty());
+  }
+
+  /**
+   * Instantiates a customized {@link ErrorProneTestHelperSourceFormat} instance.
+   *
+   * @param flags Any provided command line flags.
+   */
+  public ErrorProneTestHelperSourceFormat(ErrorProneFlags flags) {
+    cacheFile = flags.get(CACHE_FILE_FLAG).orElse(null);
+  }
 
   @Override
   public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
@@ -101,19 +160,21 @@ public final class ErrorProneTestHelperSourceFormat extends BugChecker
       int startPos, int endPos, String source, boolean retainUnusedImports, VisitorState state) {
     Tree methodInvocation = state.getPath().getLeaf();
 
-    String formatted;
+    Optional<String> reformatted;
     try {
-      formatted = formatSourceCode(source, retainUnusedImports).trim();
+      reformatted = getReformattedSourceCode(source, retainUnusedImports);
     } catch (FormatterException e) {
       return buildDescription(methodInvocation)
           .setMessage(String.format("Source code is malformed: %s", e.getMessage()))
           .build();
     }
 
-    if (source.trim().equals(formatted)) {
+    if (reformatted.isEmpty()) {
       return Description.NO_MATCH;
     }
 
+    String formatted = reformatted.orElseThrow();
+
     if (startPos == Position.NOPOS || endPos == Position.NOPOS) {
       /*
        * We have insufficient source information to emit a fix, so we only flag the fact that the
@@ -137,6 +198,49 @@ public final class ErrorProneTestHelperSourceFormat extends BugChecker
                 .collect(joining(", "))));
   }
 
+  /**
+   * Returns the properly formatted variant of the given source code, unless it is already properly
+   * formatted.
+   */
+  private Optional<String> getReformattedSourceCode(String source, boolean retainUnusedImports)
+      throws FormatterException {
+    HashCode key =
+        Hashing.sha256()
+            .newHasher()
+            .putString(FORMATTER_VERSION, UTF_8)
+            .putBoolean(retainUnusedImports)
+            .putString(source, UTF_8)
+            .hash();
+
+    if (cacheFile == null) {
+      return reformatSourceCode(key, source, retainUnusedImports);
+    }
+
+    PersistedFormattedSources formattedSources =
+        PERSISTED_FORMATTED_SOURCES.computeIfAbsent(
+            Path.of(cacheFile), PersistedFormattedSources::load);
+    if (formattedSources.contains(key)) {
+      return Optional.empty();
+    }
+
+    Optional<String> reformatted = reformatSourceCode(key, source, retainUnusedImports);
+    if (reformatted.isEmpty()) {
+      formattedSources.add(key);
+    }
+    return reformatted;
+  }
+
+  private static Optional<String> reformatSourceCode(
+      HashCode key, String source, boolean retainUnusedImports) throws FormatterException {
+    Optional<String> reformatted = FORMATTING_RESULTS.getIfPresent(key);
+    if (reformatted == null) {
+      String formatted = formatSourceCode(source, retainUnusedImports).trim();
+      reformatted = source.trim().equals(formatted) ? Optional.empty() : Optional.of(formatted);
+      FORMATTING_RESULTS.put(key, reformatted);
+    }
+    return reformatted;
+  }
+
   private static String formatSourceCode(String source, boolean retainUnusedImports)
       throws FormatterException {
     String withReorderedImports = ImportOrderer.reorderImports(source, Style.GOOGLE);
@@ -162,4 +266,94 @@ public final class ErrorProneTestHelperSourceFormat extends BugChecker
 
     return Optional.of(source.toString());
   }
+
+  /**
+   * A bounded set of hashes of source code known to be properly formatted, backed by a cache file.
+   *
+   * <p>New hashes are appended to the cache file. Once the file contains more than twice the
+   * number of retained hashes, it is rewritten to contain only the retained hashes. The file is
+   * likewise rewritten upon load if it contains malformed (e.g. truncated) or excess entries.
+   */
+  private static final class PersistedFormattedSources {
+    private final Path cacheFile;
+    private final Cache<HashCode, Boolean> hashes =
+        CacheBuilder.newBuilder().maximumSize(MAX_PERSISTED_FORMATTED_SOURCES).build();
+    private int persistedEntryCount;
+
+    private PersistedFormattedSources(Path cacheFile) {
+      this.cacheFile = cacheFile;
+    }
+
+    static PersistedFormattedSources load(Path cacheFile) {
+      PersistedFormattedSources formattedSources = new PersistedFormattedSources(cacheFile);
+      if (!Files.exists(cacheFile)) {
+        return formattedSources;
+      }
+
+      List<String> lines;
+      try {
+        lines = Files.readAllLines(cacheFile, UTF_8);
+      } catch (IOException e) {
+        throw new UncheckedIOException(
+            String.format("Failed to read formatter cache file '%s'", cacheFile), e);
+      }
+
+      /* Later entries are more recent, and are thus retained in favour of earlier entries. */
+      for (String line : lines) {
+        if (PERSISTED_HASH.matcher(line).matches()) {
+          formattedSources.hashes.put(HashCode.fromString(line), Boolean.TRUE);
+        }
+      }
+
+      formattedSources.persistedEntryCount = lines.size();
+      if (lines.size() != formattedSources.hashes.size()) {
+        formattedSources.compact();
+      }
+      return formattedSources;
+    }
+
+    boolean contains(HashCode hash) {
+      return hashes.getIfPresent(hash) != null;
+    }
+
+    synchronized void add(HashCode hash) {
+      if (hashes.asMap().putIfAbsent(hash, Boolean.TRUE) != null) {
+        return;
+      }
+
+      if (persistedEntryCount >= 2 * MAX_PERSISTED_FORMATTED_SOURCES) {
+        compact();
+        return;
+      }
+
+      try {
+        Files.writeString(cacheFile, hash + "\n", UTF_8, CREATE, APPEND);
+      } catch (IOException e) {
+        throw new UncheckedIOException(
+            String.format("Failed to write formatter cache file '%s'", cacheFile), e);
+      }
+      persistedEntryCount++;
+    }
+
+    /**
+     * Replaces the content of the cache file with the currently retained hashes.
+     *
+     * @implNote The new content is first written to a temporary file, which then replaces the
+     *     cache file, such that an interrupted rewrite does not cause entries to be lost.
+     */
+    private synchronized void compact() {
+      List<String> entries =
+          hashes.asMap().keySet().stream().map(HashCode::toString).collect(toImmutableList());
+      try {
+        Path tempFile =
+            Files.createTempFile(cacheFile.toAbsolutePath().getParent(), "formatter-cache", null);
+        Files.write(tempFile, entries, UTF_8);
+        Files.move(tempFile, cacheFile, REPLACE_EXISTING, ATOMIC_MOVE);
+      } catch (IOException e) {
+        throw new UncheckedIOException(
+            String.format("Failed to write formatter cache file '%s'", cacheFile), e);
+      }
+      persistedEntryCount = entries.size();
+    }
+  }
 }
@@ -6,6 +6,7 @@ import static com.google.errorprone.BugPattern.StandardTags.LIKELY_ERROR;
 import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
 import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
 import static tech.picnic.errorprone.bugpatterns.util.MoreTypes.generic;
+import static tech.picnic.errorprone.bugpatterns.util.MoreTypes.isSubtype;
 import static tech.picnic.errorprone.bugpatterns.util.MoreTypes.subOf;
 import static tech.picnic.errorprone.bugpatterns.util.MoreTypes.type;
 import static tech.picnic.errorprone.bugpatterns.util.MoreTypes.unbound;
@@ -68,8 +69,7 @@ public final class FluxFlatMapUsage extends BugChecker
           .namedAnyOf("flatMap", "flatMapSequential")
           .withParameters(Function.class.getName());
   private static final Supplier<Type> FLUX_OF_PUBLISHERS =
-      VisitorState.memoize(
-          generic(FLUX, subOf(generic(type("org.reactivestreams.Publisher"), unbound()))));
+      generic(FLUX, subOf(generic(type("org.reactivestreams.Publisher"), unbound())));
 
   /** Instantiates a new {@link FluxFlatMapUsage} instance. */
   public FluxFlatMapUsage() {}
@@ -89,7 +89,7 @@ public final class FluxFlatMapUsage extends BugChecker
 
     Description.Builder description = buildDescription(tree);
 
-    if (state.getTypes().isSubtype(ASTHelpers.getType(tree), FLUX_OF_PUBLISHERS.get(state))) {
+    if (isSubtype(ASTHelpers.getType(tree), FLUX_OF_PUBLISHERS, state)) {
       /*
        * Nested publishers may need to be subscribed to eagerly in order to avoid a deadlock, e.g.
        * if they are produced by `Flux#groupBy`. In this case we suggest specifying an explicit
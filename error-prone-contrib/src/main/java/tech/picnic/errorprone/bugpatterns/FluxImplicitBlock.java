@@ -25,6 +25,7 @@ import com.sun.source.tree.MethodInvocationTree;
 import com.sun.tools.javac.code.Type;
 import com.sun.tools.javac.util.Position;
 import java.util.stream.Stream;
+import tech.picnic.errorprone.bugpatterns.util.HotPaths;
 import tech.picnic.errorprone.bugpatterns.util.ThirdPartyLibrary;
 
 /**
@@ -69,7 +70,7 @@ public final class FluxImplicitBlock extends BugChecker implements MethodInvocat
     description.addFix(
         suggestBlockingElementCollection(tree, "java.util.stream.Collectors.toList", state));
 
-    return description.build();
+    return HotPaths.escalateSeverity(description, this, state).build();
   }
 
   private static SuggestedFix suggestBlockingElementCollection(
@@ -5,7 +5,6 @@ import static com.google.errorprone.BugPattern.SeverityLevel.WARNING;
 import static com.google.errorprone.BugPattern.StandardTags.SIMPLIFICATION;
 import static com.google.errorprone.matchers.Matchers.allOf;
 import static com.google.errorprone.matchers.Matchers.anyMethod;
-import static com.google.errorprone.matchers.Matchers.anyOf;
 import static com.google.errorprone.matchers.Matchers.instanceMethod;
 import static com.google.errorprone.matchers.Matchers.not;
 import static com.google.errorprone.matchers.Matchers.staticMethod;
@@ -13,6 +12,7 @@ import static java.util.stream.Collectors.joining;
 import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
 
 import com.google.auto.service.AutoService;
+import com.google.common.collect.ImmutableSet;
 import com.google.errorprone.BugPattern;
 import com.google.errorprone.VisitorState;
 import com.google.errorprone.bugpatterns.BugChecker;
@@ -33,6 +33,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import org.jspecify.annotations.Nullable;
+import tech.picnic.errorprone.bugpatterns.util.NameIndexedMethodMatcher;
 import tech.picnic.errorprone.bugpatterns.util.SourceCode;
 
 /**
@@ -70,60 +71,66 @@ public final class FormatStringConcatenation extends BugChecker
           .withParameters(String.class.getName(), Throwable.class.getName());
   // XXX: Drop some of these methods if we use Refaster to replace some with others.
   private static final Matcher<ExpressionTree> ASSERTJ_FORMAT_METHOD =
-      anyOf(
-          instanceMethod()
-              .onDescendantOf("org.assertj.core.api.AbstractAssert")
-              .namedAnyOf("overridingErrorMessage", "withFailMessage"),
-          allOf(
-              instanceMethod()
-                  .onDescendantOf("org.assertj.core.api.AbstractSoftAssertions")
-                  .named("fail"),
-              not(ASSERTJ_FAIL_WITH_THROWABLE_METHOD)),
-          instanceMethod()
-              .onDescendantOf("org.assertj.core.api.AbstractStringAssert")
-              .named("isEqualTo"),
-          instanceMethod()
-              .onDescendantOf("org.assertj.core.api.AbstractThrowableAssert")
-              .namedAnyOf(
+      NameIndexedMethodMatcher.<ExpressionTree>builder()
+          .add(
+              ImmutableSet.of("overridingErrorMessage", "withFailMessage"),
+              instanceMethod().onDescendantOf("org.assertj.core.api.AbstractAssert"))
+          .add(
+              "fail",
+              allOf(
+                  instanceMethod().onDescendantOf("org.assertj.core.api.AbstractSoftAssertions"),
+                  not(ASSERTJ_FAIL_WITH_THROWABLE_METHOD)))
+          .add(
+              "isEqualTo",
+              instanceMethod().onDescendantOf("org.assertj.core.api.AbstractStringAssert"))
+          .add(
+              ImmutableSet.of(
                   "hasMessage",
                   "hasMessageContaining",
                   "hasMessageEndingWith",
                   "hasMessageStartingWith",
                   "hasRootCauseMessage",
                   "hasStackTraceContaining"),
-          instanceMethod()
-              .onDescendantOf("org.assertj.core.api.Descriptable")
-              .namedAnyOf("as", "describedAs"),
-          instanceMethod()
-              .onDescendantOf("org.assertj.core.api.ThrowableAssertAlternative")
-              .namedAnyOf(
+              instanceMethod().onDescendantOf("org.assertj.core.api.AbstractThrowableAssert"))
+          .add(
+              ImmutableSet.of("as", "describedAs"),
+              instanceMethod().onDescendantOf("org.assertj.core.api.Descriptable"))
+          .add(
+              ImmutableSet.of(
                   "withMessage",
                   "withMessageContaining",
                   "withMessageEndingWith",
                   "withMessageStartingWith",
                   "withStackTraceContaining"),
-          allOf(
-              instanceMethod().onDescendantOf("org.assertj.core.api.WithAssertions").named("fail"),
-              not(ASSERTJ_FAIL_WITH_THROWABLE_METHOD)),
-          allOf(
-              staticMethod()
-                  .onClassAny(
-                      "org.assertj.core.api.Assertions",
-                      "org.assertj.core.api.BDDAssertions",
-                      "org.assertj.core.api.Fail")
-                  .named("fail"),
-              not(ASSERTJ_FAIL_WITH_THROWABLE_METHOD)));
+              instanceMethod().onDescendantOf("org.assertj.core.api.ThrowableAssertAlternative"))
+          .add(
+              "fail",
+              allOf(
+                  instanceMethod().onDescendantOf("org.assertj.core.api.WithAssertions"),
+                  not(ASSERTJ_FAIL_WITH_THROWABLE_METHOD)))
+          .add(
+              "fail",
+              allOf(
+                  staticMethod()
+                      .onClassAny(
+                          "org.assertj.core.api.Assertions",
+                          "org.assertj.core.api.BDDAssertions",
+                          "org.assertj.core.api.Fail"),
+                  not(ASSERTJ_FAIL_WITH_THROWABLE_METHOD)))
+          .build();
   private static final Matcher<ExpressionTree> GUAVA_FORMAT_METHOD =
-      anyOf(
-          staticMethod()
-              .onClass("com.google.common.base.Preconditions")
-              .namedAnyOf("checkArgument", "checkNotNull", "checkState"),
-          staticMethod().onClass("com.google.common.base.Verify").named("verify"));
+      NameIndexedMethodMatcher.<ExpressionTree>builder()
+          .add(
+              ImmutableSet.of("checkArgument", "checkNotNull", "checkState"),
+              staticMethod().onClass("com.google.common.base.Preconditions"))
+          .add("verify", staticMethod().onClass("com.google.common.base.Verify"))
+          .build();
   // XXX: Add `PrintWriter`, maybe others.
   private static final Matcher<ExpressionTree> JDK_FORMAT_METHOD =
-      anyOf(
-          staticMethod().onClass("java.lang.String").named("format"),
-          instanceMethod().onExactClass("java.util.Formatter").named("format"));
+      NameIndexedMethodMatcher.<ExpressionTree>builder()
+          .add("format", staticMethod().onClass("java.lang.String"))
+          .add("format", instanceMethod().onExactClass("java.util.Formatter"))
+          .build();
   private static final Matcher<ExpressionTree> SLF4J_FORMAT_METHOD =
       instanceMethod()
           .onDescendantOf("org.slf4j.Logger")
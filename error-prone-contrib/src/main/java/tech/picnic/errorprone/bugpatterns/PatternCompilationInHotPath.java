@@ -0,0 +1,461 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.google.errorprone.BugPattern.LinkType.CUSTOM;
+import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
+import static com.google.errorprone.BugPattern.StandardTags.PERFORMANCE;
+import static com.google.errorprone.matchers.Matchers.anyOf;
+import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toCollection;
+import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
+
+import com.google.auto.service.AutoService;
+import com.google.common.base.CaseFormat;
+import com.google.common.base.CharMatcher;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.fixes.SuggestedFixes;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.BlockTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreePathScanner;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symbol.VarSymbol;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import org.jspecify.annotations.Nullable;
+import tech.picnic.errorprone.bugpatterns.util.CompilationUnitFacts;
+import tech.picnic.errorprone.bugpatterns.util.HotPaths;
+import tech.picnic.errorprone.bugpatterns.util.SourceCode;
+
+/**
+ * A {@link BugChecker} that flags regular expressions that are compiled each time the enclosing
+ * code is executed, even though the expression is a compile-time constant.
+ *
+ * <p>Besides explicit {@link Pattern#compile(String)} invocations, this includes invocations of
+ * {@link String#matches(String)}, {@link String#replaceAll(String, String)}, {@link
+ * String#replaceFirst(String, String)} and {@link String#split(String)}. (The latter method does
+ * not compile single-character regular expressions that do not contain metacharacters; such
+ * invocations are not flagged.) The suggested fix hoists the regular expression into a {@code
+ * private static final} {@link Pattern} field, named after the enclosing method. Fields introduced
+ * for different matches within the same class are assigned distinct names.
+ *
+ * <p>The severity of matches in code that is executed repeatedly is escalated as described by
+ * {@link HotPaths#escalateSeverityInHotContext}.
+ */
+// XXX: Consider also flagging `Pattern#matches(String, CharSequence)` invocations.
+@AutoService(BugChecker.class)
+@BugPattern(
+    summary = "Avoid repeatedly compiling the same constant regular expression",
+    link = BUG_PATTERNS_BASE_URL + "PatternCompilationInHotPath",
+    linkType = CUSTOM,
+    severity = SUGGESTION,
+    tags = PERFORMANCE)
+public final class PatternCompilationInHotPath extends BugChecker
+    implements MethodInvocationTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final String PATTERN_TYPE = Pattern.class.getName();
+  private static final String REGEX_METACHARACTERS = ".$|()[{^?*+\\";
+  private static final CharMatcher ASCII_LETTER_OR_DIGIT =
+      CharMatcher.inRange('0', '9')
+          .or(CharMatcher.inRange('a', 'z'))
+          .or(CharMatcher.inRange('A', 'Z'));
+  private static final Matcher<ExpressionTree> PATTERN_COMPILE =
+      staticMethod().onClass(PATTERN_TYPE).named("compile");
+  private static final Matcher<ExpressionTree> STRING_REGEX_METHOD =
+      anyOf(
+          instanceMethod()
+              .onExactClass(String.class.getName())
+              .named("matches")
+              .withParameters(String.class.getName()),
+          instanceMethod()
+              .onExactClass(String.class.getName())
+              .namedAnyOf("replaceAll", "replaceFirst")
+              .withParameters(String.class.getName(), String.class.getName()));
+  private static final Matcher<ExpressionTree> STRING_SPLIT =
+      instanceMethod().onExactClass(String.class.getName()).named("split");
+  private static final ImmutableSet<ElementKind> SUPPORTED_FIELD_OWNER_KINDS =
+      ImmutableSet.of(ElementKind.CLASS);
+  private static final CompilationUnitFacts.Key<ImmutableMap<MethodInvocationTree, String>>
+      NEW_FIELD_NAMES = new CompilationUnitFacts.Key<>();
+
+  /** Instantiates a new {@link PatternCompilationInHotPath} instance. */
+  public PatternCompilationInHotPath() {}
+
+  @Override
+  public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+    if (!compilesConstantRegex(tree, state)) {
+      return Description.NO_MATCH;
+    }
+
+    Description.Builder description = buildDescription(tree);
+    getFieldOwner(state)
+        .map(owner -> hoistPattern(tree, owner, state))
+        .ifPresent(description::addFix);
+    return HotPaths.escalateSeverityInHotContext(description, this, state).build();
+  }
+
+  /**
+   * Tells whether the given method invocation compiles a constant regular expression each time it
+   * is evaluated.
+   */
+  private static boolean compilesConstantRegex(MethodInvocationTree tree, VisitorState state) {
+    boolean isPatternCompile = PATTERN_COMPILE.matches(tree, state);
+    if (!isPatternCompile
+        && !STRING_REGEX_METHOD.matches(tree, state)
+        && !STRING_SPLIT.matches(tree, state)) {
+      return false;
+    }
+
+    List<? extends ExpressionTree> arguments = tree.getArguments();
+    String regex = ASTHelpers.constValue(arguments.get(0), String.class);
+    return regex != null
+        && (!isPatternCompile
+            || arguments.size() == 1
+            || ASTHelpers.constValue(arguments.get(1), Integer.class) != null)
+        && !(STRING_SPLIT.matches(tree, state) && isSplitFastPath(regex))
+        && !isInStaticInitializer(state);
+  }
+
+  /**
+   * Tells whether {@link String#split(String)} splits the string without compiling the given
+   * regular expression.
+   */
+  private static boolean isSplitFastPath(String regex) {
+    if (regex.length() == 1) {
+      return REGEX_METACHARACTERS.indexOf(regex.charAt(0)) < 0;
+    }
+
+    return regex.length() == 2
+        && regex.charAt(0) == '\\'
+        && !ASCII_LETTER_OR_DIGIT.matches(regex.charAt(1))
+        && !Character.isSurrogate(regex.charAt(1));
+  }
+
+  /**
+   * Tells whether the current path is executed only once, as part of the initialization of a class.
+   */
+  private static boolean isInStaticInitializer(VisitorState state) {
+    TreePath path = state.getPath();
+    for (TreePath parent = path.getParentPath(); parent != null; parent = parent.getParentPath()) {
+      Tree tree = path.getLeaf();
+      if (tree instanceof MethodTree || tree instanceof LambdaExpressionTree) {
+        return false;
+      }
+
+      if (parent.getLeaf() instanceof ClassTree) {
+        return (tree instanceof BlockTree && ((BlockTree) tree).isStatic())
+            || (tree instanceof VariableTree
+                && ASTHelpers.getSymbol((VariableTree) tree).isStatic());
+      }
+      path = parent;
+    }
+
+    return false;
+  }
+
+  /**
+   * Returns the innermost enclosing class to which a {@code private static final} field can be
+   * added, if any.
+   */
+  private static Optional<ClassTree> getFieldOwner(VisitorState state) {
+    for (Tree tree : state.getPath()) {
+      if (tree instanceof ClassTree) {
+        ClassTree clazz = (ClassTree) tree;
+        Symbol symbol = ASTHelpers.getSymbol(clazz);
+        if (SUPPORTED_FIELD_OWNER_KINDS.contains(symbol.getKind())
+            && (symbol.getNestingKind() == NestingKind.TOP_LEVEL
+                || (symbol.getNestingKind() == NestingKind.MEMBER && symbol.isStatic()))) {
+          return Optional.of(clazz);
+        }
+      }
+    }
+
+    return Optional.empty();
+  }
+
+  private static SuggestedFix hoistPattern(
+      MethodInvocationTree tree, ClassTree owner, VisitorState state) {
+    SuggestedFix.Builder fix = SuggestedFix.builder();
+    String patternType = SuggestedFixes.qualifyType(state, fix, PATTERN_TYPE);
+    boolean isPatternCompile = PATTERN_COMPILE.matches(tree, state);
+
+    Tree enclosingMember = getEnclosingMember(owner, state.getPath());
+    Optional<String> existingField =
+        findExistingField(tree, owner, enclosingMember, patternType, state);
+    if (existingField.isPresent()) {
+      return fix.replace(tree, getReplacement(tree, isPatternCompile, existingField.get(), state))
+          .build();
+    }
+
+    /*
+     * The new field is inserted after any leading static fields, such that it may reference them,
+     * but before the member that contains the match, such that the latter may reference the new
+     * field. Constants declared further down are inlined, to avoid illegal forward references.
+     */
+    List<? extends Tree> members = owner.getMembers();
+    int enclosingMemberIndex = members.indexOf(enclosingMember);
+    int insertionIndex = Iterables.indexOf(members, member -> !isStaticField(member));
+    if (insertionIndex < 0 || insertionIndex > enclosingMemberIndex) {
+      insertionIndex = enclosingMemberIndex;
+    }
+
+    ImmutableSet<Symbol> laterFields =
+        members.subList(insertionIndex, members.size()).stream()
+            .filter(VariableTree.class::isInstance)
+            .map(member -> ASTHelpers.getSymbol((VariableTree) member))
+            .collect(toImmutableSet());
+    String fieldName = getNewFieldName(tree, owner, patternType, state);
+    return fix.prefixWith(
+            members.get(insertionIndex),
+            String.format(
+                "private static final %s %s = %s;\n\n",
+                patternType,
+                fieldName,
+                getInitializer(patternType, getRegexArguments(tree, state), laterFields, state)))
+        .replace(tree, getReplacement(tree, isPatternCompile, fieldName, state))
+        .build();
+  }
+
+  /** Returns the member of the given class that encloses the given path. */
+  private static Tree getEnclosingMember(ClassTree owner, TreePath path) {
+    for (TreePath parent = path.getParentPath(); parent != null; parent = parent.getParentPath()) {
+      if (parent.getLeaf() == owner) {
+        return path.getLeaf();
+      }
+      path = parent;
+    }
+
+    throw new IllegalStateException("Path is not enclosed by the given class");
+  }
+
+  private static List<? extends ExpressionTree> getRegexArguments(
+      MethodInvocationTree tree, VisitorState state) {
+    return PATTERN_COMPILE.matches(tree, state)
+        ? tree.getArguments()
+        : tree.getArguments().subList(0, 1);
+  }
+
+  private static String getInitializer(
+      String patternType,
+      List<? extends ExpressionTree> arguments,
+      ImmutableSet<Symbol> inaccessibleFields,
+      VisitorState state) {
+    return arguments.stream()
+        .map(arg -> toConstantSource(arg, inaccessibleFields, state))
+        .collect(joining(", ", patternType + ".compile(", ")"));
+  }
+
+  private static boolean isStaticField(Tree member) {
+    return member instanceof VariableTree
+        && ASTHelpers.getSymbol((VariableTree) member).isStatic();
+  }
+
+  private static String getReplacement(
+      MethodInvocationTree tree, boolean isPatternCompile, String fieldName, VisitorState state) {
+    if (isPatternCompile) {
+      return fieldName;
+    }
+
+    String receiver = SourceCode.treeToString(ASTHelpers.getReceiver(tree), state);
+    String methodName = ASTHelpers.getSymbol(tree).getSimpleName().toString();
+    List<? extends ExpressionTree> arguments = tree.getArguments();
+    switch (methodName) {
+      case "matches":
+        return String.format("%s.matcher(%s).matches()", fieldName, receiver);
+      case "replaceAll":
+      case "replaceFirst":
+        return String.format(
+            "%s.matcher(%s).%s(%s)",
+            fieldName, receiver, methodName, SourceCode.treeToString(arguments.get(1), state));
+      case "split":
+        return arguments.size() > 1
+            ? String.format(
+                "%s.split(%s, %s)",
+                fieldName, receiver, SourceCode.treeToString(arguments.get(1), state))
+            : String.format("%s.split(%s)", fieldName, receiver);
+      default:
+        throw new IllegalStateException("Unexpected method: " + methodName);
+    }
+  }
+
+  /**
+   * Returns the source code of the given constant expression, if it can be evaluated in the
+   * initializer of the new static field, or else a literal representation of its value.
+   */
+  private static String toConstantSource(
+      ExpressionTree tree, ImmutableSet<Symbol> inaccessibleFields, VisitorState state) {
+    AtomicBoolean referencesNonStaticSymbol = new AtomicBoolean();
+    new TreeScanner<@Nullable Void, @Nullable Void>() {
+      @Override
+      public @Nullable Void visitIdentifier(IdentifierTree node, @Nullable Void unused) {
+        checkSymbol(ASTHelpers.getSymbol(node));
+        return super.visitIdentifier(node, null);
+      }
+
+      @Override
+      public @Nullable Void visitMemberSelect(MemberSelectTree node, @Nullable Void unused) {
+        checkSymbol(ASTHelpers.getSymbol(node));
+        return super.visitMemberSelect(node, null);
+      }
+
+      private void checkSymbol(@Nullable Symbol symbol) {
+        if (symbol instanceof VarSymbol
+            && (!symbol.isStatic() || inaccessibleFields.contains(symbol))) {
+          referencesNonStaticSymbol.set(true);
+        }
+      }
+    }.scan(tree, null);
+
+    return referencesNonStaticSymbol.get()
+        ? state.getConstantExpression(ASTHelpers.constValue(tree))
+        : SourceCode.treeToString(tree, state);
+  }
+
+  /**
+   * Returns the name of an existing constant in the given class that holds the same {@link Pattern}
+   * as would be introduced for the given match, provided that the constant may be referenced from
+   * the given enclosing member.
+   *
+   * <p>Static initializers may not reference constants declared further down, so within (static)
+   * field initializers and initializer blocks only constants declared earlier are considered.
+   */
+  private static Optional<String> findExistingField(
+      MethodInvocationTree tree,
+      ClassTree owner,
+      Tree enclosingMember,
+      String patternType,
+      VisitorState state) {
+    String initializer =
+        getInitializer(patternType, getRegexArguments(tree, state), ImmutableSet.of(), state);
+    List<? extends Tree> members = owner.getMembers();
+    List<? extends Tree> candidates =
+        enclosingMember instanceof MethodTree
+            ? members
+            : members.subList(0, members.indexOf(enclosingMember));
+    return candidates.stream()
+        .filter(VariableTree.class::isInstance)
+        .map(VariableTree.class::cast)
+        .filter(field -> isConstantWithInitializer(field, initializer, state))
+        .map(field -> field.getName().toString())
+        .findFirst();
+  }
+
+  private static boolean isConstantWithInitializer(
+      VariableTree field, String initializer, VisitorState state) {
+    ExpressionTree fieldInitializer = field.getInitializer();
+    VarSymbol symbol = ASTHelpers.getSymbol(field);
+    return fieldInitializer != null
+        && symbol.isStatic()
+        && symbol.getModifiers().contains(Modifier.FINAL)
+        && SourceCode.treeToString(fieldInitializer, state).equals(initializer);
+  }
+
+  /**
+   * Returns a name for the field to be introduced for the given match that does not clash with
+   * existing fields, nor with the fields introduced for other matches within the same class.
+   *
+   * @implNote The names of the fields to be introduced for all matches within the class are
+   *     assigned once, in source order, such that each fix derives the same assignment.
+   */
+  private static String getNewFieldName(
+      MethodInvocationTree tree, ClassTree owner, String patternType, VisitorState state) {
+    return Optional.ofNullable(
+            CompilationUnitFacts.get(state)
+                .getFact(
+                    NEW_FIELD_NAMES, owner, o -> assignNewFieldNames(o, patternType, state))
+                .get(tree))
+        .orElseThrow(() -> new IllegalStateException("Match not found in enclosing class"));
+  }
+
+  private static ImmutableMap<MethodInvocationTree, String> assignNewFieldNames(
+      ClassTree owner, String patternType, VisitorState state) {
+    Set<String> usedNames =
+        owner.getMembers().stream()
+            .filter(VariableTree.class::isInstance)
+            .map(member -> ((VariableTree) member).getName().toString())
+            .collect(toCollection(HashSet::new));
+
+    ImmutableMap.Builder<MethodInvocationTree, String> names = ImmutableMap.builder();
+    for (TreePath match : findMatchesRequiringField(owner, patternType, state)) {
+      String baseName = getBaseFieldName(match);
+      String name = baseName;
+      for (int i = 2; usedNames.contains(name); i++) {
+        name = baseName + '_' + i;
+      }
+      names.put((MethodInvocationTree) match.getLeaf(), name);
+      usedNames.add(name);
+    }
+    return names.buildOrThrow();
+  }
+
+  /**
+   * Returns the paths to all matches for which a new field would be introduced in the given class,
+   * in source order.
+   */
+  private static ImmutableList<TreePath> findMatchesRequiringField(
+      ClassTree owner, String patternType, VisitorState state) {
+    TreePath ownerPath = state.getPath();
+    while (ownerPath.getLeaf() != owner) {
+      ownerPath = ownerPath.getParentPath();
+    }
+
+    ImmutableList.Builder<TreePath> matches = ImmutableList.builder();
+    new TreePathScanner<@Nullable Void, @Nullable Void>() {
+      @Override
+      public @Nullable Void visitMethodInvocation(
+          MethodInvocationTree node, @Nullable Void unused) {
+        VisitorState localState = state.withPath(getCurrentPath());
+        if (compilesConstantRegex(node, localState)
+            && getFieldOwner(localState).filter(o -> o == owner).isPresent()
+            && findExistingField(
+                    node,
+                    owner,
+                    getEnclosingMember(owner, getCurrentPath()),
+                    patternType,
+                    localState)
+                .isEmpty()) {
+          matches.add(getCurrentPath());
+        }
+        return super.visitMethodInvocation(node, null);
+      }
+    }.scan(ownerPath, null);
+    return matches.build();
+  }
+
+  private static String getBaseFieldName(TreePath match) {
+    @Nullable MethodTree method = ASTHelpers.findEnclosingNode(match, MethodTree.class);
+    return method == null || ASTHelpers.getSymbol(method).isConstructor()
+        ? "PATTERN"
+        : CaseFormat.LOWER_CAMEL.to(CaseFormat.UPPER_UNDERSCORE, method.getName().toString())
+            + "_PATTERN";
+  }
+}
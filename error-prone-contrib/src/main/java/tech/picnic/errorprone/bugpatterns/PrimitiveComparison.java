@@ -32,6 +32,7 @@ import java.util.Comparator;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Stream;
+import tech.picnic.errorprone.bugpatterns.util.HotPaths;
 import tech.picnic.errorprone.bugpatterns.util.SourceCode;
 
 /**
@@ -82,7 +83,8 @@ public final class PrimitiveComparison extends BugChecker implements MethodInvoc
 
     return getPotentiallyBoxedReturnType(tree.getArguments().get(0))
         .flatMap(cmpType -> attemptMethodInvocationReplacement(tree, cmpType, isStatic, state))
-        .map(fix -> describeMatch(tree, fix))
+        .map(fix -> HotPaths.escalateSeverity(buildDescription(tree).addFix(fix), this, state))
+        .map(Description.Builder::build)
         .orElse(Description.NO_MATCH);
   }
 
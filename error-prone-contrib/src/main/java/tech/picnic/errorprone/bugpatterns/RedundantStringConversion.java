@@ -19,6 +19,7 @@ import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS
 
 import com.google.auto.service.AutoService;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.primitives.Primitives;
 import com.google.errorprone.BugPattern;
@@ -52,6 +53,7 @@ import java.util.Optional;
 import java.util.stream.Stream;
 import tech.picnic.errorprone.bugpatterns.util.Flags;
 import tech.picnic.errorprone.bugpatterns.util.MethodMatcherFactory;
+import tech.picnic.errorprone.bugpatterns.util.NameIndexedMethodMatcher;
 import tech.picnic.errorprone.bugpatterns.util.SourceCode;
 
 /** A {@link BugChecker} that flags redundant explicit string conversions. */
@@ -78,29 +80,35 @@ public final class RedundantStringConversion extends BugChecker
   private static final Matcher<ExpressionTree> NOT_FORMATTABLE =
       not(isSubtypeOf(Formattable.class));
   private static final Matcher<MethodInvocationTree> WELL_KNOWN_STRING_CONVERSION_METHODS =
-      anyOf(
-          instanceMethod()
-              .onDescendantOfAny(Object.class.getName())
-              .named("toString")
-              .withNoParameters(),
-          allOf(
-              argumentCount(1),
-              anyOf(
+      NameIndexedMethodMatcher.<MethodInvocationTree>builder()
+          .add(
+              "toString",
+              instanceMethod()
+                  .onDescendantOfAny(Object.class.getName())
+                  .withAnyName()
+                  .withNoParameters())
+          .add(
+              "toString",
+              allOf(
+                  argumentCount(1),
                   staticMethod()
                       .onClassAny(
                           Stream.concat(
                                   Primitives.allWrapperTypes().stream(), Stream.of(Objects.class))
                               .map(Class::getName)
-                              .collect(toImmutableSet()))
-                      .named("toString"),
-                  allOf(
-                      staticMethod().onClass(String.class.getName()).named("valueOf"),
-                      not(
-                          anyMethod()
-                              .anyClass()
-                              .withAnyName()
-                              .withParametersOfType(
-                                  ImmutableList.of(Suppliers.arrayOf(Suppliers.CHAR_TYPE))))))));
+                              .collect(toImmutableSet()))))
+          .add(
+              "valueOf",
+              allOf(
+                  argumentCount(1),
+                  staticMethod().onClass(String.class.getName()),
+                  not(
+                      anyMethod()
+                          .anyClass()
+                          .withAnyName()
+                          .withParametersOfType(
+                              ImmutableList.of(Suppliers.arrayOf(Suppliers.CHAR_TYPE))))))
+          .build();
   private static final Matcher<ExpressionTree> STRINGBUILDER_APPEND_INVOCATION =
       instanceMethod()
           .onDescendantOf(StringBuilder.class.getName())
@@ -112,27 +120,32 @@ public final class RedundantStringConversion extends BugChecker
           .named("insert")
           .withParameters(int.class.getName(), String.class.getName());
   private static final Matcher<ExpressionTree> FORMATTER_INVOCATION =
-      anyOf(
-          staticMethod().onClass(String.class.getName()).named("format"),
-          instanceMethod().onDescendantOf(Formatter.class.getName()).named("format"),
-          instanceMethod()
-              .onDescendantOfAny(PrintStream.class.getName(), PrintWriter.class.getName())
-              .namedAnyOf("format", "printf"),
-          instanceMethod()
-              .onDescendantOfAny(PrintStream.class.getName(), PrintWriter.class.getName())
-              .namedAnyOf("print", "println")
-              .withParameters(Object.class.getName()),
-          staticMethod()
-              .onClass(Console.class.getName())
-              .namedAnyOf("format", "printf", "readline", "readPassword"));
+      NameIndexedMethodMatcher.<ExpressionTree>builder()
+          .add("format", staticMethod().onClass(String.class.getName()))
+          .add("format", instanceMethod().onDescendantOf(Formatter.class.getName()))
+          .add(
+              ImmutableSet.of("format", "printf"),
+              instanceMethod()
+                  .onDescendantOfAny(PrintStream.class.getName(), PrintWriter.class.getName()))
+          .add(
+              ImmutableSet.of("print", "println"),
+              instanceMethod()
+                  .onDescendantOfAny(PrintStream.class.getName(), PrintWriter.class.getName())
+                  .withAnyName()
+                  .withParameters(Object.class.getName()))
+          .add(
+              ImmutableSet.of("format", "printf", "readline", "readPassword"),
+              staticMethod().onClass(Console.class.getName()))
+          .build();
   private static final Matcher<ExpressionTree> GUAVA_GUARD_INVOCATION =
-      anyOf(
-          staticMethod()
-              .onClass("com.google.common.base.Preconditions")
-              .namedAnyOf("checkArgument", "checkState", "checkNotNull"),
-          staticMethod()
-              .onClass("com.google.common.base.Verify")
-              .namedAnyOf("verify", "verifyNotNull"));
+      NameIndexedMethodMatcher.<ExpressionTree>builder()
+          .add(
+              ImmutableSet.of("checkArgument", "checkState", "checkNotNull"),
+              staticMethod().onClass("com.google.common.base.Preconditions"))
+          .add(
+              ImmutableSet.of("verify", "verifyNotNull"),
+              staticMethod().onClass("com.google.common.base.Verify"))
+          .build();
   private static final Matcher<ExpressionTree> SLF4J_LOGGER_INVOCATION =
       instanceMethod()
           .onDescendantOf("org.slf4j.Logger")
@@ -0,0 +1,240 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.errorprone.BugPattern.LinkType.CUSTOM;
+import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
+import static com.google.errorprone.BugPattern.StandardTags.PERFORMANCE;
+import static com.google.errorprone.matchers.Matchers.anyOf;
+import static com.google.errorprone.matchers.Matchers.isSubtypeOf;
+import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
+
+import com.google.auto.service.AutoService;
+import com.google.common.base.CharMatcher;
+import com.google.common.collect.ImmutableMap;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.BinaryTree;
+import com.sun.source.tree.BlockTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ExpressionStatementTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IfTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreePath;
+import com.sun.tools.javac.tree.JCTree.JCMethodInvocation;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.BaseStream;
+import org.jspecify.annotations.Nullable;
+import tech.picnic.errorprone.bugpatterns.util.HotPaths;
+import tech.picnic.errorprone.bugpatterns.util.SourceCode;
+
+/**
+ * A {@link BugChecker} that flags SLF4J debug and trace log statements that perform non-trivial
+ * work even if the associated log level is disabled.
+ *
+ * <p>Such log statements either have arguments that require computation, such as invocations of
+ * methods that are known to be costly (e.g. {@link String#format(String, Object...)}, {@link
+ * Object#toString()} and stream operations), instantiations and string concatenations, or have more
+ * than two format arguments, such that an {@code Object[]} is allocated on each invocation. Log
+ * statements that are already guarded by a check of the associated log level are not flagged. The
+ * suggested fix introduces such a guard.
+ */
+// XXX: Also recognize log statements that follow an `if (!LOG.isDebugEnabled()) return;` guard.
+// XXX: Consider suggesting the SLF4J 2 fluent API (`LOG.atDebug().addArgument(() -> ...)`) as an
+// alternative fix, if SLF4J 2 is on the classpath.
+// XXX: The suggested fix does not re-indent multi-line log statements.
+@AutoService(BugChecker.class)
+@BugPattern(
+    summary = "Avoid performing work for debug and trace log statements whose level is disabled",
+    link = BUG_PATTERNS_BASE_URL + "Slf4jLogStatementEvaluation",
+    linkType = CUSTOM,
+    severity = SUGGESTION,
+    tags = PERFORMANCE)
+public final class Slf4jLogStatementEvaluation extends BugChecker
+    implements MethodInvocationTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final CharMatcher INDENTATION = CharMatcher.anyOf(" \t");
+  private static final String SLF4J_LOGGER = "org.slf4j.Logger";
+  private static final Matcher<ExpressionTree> MARKER = isSubtypeOf("org.slf4j.Marker");
+  private static final Matcher<ExpressionTree> FINE_GRAINED_LOG_STATEMENT =
+      instanceMethod().onDescendantOf(SLF4J_LOGGER).namedAnyOf("trace", "debug");
+  private static final ImmutableMap<String, String> LOG_LEVEL_CHECKS =
+      ImmutableMap.of("trace", "isTraceEnabled", "debug", "isDebugEnabled");
+  private static final Matcher<ExpressionTree> LOG_LEVEL_CHECK =
+      instanceMethod().onDescendantOf(SLF4J_LOGGER).namedAnyOf(LOG_LEVEL_CHECKS.values());
+  private static final Matcher<ExpressionTree> COSTLY_METHOD_INVOCATION =
+      anyOf(
+          staticMethod().onClass(String.class.getName()).namedAnyOf("format", "join"),
+          instanceMethod().onExactClass(String.class.getName()).named("formatted"),
+          instanceMethod().anyClass().named("toString").withNoParameters(),
+          staticMethod().onClass(Arrays.class.getName()).namedAnyOf("toString", "deepToString"),
+          instanceMethod().onDescendantOf(BaseStream.class.getName()));
+
+  /** Instantiates a new {@link Slf4jLogStatementEvaluation} instance. */
+  public Slf4jLogStatementEvaluation() {}
+
+  @Override
+  public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+    if (!FINE_GRAINED_LOG_STATEMENT.matches(tree, state)) {
+      return Description.NO_MATCH;
+    }
+
+    boolean hasNonTrivialArgument = hasNonTrivialArgument(tree, state);
+    /* Javac populates this field iff the arguments are implicitly wrapped in an array. */
+    boolean allocatesArray = ((JCMethodInvocation) tree).varargsElement != null;
+    String levelCheck = LOG_LEVEL_CHECKS.get(ASTHelpers.getSymbol(tree).getSimpleName().toString());
+    if ((!hasNonTrivialArgument && !allocatesArray) || isGuarded(levelCheck, state)) {
+      return Description.NO_MATCH;
+    }
+
+    Description.Builder description =
+        buildDescription(tree)
+            .setMessage(
+                hasNonTrivialArgument
+                    ? "Log statement arguments are evaluated even if the log level is disabled"
+                    : "Log statements with more than two format arguments allocate an array, "
+                        + "even if the log level is disabled");
+    guard(tree, levelCheck, state).ifPresent(description::addFix);
+    return HotPaths.escalateSeverityInHotContext(description, this, state).build();
+  }
+
+  private static boolean hasNonTrivialArgument(MethodInvocationTree tree, VisitorState state) {
+    return tree.getArguments().stream().anyMatch(arg -> isNonTrivial(arg, state));
+  }
+
+  /**
+   * Tells whether evaluation of the given expression requires non-trivial computation.
+   *
+   * <p>Invocations of methods that are not known to be costly, such as simple accessors, are
+   * considered trivial, unless their receiver or arguments are non-trivial.
+   */
+  private static boolean isNonTrivial(@Nullable ExpressionTree argument, VisitorState state) {
+    if (argument == null) {
+      return false;
+    }
+
+    ExpressionTree expression = ASTHelpers.stripParentheses(argument);
+    switch (expression.getKind()) {
+      case METHOD_INVOCATION:
+        return COSTLY_METHOD_INVOCATION.matches(expression, state)
+            || isNonTrivial(ASTHelpers.getReceiver(expression), state)
+            || hasNonTrivialArgument((MethodInvocationTree) expression, state);
+      case NEW_CLASS:
+      case NEW_ARRAY:
+        return true;
+      case PLUS:
+        return ASTHelpers.constValue(expression) == null
+            && ASTHelpers.isSameType(
+                ASTHelpers.getType(expression), state.getSymtab().stringType, state);
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Tells whether the current path is (transitively) part of the then-branch of an {@code if}
+   * statement whose condition implies that the given log level check succeeded.
+   */
+  private static boolean isGuarded(String levelCheck, VisitorState state) {
+    TreePath path = state.getPath();
+    for (TreePath parent = path.getParentPath(); parent != null; parent = parent.getParentPath()) {
+      Tree tree = parent.getLeaf();
+      if (tree instanceof MethodTree
+          || tree instanceof LambdaExpressionTree
+          || tree instanceof ClassTree) {
+        return false;
+      }
+
+      if (tree instanceof IfTree
+          && ((IfTree) tree).getThenStatement().equals(path.getLeaf())
+          && impliesLogLevelCheck(((IfTree) tree).getCondition(), levelCheck, state)) {
+        return true;
+      }
+      path = parent;
+    }
+
+    return false;
+  }
+
+  /**
+   * Tells whether the given condition holds only if the given log level check succeeds; i.e.,
+   * whether it is (a conjunction that includes) a non-negated invocation of the given check.
+   */
+  private static boolean impliesLogLevelCheck(
+      ExpressionTree condition, String levelCheck, VisitorState state) {
+    ExpressionTree expression = ASTHelpers.stripParentheses(condition);
+    switch (expression.getKind()) {
+      case CONDITIONAL_AND:
+        BinaryTree conjunction = (BinaryTree) expression;
+        return impliesLogLevelCheck(conjunction.getLeftOperand(), levelCheck, state)
+            || impliesLogLevelCheck(conjunction.getRightOperand(), levelCheck, state);
+      case METHOD_INVOCATION:
+        return LOG_LEVEL_CHECK.matches(expression, state)
+            && ASTHelpers.getSymbol((MethodInvocationTree) expression)
+                .getSimpleName()
+                .contentEquals(levelCheck);
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Suggests wrapping the log statement in an {@code if} statement that checks whether the log
+   * statement's level is enabled, if the log statement is a stand-alone statement.
+   */
+  private static Optional<SuggestedFix> guard(
+      MethodInvocationTree tree, String levelCheck, VisitorState state) {
+    TreePath statementPath = state.getPath().getParentPath();
+    @Nullable ExpressionTree receiver = ASTHelpers.getReceiver(tree);
+    if (receiver == null
+        || !(statementPath.getLeaf() instanceof ExpressionStatementTree)
+        || !(statementPath.getParentPath().getLeaf() instanceof BlockTree)) {
+      return Optional.empty();
+    }
+
+    List<? extends ExpressionTree> arguments = tree.getArguments();
+    String marker =
+        MARKER.matches(arguments.get(0), state)
+            ? SourceCode.treeToString(arguments.get(0), state)
+            : "";
+    String indentation = getIndentation(statementPath.getLeaf(), state);
+    return Optional.of(
+        SuggestedFix.builder()
+            .prefixWith(
+                statementPath.getLeaf(),
+                String.format(
+                    "if (%s.%s(%s)) {\n%s  ",
+                    SourceCode.treeToString(receiver, state),
+                    levelCheck,
+                    marker,
+                    indentation))
+            .postfixWith(statementPath.getLeaf(), "\n" + indentation + "}")
+            .build());
+  }
+
+  private static String getIndentation(Tree tree, VisitorState state) {
+    @Nullable CharSequence source = state.getSourceCode();
+    if (source == null) {
+      return "";
+    }
+
+    int start = ASTHelpers.getStartPosition(tree);
+    int lineStart = start;
+    while (lineStart > 0 && INDENTATION.matches(source.charAt(lineStart - 1))) {
+      lineStart--;
+    }
+    return source.subSequence(lineStart, start).toString();
+  }
+}
@@ -1,5 +1,7 @@
 package tech.picnic.errorprone.bugpatterns;
 
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.google.common.collect.ImmutableSetMultimap.toImmutableSetMultimap;
 import static com.google.errorprone.BugPattern.LinkType.CUSTOM;
 import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
 import static com.google.errorprone.BugPattern.StandardTags.SIMPLIFICATION;
@@ -20,12 +22,17 @@ import com.google.errorprone.fixes.Fix;
 import com.google.errorprone.fixes.SuggestedFix;
 import com.google.errorprone.fixes.SuggestedFixes;
 import com.google.errorprone.matchers.Description;
+import com.google.errorprone.suppliers.Supplier;
 import com.google.errorprone.util.ASTHelpers;
 import com.sun.source.tree.MemberSelectTree;
 import com.sun.source.tree.MethodInvocationTree;
 import com.sun.source.tree.Tree;
 import com.sun.tools.javac.code.Type;
+import com.sun.tools.javac.util.Name;
+import com.sun.tools.javac.util.Names;
 import java.util.Optional;
+import tech.picnic.errorprone.bugpatterns.util.CompilationUnitFacts;
+import tech.picnic.errorprone.bugpatterns.util.MoreSuppliers;
 
 /**
  * A {@link BugChecker} that flags methods and constants that can and should be statically imported.
@@ -191,12 +198,16 @@ public final class StaticImport extends BugChecker implements MemberSelectTreeMa
           "of",
           "valueOf");
 
+  private static final Supplier<InternedNames> INTERNED_NAMES =
+      MoreSuppliers.memoize(state -> new InternedNames(state.getNames()));
+
   /** Instantiates a new {@link StaticImport} instance. */
   public StaticImport() {}
 
   @Override
   public Description matchMemberSelect(MemberSelectTree tree, VisitorState state) {
-    if (!isCandidateContext(state) || !isCandidate(tree)) {
+    InternedNames names = INTERNED_NAMES.get(state);
+    if (!isCandidateContext(state) || !isCandidate(tree, names)) {
       return Description.NO_MATCH;
     }
 
@@ -226,17 +237,24 @@ public final class StaticImport extends BugChecker implements MemberSelectTreeMa
     }
   }
 
-  private static boolean isCandidate(MemberSelectTree tree) {
-    String identifier = tree.getIdentifier().toString();
-    if (STATIC_IMPORT_EXEMPTED_IDENTIFIERS.contains(identifier)) {
+  private static boolean isCandidate(MemberSelectTree tree, InternedNames names) {
+    Name identifier = (Name) tree.getIdentifier();
+    if (names.exemptedIdentifiers.contains(identifier)) {
       return false;
     }
 
     Type type = ASTHelpers.getType(tree.getExpression());
     return type != null
-        && !STATIC_IMPORT_EXEMPTED_MEMBERS.containsEntry(type.toString(), identifier);
+        && !names.exemptedMembers.containsEntry(type.tsym.getQualifiedName(), identifier);
   }
 
+  /**
+   * Returns the simple name of the member to be statically imported, if it is a candidate.
+   *
+   * @implNote Unlike the names referenced by the visited tree, the names provided by {@link
+   *     StaticImportInfo} are {@link String}s, so these are looked up in the original
+   *     (string-based) collections, without converting them to {@link Name}s.
+   */
   private static Optional<String> getCandidateSimpleName(StaticImportInfo importInfo) {
     String canonicalName = importInfo.canonicalName();
     return importInfo
@@ -252,6 +270,18 @@ public final class StaticImport extends BugChecker implements MemberSelectTreeMa
       MemberSelectTree tree, String fullyQualifiedName, String simpleName, VisitorState state) {
     SuggestedFix.Builder fix = SuggestedFix.builder().replace(tree, simpleName);
 
+    CompilationUnitFacts facts = CompilationUnitFacts.get(state);
+    /* The simple name generally equals the (already interned) identifier of the visited tree. */
+    Name identifier = (Name) tree.getIdentifier();
+    Name name = identifier.contentEquals(simpleName) ? identifier : state.getName(simpleName);
+    if (!facts.containsIdentifier(name) && !facts.isStaticallyImported(name)) {
+      /*
+       * The simple name does not occur anywhere in this compilation unit, so statically importing
+       * it cannot cause a clash. This avoids a more expensive scan of the compilation unit.
+       */
+      return Optional.of(fix.addStaticImport(fullyQualifiedName).build());
+    }
+
     if (!simpleName.equals(SuggestedFixes.qualifyStaticImport(fullyQualifiedName, fix, state))) {
       /* Statically importing this symbol would clash with an existing import. */
       return Optional.empty();
@@ -259,4 +289,31 @@ public final class StaticImport extends BugChecker implements MemberSelectTreeMa
 
     return Optional.of(fix.build());
   }
+
+  /**
+   * The exempted type and member names referenced by this check, interned in the {@link Names}
+   * table of the current compilation, such that they can be compared to the names in the AST
+   * without allocating any strings.
+   */
+  private static final class InternedNames {
+    private final ImmutableSetMultimap<Name, Name> exemptedMembers;
+    private final ImmutableSet<Name> exemptedIdentifiers;
+
+    InternedNames(Names names) {
+      this.exemptedMembers = intern(STATIC_IMPORT_EXEMPTED_MEMBERS, names);
+      this.exemptedIdentifiers = intern(STATIC_IMPORT_EXEMPTED_IDENTIFIERS, names);
+    }
+
+    private static ImmutableSet<Name> intern(ImmutableSet<String> values, Names names) {
+      return values.stream().map(names::fromString).collect(toImmutableSet());
+    }
+
+    private static ImmutableSetMultimap<Name, Name> intern(
+        ImmutableSetMultimap<String, String> values, Names names) {
+      return values.entries().stream()
+          .collect(
+              toImmutableSetMultimap(
+                  e -> names.fromString(e.getKey()), e -> names.fromString(e.getValue())));
+    }
+  }
 }
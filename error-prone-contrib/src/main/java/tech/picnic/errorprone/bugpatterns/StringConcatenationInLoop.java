@@ -0,0 +1,282 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.errorprone.BugPattern.LinkType.CUSTOM;
+import static com.google.errorprone.BugPattern.SeverityLevel.WARNING;
+import static com.google.errorprone.BugPattern.StandardTags.PERFORMANCE;
+import static java.util.stream.Collectors.joining;
+import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
+
+import com.google.auto.service.AutoService;
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.AssignmentTreeMatcher;
+import com.google.errorprone.bugpatterns.BugChecker.CompoundAssignmentTreeMatcher;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.AssignmentTree;
+import com.sun.source.tree.BinaryTree;
+import com.sun.source.tree.CompoundAssignmentTree;
+import com.sun.source.tree.ExpressionStatementTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.Tree.Kind;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symbol.VarSymbol;
+import com.sun.tools.javac.code.Type.ArrayType;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.lang.model.element.ElementKind;
+import org.jspecify.annotations.Nullable;
+import tech.picnic.errorprone.bugpatterns.util.HotContexts;
+import tech.picnic.errorprone.bugpatterns.util.HotPaths;
+import tech.picnic.errorprone.bugpatterns.util.SourceCode;
+
+/**
+ * A {@link BugChecker} that flags strings that are accumulated using concatenation inside a loop
+ * or iteration lambda expression, as each iteration copies all characters accumulated thus far.
+ *
+ * <p>Both {@code s += t} and {@code s = s + t} forms are flagged, provided that the assigned
+ * variable outlives a single iteration. If the variable is a local variable with a single such
+ * accumulation site, then the suggested fix replaces it with a {@link StringBuilder}. So as to
+ * preserve behavior, this fix is only suggested if the variable is initialized with a compile-time
+ * constant or a {@code new String(...)} expression, and if the variable is not compared by
+ * reference.
+ */
+// XXX: Suggest `String#join` or `Collectors#joining` for loops that do nothing but append elements
+// and separators.
+// XXX: Presize the suggested `StringBuilder` if the number of iterations and the (maximum) length
+// of the appended strings are known.
+@AutoService(BugChecker.class)
+@BugPattern(
+    summary = "Avoid accumulating strings by concatenation inside loops; use a `StringBuilder`",
+    link = BUG_PATTERNS_BASE_URL + "StringConcatenationInLoop",
+    linkType = CUSTOM,
+    severity = WARNING,
+    tags = PERFORMANCE)
+public final class StringConcatenationInLoop extends BugChecker
+    implements AssignmentTreeMatcher, CompoundAssignmentTreeMatcher {
+  private static final long serialVersionUID = 1L;
+
+  /** Instantiates a new {@link StringConcatenationInLoop} instance. */
+  public StringConcatenationInLoop() {}
+
+  @Override
+  public Description matchCompoundAssignment(CompoundAssignmentTree tree, VisitorState state) {
+    if (tree.getKind() != Kind.PLUS_ASSIGNMENT) {
+      return Description.NO_MATCH;
+    }
+
+    return matchAccumulation(
+        tree, tree.getVariable(), ImmutableList.of(tree.getExpression()), state);
+  }
+
+  @Override
+  public Description matchAssignment(AssignmentTree tree, VisitorState state) {
+    /*
+     * String concatenation is left-associative, so `s = s + a + b` is represented as
+     * `s = ((s + a) + b)`. Here we collect the operands appended to the leftmost operand.
+     */
+    Deque<ExpressionTree> appended = new ArrayDeque<>();
+    ExpressionTree leftmost = ASTHelpers.stripParentheses(tree.getExpression());
+    while (leftmost.getKind() == Kind.PLUS) {
+      BinaryTree concatenation = (BinaryTree) leftmost;
+      appended.addFirst(concatenation.getRightOperand());
+      leftmost = concatenation.getLeftOperand();
+    }
+
+    @Nullable Symbol symbol = ASTHelpers.getSymbol(tree.getVariable());
+    if (appended.isEmpty() || symbol == null || !symbol.equals(ASTHelpers.getSymbol(leftmost))) {
+      return Description.NO_MATCH;
+    }
+
+    return matchAccumulation(tree, tree.getVariable(), ImmutableList.copyOf(appended), state);
+  }
+
+  private Description matchAccumulation(
+      ExpressionTree tree,
+      ExpressionTree variable,
+      ImmutableList<ExpressionTree> appended,
+      VisitorState state) {
+    @Nullable Symbol symbol = ASTHelpers.getSymbol(variable);
+    if (!(symbol instanceof VarSymbol)
+        || !ASTHelpers.isSameType(symbol.type, state.getSymtab().stringType, state)
+        || !HotContexts.isDeclaredOutsideHotContext((VarSymbol) symbol, state)) {
+      return Description.NO_MATCH;
+    }
+
+    Description.Builder description = buildDescription(tree);
+    introduceStringBuilder(tree, variable, (VarSymbol) symbol, appended, state)
+        .ifPresent(description::addFix);
+    return HotPaths.escalateSeverity(description, this, state).build();
+  }
+
+  /**
+   * Suggests replacing the accumulated local variable with a {@link StringBuilder}, if the
+   * variable is initialized upon declaration with a non-{@code null} value, the given accumulation
+   * site is its only reassignment and none of its reads is an operand of a reference comparison.
+   */
+  private static Optional<SuggestedFix> introduceStringBuilder(
+      ExpressionTree tree,
+      ExpressionTree variable,
+      VarSymbol symbol,
+      ImmutableList<ExpressionTree> appended,
+      VisitorState state) {
+    @Nullable MethodTree method = state.findEnclosing(MethodTree.class);
+    if (symbol.getKind() != ElementKind.LOCAL_VARIABLE
+        || method == null
+        || method.getBody() == null
+        || !(state.getPath().getParentPath().getLeaf() instanceof ExpressionStatementTree)
+        || appended.stream()
+            .anyMatch(
+                operand ->
+                    ASTHelpers.getType(operand) instanceof ArrayType
+                        || references(operand, symbol))) {
+      return Optional.empty();
+    }
+
+    ReferenceCollector references = new ReferenceCollector(symbol, tree);
+    references.scan(method.getBody(), null);
+    @Nullable VariableTree declaration = references.declaration;
+    if (declaration == null || references.hasOtherWrites || references.isComparedByReference) {
+      return Optional.empty();
+    }
+
+    @Nullable ExpressionTree initializer = declaration.getInitializer();
+    @Nullable String typeSource = state.getSourceForNode(declaration.getType());
+    if (initializer == null || !isNonNullString(initializer, state) || typeSource == null) {
+      return Optional.empty();
+    }
+
+    SuggestedFix.Builder fix = SuggestedFix.builder();
+    if (!typeSource.equals("var")) {
+      fix.replace(declaration.getType(), "StringBuilder");
+    }
+    fix.replace(
+        initializer,
+        "".equals(ASTHelpers.constValue(initializer, String.class))
+            ? "new StringBuilder()"
+            : String.format("new StringBuilder(%s)", SourceCode.treeToString(initializer, state)));
+    fix.replace(
+        tree,
+        appended.stream()
+            .map(operand -> String.format(".append(%s)", SourceCode.treeToString(operand, state)))
+            .collect(joining("", SourceCode.treeToString(variable, state), "")));
+    for (IdentifierTree read : references.reads) {
+      fix.postfixWith(read, ".toString()");
+    }
+    return Optional.of(fix.build());
+  }
+
+  /**
+   * Tells whether the given expression is a compile-time constant or a {@code new String(...)}
+   * expression, and thus certainly does not evaluate to {@code null}. Wrapping other expressions in
+   * {@code new StringBuilder(...)} could introduce a {@link NullPointerException}.
+   */
+  private static boolean isNonNullString(ExpressionTree tree, VisitorState state) {
+    ExpressionTree expression = ASTHelpers.stripParentheses(tree);
+    return ASTHelpers.constValue(expression, String.class) != null
+        || (expression.getKind() == Kind.NEW_CLASS
+            && ASTHelpers.isSameType(
+                ASTHelpers.getType(expression), state.getSymtab().stringType, state));
+  }
+
+  private static boolean references(Tree tree, VarSymbol symbol) {
+    AtomicBoolean found = new AtomicBoolean();
+    new TreeScanner<@Nullable Void, @Nullable Void>() {
+      @Override
+      public @Nullable Void visitIdentifier(IdentifierTree node, @Nullable Void unused) {
+        if (symbol.equals(ASTHelpers.getSymbol(node))) {
+          found.set(true);
+        }
+        return null;
+      }
+    }.scan(tree, null);
+    return found.get();
+  }
+
+  /**
+   * A {@link TreeScanner} that locates the declaration of a local variable and all references to
+   * it, excluding those that are part of a given accumulation site. Additionally tracks whether the
+   * variable is written elsewhere, and whether it is compared by reference.
+   */
+  private static final class ReferenceCollector
+      extends TreeScanner<@Nullable Void, @Nullable Void> {
+    private final VarSymbol symbol;
+    private final Tree accumulation;
+    private final List<IdentifierTree> reads = new ArrayList<>();
+    private @Nullable VariableTree declaration;
+    private boolean hasOtherWrites;
+    private boolean isComparedByReference;
+
+    ReferenceCollector(VarSymbol symbol, Tree accumulation) {
+      this.symbol = symbol;
+      this.accumulation = accumulation;
+    }
+
+    @Override
+    public @Nullable Void scan(@Nullable Tree tree, @Nullable Void unused) {
+      return tree == accumulation ? null : super.scan(tree, null);
+    }
+
+    @Override
+    public @Nullable Void visitVariable(VariableTree node, @Nullable Void unused) {
+      if (symbol.equals(ASTHelpers.getSymbol(node))) {
+        declaration = node;
+      }
+      return super.visitVariable(node, null);
+    }
+
+    @Override
+    public @Nullable Void visitAssignment(AssignmentTree node, @Nullable Void unused) {
+      checkWrite(node.getVariable());
+      return scan(node.getExpression(), null);
+    }
+
+    @Override
+    public @Nullable Void visitCompoundAssignment(
+        CompoundAssignmentTree node, @Nullable Void unused) {
+      checkWrite(node.getVariable());
+      return scan(node.getExpression(), null);
+    }
+
+    @Override
+    public @Nullable Void visitBinary(BinaryTree node, @Nullable Void unused) {
+      if ((node.getKind() == Kind.EQUAL_TO || node.getKind() == Kind.NOT_EQUAL_TO)
+          && (isReference(node.getLeftOperand()) || isReference(node.getRightOperand()))) {
+        isComparedByReference = true;
+      }
+      return super.visitBinary(node, null);
+    }
+
+    @Override
+    public @Nullable Void visitIdentifier(IdentifierTree node, @Nullable Void unused) {
+      if (symbol.equals(ASTHelpers.getSymbol(node))) {
+        reads.add(node);
+      }
+      return null;
+    }
+
+    private boolean isReference(ExpressionTree tree) {
+      return symbol.equals(ASTHelpers.getSymbol(ASTHelpers.stripParentheses(tree)));
+    }
+
+    private void checkWrite(ExpressionTree variable) {
+      if (symbol.equals(ASTHelpers.getSymbol(variable))) {
+        hasOtherWrites = true;
+      } else {
+        scan(variable, null);
+      }
+    }
+  }
+}
@@ -1,4 +1,11 @@
-/** Picnic Error Prone Contrib checks. */
+/**
+ * Picnic Error Prone Contrib checks.
+ *
+ * <p>All checks in this package are thread-safe: they may be used by multiple compilations that run
+ * concurrently within the same JVM. To this end, any state shared across compilations is either
+ * immutable, memoized using {@link tech.picnic.errorprone.bugpatterns.util.MoreSuppliers#memoize},
+ * or held in a concurrent data structure.
+ */
 @com.google.errorprone.annotations.CheckReturnValue
 @org.jspecify.annotations.NullMarked
 package tech.picnic.errorprone.bugpatterns;
@@ -0,0 +1,245 @@
+package tech.picnic.errorprone.bugpatterns.util;
+
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.errorprone.VisitorState;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.ImportTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.util.Context;
+import com.sun.tools.javac.util.Name;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Facts about a single compilation unit that are of interest to multiple bug checkers, and that
+ * would be expensive to derive over and over again.
+ *
+ * <p>Facts are computed lazily, at most once per compilation unit, and are cached in the {@link
+ * Context} of the current compilation. Only the facts about the compilation unit currently being
+ * analyzed are retained.
+ */
+public final class CompilationUnitFacts {
+  private static final Context.Key<Holder> HOLDER_KEY = new Context.Key<>();
+
+  private final CompilationUnitTree compilationUnit;
+  private final Supplier<ImmutableSet<Name>> staticallyImportedSimpleNames;
+  private final Supplier<ImmutableSet<Name>> identifierNames;
+  private final Map<ClassTree, ImmutableListMultimap<Name, MethodTree>> methodsByClass =
+      new IdentityHashMap<>();
+  private final Map<MethodTree, HotContexts> hotContextsByMethod = new IdentityHashMap<>();
+  private final Map<Key<?>, Map<Tree, Object>> customFacts = new IdentityHashMap<>();
+
+  private CompilationUnitFacts(CompilationUnitTree compilationUnit) {
+    this.compilationUnit = compilationUnit;
+    this.staticallyImportedSimpleNames =
+        Suppliers.memoize(() -> collectStaticallyImportedSimpleNames(compilationUnit));
+    this.identifierNames = Suppliers.memoize(() -> collectIdentifierNames(compilationUnit));
+  }
+
+  /**
+   * Returns the facts about the compilation unit currently being analyzed.
+   *
+   * @param state The {@link VisitorState} describing the current compilation unit.
+   * @return A non-{@code null} {@link CompilationUnitFacts} instance.
+   */
+  public static CompilationUnitFacts get(VisitorState state) {
+    Holder holder = state.context.get(HOLDER_KEY);
+    if (holder == null) {
+      holder = new Holder();
+      state.context.put(HOLDER_KEY, holder);
+    }
+
+    CompilationUnitTree compilationUnit = state.getPath().getCompilationUnit();
+    CompilationUnitFacts facts = holder.facts;
+    if (facts == null || facts.compilationUnit != compilationUnit) {
+      facts = new CompilationUnitFacts(compilationUnit);
+      holder.facts = facts;
+    }
+    return facts;
+  }
+
+  /**
+   * Tells whether a static import with the given simple name is present. On-demand static imports
+   * are considered to import the simple name {@code *}.
+   *
+   * @param simpleName The simple name of interest; preferably a {@link Name}, as that allows for a
+   *     hash-based lookup.
+   * @return {@code true} iff there is a static import with the given simple name.
+   */
+  public boolean isStaticallyImported(CharSequence simpleName) {
+    return contains(staticallyImportedSimpleNames.get(), simpleName);
+  }
+
+  /**
+   * Tells whether the given name is used as an identifier anywhere in this compilation unit,
+   * including as the name of a declared method, variable or class.
+   *
+   * @param name The name of interest; preferably a {@link Name}, as that allows for a hash-based
+   *     lookup.
+   * @return {@code false} iff no identifier, method, variable or class with the given name occurs
+   *     in this compilation unit.
+   */
+  public boolean containsIdentifier(CharSequence name) {
+    return contains(identifierNames.get(), name);
+  }
+
+  /**
+   * Returns the methods with the given name that are declared directly inside the given class.
+   *
+   * @param clazz The class of interest; must be part of this compilation unit.
+   * @param methodName The name of the methods of interest; preferably a {@link Name}, as that
+   *     allows for a hash-based lookup.
+   * @return The {@link MethodTree}s of the methods with the given name, in declaration order.
+   */
+  public ImmutableList<MethodTree> getMethods(ClassTree clazz, CharSequence methodName) {
+    ImmutableListMultimap<Name, MethodTree> methods =
+        methodsByClass.computeIfAbsent(clazz, CompilationUnitFacts::indexMethods);
+    if (methodName instanceof Name) {
+      return methods.get((Name) methodName);
+    }
+
+    for (Name name : methods.keySet()) {
+      if (name.contentEquals(methodName)) {
+        return methods.get(name);
+      }
+    }
+    return ImmutableList.of();
+  }
+
+  /**
+   * Tells whether the given set contains the given name.
+   *
+   * @implNote Converting an arbitrary {@link CharSequence} to a {@link Name} requires encoding and
+   *     interning it, so instead the set is searched linearly, comparing contents.
+   */
+  private static boolean contains(ImmutableSet<Name> names, CharSequence name) {
+    if (name instanceof Name) {
+      return names.contains(name);
+    }
+
+    for (Name candidate : names) {
+      if (candidate.contentEquals(name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the {@link HotContexts} analysis of the given method, computing it if necessary.
+   *
+   * @param method The method of interest; must be part of this compilation unit.
+   * @param analyzer The function with which to analyze the method, if not done before.
+   * @return The cached or newly computed analysis.
+   */
+  HotContexts getHotContexts(MethodTree method, Function<MethodTree, HotContexts> analyzer) {
+    return hotContextsByMethod.computeIfAbsent(method, analyzer);
+  }
+
+  /**
+   * Returns the fact of the given kind about the given tree, computing it if necessary.
+   *
+   * <p>This method allows individual bug checkers to derive facts about (e.g.) a class at most once
+   * per compilation unit, rather than once per match.
+   *
+   * @param <T> The type of tree of interest.
+   * @param <F> The type of fact of interest.
+   * @param key The kind of fact of interest.
+   * @param tree The tree of interest; must be part of this compilation unit.
+   * @param computer The function with which to compute the fact, if not done before.
+   * @return The cached or newly computed fact.
+   */
+  @SuppressWarnings("unchecked" /* Facts are stored only under a key of matching type. */)
+  public <T extends Tree, F> F getFact(Key<F> key, T tree, Function<? super T, F> computer) {
+    Map<Tree, Object> facts = customFacts.computeIfAbsent(key, k -> new IdentityHashMap<>());
+    return (F) facts.computeIfAbsent(tree, t -> computer.apply(tree));
+  }
+
+  private static ImmutableListMultimap<Name, MethodTree> indexMethods(ClassTree clazz) {
+    ImmutableListMultimap.Builder<Name, MethodTree> methods = ImmutableListMultimap.builder();
+    for (Tree member : clazz.getMembers()) {
+      if (member instanceof MethodTree) {
+        MethodTree method = (MethodTree) member;
+        methods.put((Name) method.getName(), method);
+      }
+    }
+    return methods.build();
+  }
+
+  private static ImmutableSet<Name> collectStaticallyImportedSimpleNames(
+      CompilationUnitTree compilationUnit) {
+    return compilationUnit.getImports().stream()
+        .filter(ImportTree::isStatic)
+        .map(ImportTree::getQualifiedIdentifier)
+        .filter(MemberSelectTree.class::isInstance)
+        .map(tree -> (Name) ((MemberSelectTree) tree).getIdentifier())
+        .collect(toImmutableSet());
+  }
+
+  private static ImmutableSet<Name> collectIdentifierNames(CompilationUnitTree compilationUnit) {
+    ImmutableSet.Builder<Name> names = ImmutableSet.builder();
+    new TreeScanner<@Nullable Void, @Nullable Void>() {
+      @Override
+      public @Nullable Void visitIdentifier(IdentifierTree node, @Nullable Void unused) {
+        names.add((Name) node.getName());
+        return super.visitIdentifier(node, unused);
+      }
+
+      @Override
+      public @Nullable Void visitMethod(MethodTree node, @Nullable Void unused) {
+        names.add((Name) node.getName());
+        return super.visitMethod(node, unused);
+      }
+
+      @Override
+      public @Nullable Void visitVariable(VariableTree node, @Nullable Void unused) {
+        names.add((Name) node.getName());
+        return super.visitVariable(node, unused);
+      }
+
+      @Override
+      public @Nullable Void visitClass(ClassTree node, @Nullable Void unused) {
+        names.add((Name) node.getSimpleName());
+        return super.visitClass(node, unused);
+      }
+    }.scan(compilationUnit, null);
+    return names.build();
+  }
+
+  /**
+   * Identifies a kind of fact that can be retrieved using {@link #getFact(Key, Tree, Function)}.
+   *
+   * <p>Keys are compared by identity; as such, each kind of fact should be identified by a single
+   * {@code static final} instance.
+   *
+   * @param <F> The type of fact identified by this key.
+   */
+  @SuppressWarnings("UnusedTypeParameter" /* Used for type safety only. */)
+  public static final class Key<F> {
+    /** Instantiates a new {@link Key} instance. */
+    public Key() {}
+  }
+
+  /**
+   * A mutable reference to the facts about the compilation unit most recently analyzed.
+   *
+   * @implNote A {@link Context} does not allow its values to be replaced, hence this indirection.
+   */
+  private static final class Holder {
+    private @Nullable CompilationUnitFacts facts;
+  }
+}
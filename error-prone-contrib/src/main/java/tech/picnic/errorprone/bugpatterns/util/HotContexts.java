@@ -0,0 +1,514 @@
+package tech.picnic.errorprone.bugpatterns.util;
+
+import static com.google.errorprone.matchers.Matchers.anyOf;
+import static com.google.errorprone.matchers.method.MethodMatchers.constructor;
+import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.suppliers.Supplier;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.BinaryTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ConditionalExpressionTree;
+import com.sun.source.tree.DoWhileLoopTree;
+import com.sun.source.tree.EnhancedForLoopTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.ForLoopTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.InstanceOfTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.LiteralTree;
+import com.sun.source.tree.MemberReferenceTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.NewArrayTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.ParenthesizedTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.TypeCastTree;
+import com.sun.source.tree.UnaryTree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.tree.WhileLoopTree;
+import com.sun.source.util.SimpleTreeVisitor;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symbol.MethodSymbol;
+import com.sun.tools.javac.code.Symbol.VarSymbol;
+import com.sun.tools.javac.code.Type;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.lang.model.element.ElementKind;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * An analysis of the <em>hot contexts</em> of a method: the code within a method that is likely to
+ * be executed repeatedly for each invocation of said method, and which is therefore sensitive to
+ * avoidable work.
+ *
+ * <p>The following are considered hot contexts:
+ *
+ * <ul>
+ *   <li>The condition, update and body of a loop.
+ *   <li>The body of a lambda expression passed to a {@link java.util.stream.BaseStream} method.
+ *   <li>The body of a lambda expression passed to an instance method (i.e., an operator) of a
+ *       Reactive Streams {@code Publisher}, such as Reactor's {@code Flux} and {@code Mono}.
+ *   <li>The body of a lambda expression passed to {@link Iterable#forEach} or {@link
+ *       java.util.Map#forEach}.
+ * </ul>
+ *
+ * <p>Hot contexts are identified at most once per method; the outcome is cached for the duration
+ * of the compilation unit and shared by all bug checkers. Likewise, the outcome of each {@link
+ * #isLoopInvariant(ExpressionTree, VisitorState) loop invariance} query is cached.
+ */
+// XXX: Hot contexts that are nested inside a local or anonymous class are not recognized as such,
+// as the analysis is confined to the innermost enclosing method.
+public final class HotContexts {
+  private static final Supplier<Type> BASE_STREAM =
+      MoreSuppliers.memoize(state -> state.getTypeFromString("java.util.stream.BaseStream"));
+  private static final Supplier<Type> PUBLISHER =
+      MoreSuppliers.memoize(state -> state.getTypeFromString("org.reactivestreams.Publisher"));
+  private static final Supplier<Type> MAP =
+      MoreSuppliers.memoize(state -> state.getTypeFromString("java.util.Map"));
+  private static final ImmutableSet<String> BOXED_PRIMITIVES =
+      ImmutableSet.of(
+          "java.lang.Boolean",
+          "java.lang.Byte",
+          "java.lang.Character",
+          "java.lang.Double",
+          "java.lang.Float",
+          "java.lang.Integer",
+          "java.lang.Long",
+          "java.lang.Short");
+  private static final Matcher<ExpressionTree> PURE_METHOD =
+      anyOf(
+          staticMethod().onClass("java.util.regex.Pattern").namedAnyOf("compile", "quote"),
+          staticMethod().onClass("java.time.format.DateTimeFormatter").named("ofPattern"),
+          staticMethod().onClass("java.lang.String").namedAnyOf("format", "join", "valueOf"),
+          staticMethod().onClassAny(BOXED_PRIMITIVES).namedAnyOf("toString", "valueOf"),
+          instanceMethod().onExactClass("java.lang.String"),
+          instanceMethod().onExactClassAny(BOXED_PRIMITIVES));
+  private static final Matcher<ExpressionTree> IMMUTABLE_VALUE_CONSTRUCTOR =
+      anyOf(
+          constructor().forClass("java.lang.String"),
+          constructor().forClass("java.math.BigDecimal"),
+          constructor().forClass("java.math.BigInteger"));
+
+  /** The kinds of hot contexts that are recognized. */
+  public enum Kind {
+    /** The condition, update or body of a loop. */
+    LOOP,
+    /** The body of a lambda expression passed to a stream operation. */
+    STREAM_LAMBDA,
+    /** The body of a lambda expression passed to a Reactive Streams publisher operation. */
+    REACTOR_LAMBDA,
+    /** The body of a lambda expression passed to an {@code Iterable} or {@code Map} iteration. */
+    FOR_EACH_LAMBDA
+  }
+
+  private final Map<Tree, Kind> hotContexts;
+  private final Map<Symbol, ImmutableList<Tree>> enclosingHotContextsByLocal;
+  private final Map<ExpressionTree, Boolean> loopInvariance = new IdentityHashMap<>();
+
+  private HotContexts(
+      Map<Tree, Kind> hotContexts, Map<Symbol, ImmutableList<Tree>> enclosingHotContextsByLocal) {
+    this.hotContexts = hotContexts;
+    this.enclosingHotContextsByLocal = enclosingHotContextsByLocal;
+  }
+
+  /**
+   * Returns the kind of the innermost hot context enclosing the {@link VisitorState}'s current
+   * path, if any.
+   *
+   * @param state The {@link VisitorState} describing the code of interest.
+   * @return The kind of the innermost enclosing hot context, if any.
+   */
+  public static Optional<Kind> getHotContextKind(VisitorState state) {
+    return findEnclosingHotContext(state.getPath(), state)
+        .map(hotContext -> hotContext.analysis.hotContexts.get(hotContext.tree));
+  }
+
+  /**
+   * Tells whether the {@link VisitorState}'s current path is enclosed by a hot context.
+   *
+   * @param state The {@link VisitorState} describing the code of interest.
+   * @return {@code true} iff the current path is enclosed by a loop, a stream or Reactor operator
+   *     lambda expression, or a lambda expression passed to an {@code Iterable} or {@code Map}
+   *     {@code forEach} method.
+   */
+  public static boolean isInHotContext(VisitorState state) {
+    return getHotContextKind(state).isPresent();
+  }
+
+  /**
+   * Tells whether the given expression evaluates to the same value for each execution of the
+   * innermost hot context enclosing the {@link VisitorState}'s current path.
+   *
+   * <p>An expression is considered loop invariant if it consists solely of literals, references
+   * to final fields, references to effectively final variables declared outside the hot context,
+   * operators, method references, and invocations of well-known pure methods (such as {@link
+   * java.util.regex.Pattern#compile(String)} and {@link String#valueOf(Object)}) and
+   * instantiations of well-known immutable value types (such as {@link java.math.BigDecimal})
+   * with loop invariant operands. Other method invocations, such as {@link
+   * java.util.Iterator#next()} or {@link java.util.List#size()}, may yield a different result on
+   * each invocation, and are thus not considered loop invariant.
+   *
+   * @param expression The expression of interest; must be enclosed by the current path's leaf.
+   * @param state The {@link VisitorState} describing the code of interest.
+   * @return {@code true} iff the expression is loop invariant. Expressions that are not enclosed
+   *     by any hot context are trivially considered loop invariant.
+   */
+  public static boolean isLoopInvariant(ExpressionTree expression, VisitorState state) {
+    return findEnclosingHotContext(state.getPath(), state)
+        .map(
+            hotContext -> hotContext.analysis.isLoopInvariant(expression, hotContext.tree, state))
+        .orElse(Boolean.TRUE);
+  }
+
+  /**
+   * Tells whether the given variable retains its value across executions of the innermost hot
+   * context enclosing the {@link VisitorState}'s current path.
+   *
+   * @param variable The variable of interest.
+   * @param state The {@link VisitorState} describing the code of interest.
+   * @return {@code true} iff the current path is enclosed by a hot context, and the variable is a
+   *     field, or a parameter or local variable declared outside said hot context.
+   */
+  public static boolean isDeclaredOutsideHotContext(VarSymbol variable, VisitorState state) {
+    return findEnclosingHotContext(state.getPath(), state)
+        .filter(hotContext -> hotContext.analysis.isDeclaredOutside(variable, hotContext.tree))
+        .isPresent();
+  }
+
+  private boolean isDeclaredOutside(VarSymbol variable, Tree hotContext) {
+    ImmutableList<Tree> enclosingHotContexts = enclosingHotContextsByLocal.get(variable);
+    return enclosingHotContexts == null || !enclosingHotContexts.contains(hotContext);
+  }
+
+  private boolean isLoopInvariant(
+      ExpressionTree expression, Tree hotContext, VisitorState state) {
+    return loopInvariance.computeIfAbsent(
+        expression,
+        e ->
+            new LoopInvarianceVisitor(hotContext, enclosingHotContextsByLocal, state)
+                .isInvariant(e));
+  }
+
+  private static HotContexts forMethod(MethodTree method, VisitorState state) {
+    return CompilationUnitFacts.get(state).getHotContexts(method, m -> analyze(m, state));
+  }
+
+  /**
+   * Locates the innermost hot context enclosing the given path, without leaving the innermost
+   * enclosing method.
+   */
+  private static Optional<EnclosingHotContext> findEnclosingHotContext(
+      TreePath path, VisitorState state) {
+    @Nullable MethodTree method = null;
+    for (TreePath p = path; p != null; p = p.getParentPath()) {
+      Tree tree = p.getLeaf();
+      if (tree instanceof MethodTree) {
+        method = (MethodTree) tree;
+        break;
+      }
+      if (tree instanceof ClassTree) {
+        return Optional.empty();
+      }
+    }
+
+    if (method == null) {
+      return Optional.empty();
+    }
+
+    HotContexts analysis = forMethod(method, state);
+    @Nullable Tree child = null;
+    for (TreePath p = path; p.getLeaf() != method; p = p.getParentPath()) {
+      Tree tree = p.getLeaf();
+      if (analysis.hotContexts.containsKey(tree) && isHotChild(tree, child)) {
+        return Optional.of(new EnclosingHotContext(analysis, tree));
+      }
+      child = tree;
+    }
+
+    return Optional.empty();
+  }
+
+  /**
+   * Tells whether the given child of a hot context tree is evaluated repeatedly; this excludes
+   * e.g. the initializer of a {@code for} loop.
+   */
+  private static boolean isHotChild(Tree hotContext, @Nullable Tree child) {
+    if (hotContext instanceof ForLoopTree) {
+      return child == null || !((ForLoopTree) hotContext).getInitializer().contains(child);
+    }
+    if (hotContext instanceof EnhancedForLoopTree) {
+      return child != ((EnhancedForLoopTree) hotContext).getExpression();
+    }
+    return true;
+  }
+
+  private static HotContexts analyze(MethodTree method, VisitorState state) {
+    Map<Tree, Kind> hotContexts = new IdentityHashMap<>();
+    Map<Symbol, ImmutableList<Tree>> enclosingHotContextsByLocal = new IdentityHashMap<>();
+    Deque<Tree> enclosingHotContexts = new ArrayDeque<>();
+
+    new TreeScanner<@Nullable Void, @Nullable Void>() {
+      @Override
+      public @Nullable Void visitClass(ClassTree node, @Nullable Void unused) {
+        /* Local and anonymous classes are analyzed separately. */
+        return null;
+      }
+
+      @Override
+      public @Nullable Void visitVariable(VariableTree node, @Nullable Void unused) {
+        Symbol symbol = ASTHelpers.getSymbol(node);
+        if (symbol != null) {
+          enclosingHotContextsByLocal.put(symbol, ImmutableList.copyOf(enclosingHotContexts));
+        }
+        return super.visitVariable(node, unused);
+      }
+
+      @Override
+      public @Nullable Void visitForLoop(ForLoopTree node, @Nullable Void unused) {
+        scan(node.getInitializer(), null);
+        hotContexts.put(node, Kind.LOOP);
+        enclosingHotContexts.push(node);
+        scan(node.getCondition(), null);
+        scan(node.getUpdate(), null);
+        scan(node.getStatement(), null);
+        enclosingHotContexts.pop();
+        return null;
+      }
+
+      @Override
+      public @Nullable Void visitEnhancedForLoop(EnhancedForLoopTree node, @Nullable Void unused) {
+        scan(node.getExpression(), null);
+        hotContexts.put(node, Kind.LOOP);
+        enclosingHotContexts.push(node);
+        scan(node.getVariable(), null);
+        scan(node.getStatement(), null);
+        enclosingHotContexts.pop();
+        return null;
+      }
+
+      @Override
+      public @Nullable Void visitWhileLoop(WhileLoopTree node, @Nullable Void unused) {
+        return scanHotContext(node, Kind.LOOP, () -> super.visitWhileLoop(node, unused));
+      }
+
+      @Override
+      public @Nullable Void visitDoWhileLoop(DoWhileLoopTree node, @Nullable Void unused) {
+        return scanHotContext(node, Kind.LOOP, () -> super.visitDoWhileLoop(node, unused));
+      }
+
+      @Override
+      public @Nullable Void visitMethodInvocation(
+          MethodInvocationTree node, @Nullable Void unused) {
+        Kind kind = getLambdaArgumentKind(node, state);
+        if (kind != null) {
+          for (ExpressionTree argument : node.getArguments()) {
+            if (argument instanceof LambdaExpressionTree) {
+              hotContexts.put(argument, kind);
+            }
+          }
+        }
+        return super.visitMethodInvocation(node, unused);
+      }
+
+      @Override
+      public @Nullable Void visitLambdaExpression(
+          LambdaExpressionTree node, @Nullable Void unused) {
+        Kind kind = hotContexts.get(node);
+        return kind == null
+            ? super.visitLambdaExpression(node, unused)
+            : scanHotContext(node, kind, () -> super.visitLambdaExpression(node, unused));
+      }
+
+      private @Nullable Void scanHotContext(Tree node, Kind kind, Runnable scanner) {
+        hotContexts.put(node, kind);
+        enclosingHotContexts.push(node);
+        scanner.run();
+        enclosingHotContexts.pop();
+        return null;
+      }
+    }.scan(method.getBody(), null);
+
+    return new HotContexts(hotContexts, enclosingHotContextsByLocal);
+  }
+
+  private static @Nullable Kind getLambdaArgumentKind(
+      MethodInvocationTree tree, VisitorState state) {
+    MethodSymbol method = ASTHelpers.getSymbol(tree);
+    if (method == null) {
+      return null;
+    }
+
+    Type owner = method.owner.type;
+    if (ASTHelpers.isSubtype(owner, BASE_STREAM.get(state), state)) {
+      return Kind.STREAM_LAMBDA;
+    }
+    /*
+     * Lambda expressions passed to static factory methods such as `Mono#fromCallable` and
+     * `Flux#defer` are generally evaluated once per subscription, rather than once per element.
+     */
+    if (!method.isStatic() && ASTHelpers.isSubtype(owner, PUBLISHER.get(state), state)) {
+      return Kind.REACTOR_LAMBDA;
+    }
+    if (method.getSimpleName().contentEquals("forEach")
+        && (ASTHelpers.isSubtype(owner, state.getSymtab().iterableType, state)
+            || ASTHelpers.isSubtype(owner, MAP.get(state), state))) {
+      return Kind.FOR_EACH_LAMBDA;
+    }
+    return null;
+  }
+
+  /** A hot context tree, along with the analysis of the method that encloses it. */
+  private static final class EnclosingHotContext {
+    private final HotContexts analysis;
+    private final Tree tree;
+
+    EnclosingHotContext(HotContexts analysis, Tree tree) {
+      this.analysis = analysis;
+      this.tree = tree;
+    }
+  }
+
+  /**
+   * A {@link SimpleTreeVisitor} that tells whether an expression is invariant with respect to a
+   * given hot context.
+   */
+  private static final class LoopInvarianceVisitor
+      extends SimpleTreeVisitor<Boolean, @Nullable Void> {
+    private final Tree hotContext;
+    private final Map<Symbol, ImmutableList<Tree>> enclosingHotContextsByLocal;
+    private final VisitorState state;
+
+    LoopInvarianceVisitor(
+        Tree hotContext,
+        Map<Symbol, ImmutableList<Tree>> enclosingHotContextsByLocal,
+        VisitorState state) {
+      super(Boolean.FALSE);
+      this.hotContext = hotContext;
+      this.enclosingHotContextsByLocal = enclosingHotContextsByLocal;
+      this.state = state;
+    }
+
+    boolean isInvariant(@Nullable Tree tree) {
+      return tree == null || tree.accept(this, null);
+    }
+
+    private boolean areInvariant(List<? extends Tree> trees) {
+      return trees.stream().allMatch(this::isInvariant);
+    }
+
+    @Override
+    public Boolean visitLiteral(LiteralTree node, @Nullable Void unused) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitIdentifier(IdentifierTree node, @Nullable Void unused) {
+      return isInvariantReference(ASTHelpers.getSymbol(node));
+    }
+
+    @Override
+    public Boolean visitMemberSelect(MemberSelectTree node, @Nullable Void unused) {
+      return isInvariantReference(ASTHelpers.getSymbol(node)) && isInvariant(node.getExpression());
+    }
+
+    @Override
+    public Boolean visitMemberReference(MemberReferenceTree node, @Nullable Void unused) {
+      return isInvariant(node.getQualifierExpression());
+    }
+
+    @Override
+    public Boolean visitParenthesized(ParenthesizedTree node, @Nullable Void unused) {
+      return isInvariant(node.getExpression());
+    }
+
+    @Override
+    public Boolean visitTypeCast(TypeCastTree node, @Nullable Void unused) {
+      return isInvariant(node.getExpression());
+    }
+
+    @Override
+    public Boolean visitInstanceOf(InstanceOfTree node, @Nullable Void unused) {
+      return isInvariant(node.getExpression());
+    }
+
+    @Override
+    public Boolean visitUnary(UnaryTree node, @Nullable Void unused) {
+      switch (node.getKind()) {
+        case PREFIX_INCREMENT:
+        case PREFIX_DECREMENT:
+        case POSTFIX_INCREMENT:
+        case POSTFIX_DECREMENT:
+          return false;
+        default:
+          return isInvariant(node.getExpression());
+      }
+    }
+
+    @Override
+    public Boolean visitBinary(BinaryTree node, @Nullable Void unused) {
+      return isInvariant(node.getLeftOperand()) && isInvariant(node.getRightOperand());
+    }
+
+    @Override
+    public Boolean visitConditionalExpression(
+        ConditionalExpressionTree node, @Nullable Void unused) {
+      return isInvariant(node.getCondition())
+          && isInvariant(node.getTrueExpression())
+          && isInvariant(node.getFalseExpression());
+    }
+
+    @Override
+    public Boolean visitMethodInvocation(MethodInvocationTree node, @Nullable Void unused) {
+      return PURE_METHOD.matches(node, state)
+          && isInvariant(node.getMethodSelect())
+          && areInvariant(node.getArguments());
+    }
+
+    @Override
+    public Boolean visitNewClass(NewClassTree node, @Nullable Void unused) {
+      return IMMUTABLE_VALUE_CONSTRUCTOR.matches(node, state)
+          && node.getClassBody() == null
+          && isInvariant(node.getEnclosingExpression())
+          && areInvariant(node.getArguments());
+    }
+
+    @Override
+    public Boolean visitNewArray(NewArrayTree node, @Nullable Void unused) {
+      return areInvariant(node.getDimensions())
+          && (node.getInitializers() == null || areInvariant(node.getInitializers()));
+    }
+
+    private boolean isInvariantReference(@Nullable Symbol symbol) {
+      if (!(symbol instanceof VarSymbol)) {
+        /* Types, packages and methods. */
+        return symbol != null;
+      }
+
+      if (!ASTHelpers.isConsideredFinal(symbol)) {
+        return false;
+      }
+
+      ElementKind kind = symbol.getKind();
+      if (kind == ElementKind.FIELD || kind == ElementKind.ENUM_CONSTANT) {
+        return true;
+      }
+
+      ImmutableList<Tree> enclosingHotContexts = enclosingHotContextsByLocal.get(symbol);
+      return enclosingHotContexts == null || !enclosingHotContexts.contains(hotContext);
+    }
+  }
+}
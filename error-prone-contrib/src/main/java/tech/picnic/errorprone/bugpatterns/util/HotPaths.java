@@ -0,0 +1,127 @@
+package tech.picnic.errorprone.bugpatterns.util;
+
+import com.google.errorprone.BugPattern.SeverityLevel;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.Tree;
+import com.sun.tools.javac.code.Attribute;
+import com.sun.tools.javac.code.Symbol;
+import java.util.Map;
+import java.util.Optional;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Utility methods for performance-related {@link BugChecker}s that report findings with escalated
+ * severity inside latency-critical code, as indicated by the {@code
+ * tech.picnic.errorprone.refaster.annotation.HotPath} annotation.
+ *
+ * @implNote The annotation is identified by name, such that this class does not require the
+ *     annotation to be present on the classpath. The annotation is interpreted in the same way as
+ *     by {@code tech.picnic.errorprone.refaster.HotPaths}; changes should be applied to both.
+ */
+public final class HotPaths {
+  private static final String HOT_PATH_ANNOTATION =
+      "tech.picnic.errorprone.refaster.annotation.HotPath";
+
+  private HotPaths() {}
+
+  /**
+   * Returns the severity specified by the innermost {@code HotPath}-annotated method, constructor
+   * or class that encloses the {@link VisitorState}'s current path, if any.
+   *
+   * @param state The {@link VisitorState} whose current path to inspect.
+   * @return The applicable {@code HotPath#value()}, if any.
+   */
+  public static Optional<SeverityLevel> getSeverity(VisitorState state) {
+    for (Tree tree : state.getPath()) {
+      @Nullable Symbol symbol =
+          tree instanceof MethodTree
+              ? ASTHelpers.getSymbol((MethodTree) tree)
+              : tree instanceof ClassTree ? ASTHelpers.getSymbol((ClassTree) tree) : null;
+      Optional<SeverityLevel> severity = getSeverity(symbol);
+      if (severity.isPresent()) {
+        return severity;
+      }
+    }
+
+    return Optional.empty();
+  }
+
+  /**
+   * Escalates the severity of the given description to the severity specified by the enclosing
+   * {@code HotPath} annotation, if any and if more severe than the bug checker's default severity.
+   *
+   * <p>This method is meant to be invoked only by performance-related bug checkers.
+   *
+   * @param description The description of the finding to be reported.
+   * @param checker The bug checker that reports the finding.
+   * @param state The {@link VisitorState} describing the location of the finding.
+   * @return The given description builder, for chaining.
+   */
+  public static Description.Builder escalateSeverity(
+      Description.Builder description, BugChecker checker, VisitorState state) {
+    return escalateSeverity(description, checker.defaultSeverity(), state);
+  }
+
+  /**
+   * Escalates the severity of the given description to at least {@link SeverityLevel#WARNING} if
+   * the finding is located inside a {@link HotContexts hot context}, such as a loop or a stream
+   * or Reactor operator lambda expression, and further to the severity specified by the enclosing
+   * {@code HotPath} annotation, if any and if more severe.
+   *
+   * <p>This method is meant to be invoked only by performance-related bug checkers whose findings
+   * are generally of low impact, unless they concern code that is executed repeatedly.
+   *
+   * @param description The description of the finding to be reported.
+   * @param checker The bug checker that reports the finding.
+   * @param state The {@link VisitorState} describing the location of the finding.
+   * @return The given description builder, for chaining.
+   */
+  public static Description.Builder escalateSeverityInHotContext(
+      Description.Builder description, BugChecker checker, VisitorState state) {
+    SeverityLevel severity = checker.defaultSeverity();
+    if (HotContexts.isInHotContext(state) && isMoreSevere(SeverityLevel.WARNING, severity)) {
+      severity = SeverityLevel.WARNING;
+      description.overrideSeverity(severity);
+    }
+    return escalateSeverity(description, severity, state);
+  }
+
+  private static Description.Builder escalateSeverity(
+      Description.Builder description, SeverityLevel currentSeverity, VisitorState state) {
+    return getSeverity(state)
+        .filter(severity -> isMoreSevere(severity, currentSeverity))
+        .map(description::overrideSeverity)
+        .orElse(description);
+  }
+
+  private static boolean isMoreSevere(SeverityLevel severity, SeverityLevel other) {
+    /* Note that more severe levels are ordered first. */
+    return severity.compareTo(other) < 0;
+  }
+
+  private static Optional<SeverityLevel> getSeverity(@Nullable Symbol symbol) {
+    if (symbol == null) {
+      return Optional.empty();
+    }
+
+    return symbol.getRawAttributes().stream()
+        .filter(a -> a.type.tsym.getQualifiedName().contentEquals(HOT_PATH_ANNOTATION))
+        .findFirst()
+        .map(HotPaths::getValue);
+  }
+
+  private static SeverityLevel getValue(Attribute.Compound annotation) {
+    return annotation.getElementValues().entrySet().stream()
+        .filter(e -> e.getKey().getSimpleName().contentEquals("value"))
+        .map(Map.Entry::getValue)
+        .filter(Attribute.Enum.class::isInstance)
+        .map(v -> SeverityLevel.valueOf(((Attribute.Enum) v).value.getSimpleName().toString()))
+        .findFirst()
+        .orElse(SeverityLevel.WARNING);
+  }
+}
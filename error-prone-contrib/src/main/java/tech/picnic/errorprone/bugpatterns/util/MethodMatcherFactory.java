@@ -1,7 +1,6 @@
 package tech.picnic.errorprone.bugpatterns.util;
 
 import static com.google.common.base.Preconditions.checkArgument;
-import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static com.google.errorprone.matchers.Matchers.anyOf;
 import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
 import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
@@ -32,24 +31,28 @@ public final class MethodMatcherFactory {
    *     the given signatures.
    */
   public Matcher<ExpressionTree> create(Collection<String> signatures) {
-    return anyOf(
-        signatures.stream()
-            .map(MethodMatcherFactory::createMethodMatcher)
-            .collect(toImmutableSet()));
+    NameIndexedMethodMatcher.Builder<ExpressionTree> matcher = NameIndexedMethodMatcher.builder();
+    for (String signature : signatures) {
+      addMethodMatcher(matcher, signature);
+    }
+    return matcher.build();
   }
 
   // XXX: It seems parse errors are silently swallowed. Double-check; if true, file a ticket.
   // XXX: This (probably) doesn't work for methods with array type arguments; if true, implement a
   // fix.
-  private static Matcher<ExpressionTree> createMethodMatcher(CharSequence signature) {
+  private static void addMethodMatcher(
+      NameIndexedMethodMatcher.Builder<ExpressionTree> matcher, CharSequence signature) {
     java.util.regex.Matcher m = METHOD_SIGNATURE.matcher(signature);
     checkArgument(m.matches(), "Not a valid method signature: %s", signature);
     String className = m.group(1);
     String methodName = m.group(2);
     Iterable<String> parameterTypes = ARGUMENT_TYPE_SPLITTER.split(m.group(3));
 
-    return anyOf(
-        instanceMethod().onDescendantOf(className).named(methodName).withParameters(parameterTypes),
-        staticMethod().onClass(className).named(methodName).withParameters(parameterTypes));
+    matcher.add(
+        methodName,
+        anyOf(
+            instanceMethod().onDescendantOf(className).withAnyName().withParameters(parameterTypes),
+            staticMethod().onClass(className).withAnyName().withParameters(parameterTypes)));
   }
 }
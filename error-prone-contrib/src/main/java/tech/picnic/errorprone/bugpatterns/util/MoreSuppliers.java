@@ -0,0 +1,66 @@
+package tech.picnic.errorprone.bugpatterns.util;
+
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.suppliers.Supplier;
+import com.sun.tools.javac.util.Context;
+import org.jspecify.annotations.Nullable;
+
+/** Helper methods for working with Error Prone {@link Supplier}s. */
+public final class MoreSuppliers {
+  private MoreSuppliers() {}
+
+  /**
+   * Returns a supplier that computes the value of the given supplier at most once per compilation,
+   * and subsequently returns the cached value.
+   *
+   * <p>Unlike {@link VisitorState#memoize(Supplier)}, the returned supplier is safe to use from
+   * compilations that run concurrently within the same JVM: a value computed in the context of one
+   * compilation is never returned in the context of another. Suppliers that are stored in static
+   * fields (and are thus shared by all compilations) should be created using this method.
+   *
+   * @param <T> The type of value supplied.
+   * @param supplier The supplier whose value to memoize.
+   * @return A non-{@code null} memoizing supplier.
+   */
+  public static <T> Supplier<T> memoize(Supplier<T> supplier) {
+    return new CompilationScopedSupplier<>(supplier);
+  }
+
+  /**
+   * A {@link Supplier} that caches the value computed for the compilation it was most recently
+   * invoked for.
+   *
+   * @implNote The cached value and the {@link Context} it was computed for are published together
+   *     through a single volatile field. Concurrent compilations may thus cause values to be
+   *     recomputed more often than strictly necessary, but can never observe each other's values.
+   */
+  private static final class CompilationScopedSupplier<T> implements Supplier<T> {
+    private final Supplier<T> delegate;
+    private volatile @Nullable Memo<T> memo;
+
+    CompilationScopedSupplier(Supplier<T> delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public T get(VisitorState state) {
+      Memo<T> current = memo;
+      if (current == null || current.context != state.context) {
+        current = new Memo<>(state.context, delegate.get(state));
+        memo = current;
+      }
+      return current.value;
+    }
+  }
+
+  /** A value computed in the context of a specific compilation. */
+  private static final class Memo<T> {
+    private final Context context;
+    private final T value;
+
+    Memo(Context context, T value) {
+      this.context = context;
+      this.value = value;
+    }
+  }
+}
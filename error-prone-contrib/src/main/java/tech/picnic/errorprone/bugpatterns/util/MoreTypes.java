@@ -13,6 +13,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.BiFunction;
+import org.jspecify.annotations.Nullable;
 
 /**
  * A set of helper methods which together define a DSL for defining {@link Type types}.
@@ -21,13 +22,17 @@ import java.util.function.BiFunction;
  *
  * <pre>{@code
  * Supplier<Type> type =
- *     VisitorState.memoize(
- *         generic(
- *             type("reactor.core.publisher.Flux"),
- *             subOf(generic(type("org.reactivestreams.Publisher"), unbound()))));
+ *     generic(
+ *         type("reactor.core.publisher.Flux"),
+ *         subOf(generic(type("org.reactivestreams.Publisher"), unbound())));
  * }</pre>
  *
- * This statement produces a memoized supplier of the type {@code Flux<? extends Publisher<?>>}.
+ * This statement produces a supplier of the type {@code Flux<? extends Publisher<?>>}.
+ *
+ * <p>All suppliers returned by this class are {@link MoreSuppliers#memoize(Supplier) memoized}: the
+ * described type is resolved at most once per compilation, so there is no need to wrap them in
+ * another memoizing supplier. Such suppliers are best assigned to a {@code static final} field, as
+ * each supplier instance maintains its own memoized value.
  */
 public final class MoreTypes {
   private MoreTypes() {}
@@ -44,7 +49,7 @@ public final class MoreTypes {
    *     null} otherwise.
    */
   public static Supplier<Type> type(String typeName) {
-    return Suppliers.typeFromString(typeName);
+    return MoreSuppliers.memoize(Suppliers.typeFromString(typeName));
   }
 
   /**
@@ -60,7 +65,7 @@ public final class MoreTypes {
   @SafeVarargs
   @SuppressWarnings("varargs")
   public static Supplier<Type> generic(Supplier<Type> type, Supplier<Type>... typeArgs) {
-    return propagateNull(
+    return memoizedPropagateNull(
         type,
         (state, baseType) -> {
           List<Type> params =
@@ -81,7 +86,8 @@ public final class MoreTypes {
    *     null} otherwise.
    */
   public static Supplier<Type> raw(Supplier<Type> type) {
-    return propagateNull(type, (state, baseType) -> baseType.tsym.erasure(state.getTypes()));
+    return memoizedPropagateNull(
+        type, (state, baseType) -> baseType.tsym.erasure(state.getTypes()));
   }
 
   /**
@@ -92,7 +98,7 @@ public final class MoreTypes {
    *     null} otherwise.
    */
   public static Supplier<Type> superOf(Supplier<Type> type) {
-    return propagateNull(
+    return memoizedPropagateNull(
         type,
         (state, baseType) ->
             new Type.WildcardType(baseType, BoundKind.SUPER, state.getSymtab().boundClass));
@@ -106,11 +112,10 @@ public final class MoreTypes {
    *     null} otherwise.
    */
   public static Supplier<Type> subOf(Supplier<Type> type) {
-    return propagateNull(
+    return memoizedPropagateNull(
         type,
         (state, baseType) ->
-            new Type.WildcardType(
-                type.get(state), BoundKind.EXTENDS, state.getSymtab().boundClass));
+            new Type.WildcardType(baseType, BoundKind.EXTENDS, state.getSymtab().boundClass));
   }
 
   /**
@@ -119,14 +124,55 @@ public final class MoreTypes {
    * @return A supplier which returns the described type.
    */
   public static Supplier<Type> unbound() {
-    return state ->
-        new Type.WildcardType(
-            state.getSymtab().objectType, BoundKind.UNBOUND, state.getSymtab().boundClass);
+    return MoreSuppliers.memoize(
+        state ->
+            new Type.WildcardType(
+                state.getSymtab().objectType, BoundKind.UNBOUND, state.getSymtab().boundClass));
+  }
+
+  /**
+   * Tells whether the given type is a subtype of the supplied type, without erasing either of
+   * them.
+   *
+   * @param subtype The (potential) subtype of interest.
+   * @param supertype A supplier of the (potential) supertype of interest.
+   * @param state The {@link VisitorState} describing the current compilation.
+   * @return {@code true} iff both types are known and {@code subtype} is a subtype of {@code
+   *     supertype}.
+   */
+  public static boolean isSubtype(
+      @Nullable Type subtype, Supplier<Type> supertype, VisitorState state) {
+    Type superType = supertype.get(state);
+    if (subtype == null || superType == null) {
+      return false;
+    }
+
+    return state.getTypes().isSubtype(subtype, superType);
+  }
+
+  /**
+   * Tells whether the given type is the same as the supplied type, without erasing either of them.
+   *
+   * @param type The type of interest.
+   * @param other A supplier of the type to compare against.
+   * @param state The {@link VisitorState} describing the current compilation.
+   * @return {@code true} iff both types are known and the same.
+   */
+  public static boolean isSameType(@Nullable Type type, Supplier<Type> other, VisitorState state) {
+    Type otherType = other.get(state);
+    if (type == null || otherType == null) {
+      return false;
+    }
+
+    return state.getTypes().isSameType(type, otherType);
   }
 
-  private static Supplier<Type> propagateNull(
+  private static Supplier<Type> memoizedPropagateNull(
       Supplier<Type> type, BiFunction<VisitorState, Type, Type> transformer) {
-    return state ->
-        Optional.ofNullable(type.get(state)).map(t -> transformer.apply(state, t)).orElse(null);
+    return MoreSuppliers.memoize(
+        state ->
+            Optional.ofNullable(type.get(state))
+                .map(t -> transformer.apply(state, t))
+                .orElse(null));
   }
 }
@@ -0,0 +1,170 @@
+package tech.picnic.errorprone.bugpatterns.util;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symbol.MethodSymbol;
+import com.sun.tools.javac.util.Name;
+import com.sun.tools.javac.util.Names;
+import java.util.Collection;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A {@link Matcher} of method invocation (and method reference) expressions that first dispatches
+ * on the name of the referenced method, and only then evaluates the matchers associated with that
+ * name.
+ *
+ * <p>Compared to an {@link com.google.errorprone.matchers.Matchers#anyOf(Matcher[]) anyOf}
+ * combination of {@link com.google.errorprone.matchers.method.MethodMatchers}, this matcher
+ * rejects expressions that reference a method with a non-matching name using a single hash lookup,
+ * rather than by evaluating each of the combined matchers in turn. Lookups are keyed by the
+ * referenced method's {@link Name}, so that no strings need to be allocated.
+ *
+ * <p>As the name of the referenced method is checked by this matcher, the associated matchers need
+ * not (but may) check it again. That is, {@code
+ * instanceMethod().onDescendantOf("java.lang.String")} suffices where one would otherwise write
+ * {@code instanceMethod().onDescendantOf("java.lang.String").named("isEmpty")}.
+ *
+ * @param <T> The type of tree matched.
+ */
+public final class NameIndexedMethodMatcher<T extends ExpressionTree> implements Matcher<T> {
+  private static final long serialVersionUID = 1L;
+
+  @SuppressWarnings("serial" /* Concrete instance will be `Serializable`. */)
+  private final ImmutableListMultimap<String, Matcher<? super T>> matchersByName;
+
+  private transient volatile @Nullable Index<T> index;
+
+  private NameIndexedMethodMatcher(ImmutableListMultimap<String, Matcher<? super T>> matchers) {
+    this.matchersByName = matchers;
+  }
+
+  /**
+   * Returns a new {@link Builder} of {@link NameIndexedMethodMatcher}s.
+   *
+   * @param <T> The type of tree matched.
+   * @return A new {@link Builder}.
+   */
+  public static <T extends ExpressionTree> Builder<T> builder() {
+    return new Builder<>();
+  }
+
+  @Override
+  public boolean matches(T tree, VisitorState state) {
+    if (matchersByName.isEmpty()) {
+      return false;
+    }
+
+    Symbol symbol = ASTHelpers.getSymbol(tree);
+    if (!(symbol instanceof MethodSymbol)) {
+      return false;
+    }
+
+    ImmutableList<Matcher<? super T>> candidates =
+        getIndex(state).matchersByName.get(symbol.getSimpleName());
+    if (candidates == null) {
+      return false;
+    }
+
+    for (Matcher<? super T> candidate : candidates) {
+      if (candidate.matches(tree, state)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Returns the index of matchers for the {@link Names} table associated with the current
+   * compilation, (re)creating it if necessary.
+   *
+   * @implNote {@link Name}s are interned per {@link Names} table; as a result the index is valid
+   *     only for compilations that share the same table. Concurrent compilations that use
+   *     different tables may cause the index to be recreated more often than strictly necessary,
+   *     but will never observe an index for the wrong table.
+   */
+  private Index<T> getIndex(VisitorState state) {
+    Names names = state.getNames();
+    Index<T> current = index;
+    if (current == null || current.names != names) {
+      current = new Index<>(names, matchersByName);
+      index = current;
+    }
+    return current;
+  }
+
+  /** A mapping from interned method {@link Name}s to the matchers associated with them. */
+  private static final class Index<T extends ExpressionTree> {
+    private final Names names;
+    private final ImmutableMap<Name, ImmutableList<Matcher<? super T>>> matchersByName;
+
+    Index(Names names, ImmutableListMultimap<String, Matcher<? super T>> matchers) {
+      this.names = names;
+      this.matchersByName =
+          matchers.asMap().entrySet().stream()
+              .collect(
+                  toImmutableMap(
+                      e -> names.fromString(e.getKey()), e -> ImmutableList.copyOf(e.getValue())));
+    }
+  }
+
+  /**
+   * A builder of {@link NameIndexedMethodMatcher}s.
+   *
+   * @param <T> The type of tree matched.
+   */
+  public static final class Builder<T extends ExpressionTree> {
+    private final ImmutableListMultimap.Builder<String, Matcher<? super T>> matchers =
+        ImmutableListMultimap.builder();
+
+    private Builder() {}
+
+    /**
+     * Registers a matcher of invocations of methods with the given name.
+     *
+     * @param methodName The name of the methods of interest.
+     * @param matcher The matcher to evaluate against expressions that reference a method with the
+     *     given name.
+     * @return This builder.
+     */
+    @CanIgnoreReturnValue
+    public Builder<T> add(String methodName, Matcher<? super T> matcher) {
+      matchers.put(methodName, matcher);
+      return this;
+    }
+
+    /**
+     * Registers a matcher of invocations of methods with any of the given names.
+     *
+     * @param methodNames The names of the methods of interest.
+     * @param matcher The matcher to evaluate against expressions that reference a method with any
+     *     of the given names.
+     * @return This builder.
+     */
+    @CanIgnoreReturnValue
+    public Builder<T> add(Collection<String> methodNames, Matcher<? super T> matcher) {
+      for (String methodName : methodNames) {
+        matchers.put(methodName, matcher);
+      }
+      return this;
+    }
+
+    /**
+     * Creates a {@link NameIndexedMethodMatcher} with the registered matchers.
+     *
+     * @return A new {@link NameIndexedMethodMatcher}.
+     */
+    public NameIndexedMethodMatcher<T> build() {
+      return new NameIndexedMethodMatcher<>(matchers.build());
+    }
+  }
+}
@@ -1,18 +1,52 @@
 package tech.picnic.errorprone.bugpatterns.util;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Splitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.errorprone.VisitorState;
 import com.google.errorprone.bugpatterns.BugChecker;
 import com.google.errorprone.suppliers.Supplier;
 import com.sun.tools.javac.code.ClassFinder;
+import com.sun.tools.javac.code.Symbol.ClassSymbol;
 import com.sun.tools.javac.code.Symbol.CompletionFailure;
+import com.sun.tools.javac.code.Type;
 import com.sun.tools.javac.util.Name;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Utility class that helps decide whether it is appropriate to introduce references to (well-known)
  * third-party libraries.
  *
  * <p>This class should be used by {@link BugChecker}s that may otherwise suggest the introduction
- * of code that depends on possibly-not-present third-party libraries.
+ * of code that depends on possibly-not-present third-party libraries. Libraries not enumerated
+ * here can be declared using the {@code ErrorProneSupport:AdditionalThirdPartyLibraries} flag,
+ * which accepts a comma-separated list of entries of the form {@code name=witnessFqcn}, and can
+ * subsequently be probed using {@link #isIntroductionAllowed(String, VisitorState)}.
+ *
+ * <p>Probe outcomes are cached for the lifetime of the JVM, keyed by a fingerprint of the class
+ * path and source path of the compilation. As such, compilations that share the same class path
+ * (e.g. those performed by a long-lived build daemon) don't repeatedly attempt to load absent
+ * witness classes. Classes defined by the sources being compiled are not cached, and neither are
+ * probes performed in the context of a class path or source path that contains directories, as the
+ * contents of those may change between compilations.
  */
 // XXX: Consider giving users more fine-grained control. This would be beneficial in cases where a
 // dependency is on the classpath, but new usages are undesirable.
@@ -45,6 +79,15 @@ public enum ThirdPartyLibrary {
 
   private static final String IGNORE_CLASSPATH_COMPAT_FLAG =
       "ErrorProneSupport:IgnoreClasspathCompat";
+  private static final String ADDITIONAL_LIBRARIES_FLAG =
+      "ErrorProneSupport:AdditionalThirdPartyLibraries";
+  private static final Splitter ADDITIONAL_LIBRARY_SPLITTER = Splitter.on('=').trimResults();
+  private static final Supplier<ImmutableMap<String, String>> ADDITIONAL_LIBRARIES =
+      MoreSuppliers.memoize(ThirdPartyLibrary::getAdditionalLibraries);
+  private static final Supplier<Optional<ImmutableList<String>>> CLASSPATH_FINGERPRINT =
+      MoreSuppliers.memoize(ThirdPartyLibrary::getClasspathFingerprint);
+  private static final Cache<ImmutableList<String>, Map<String, Boolean>> KNOWN_CLASSES =
+      CacheBuilder.newBuilder().maximumSize(64).build();
 
   @SuppressWarnings("ImmutableEnumChecker" /* Supplier is deterministic. */)
   private final Supplier<Boolean> canUse;
@@ -56,7 +99,7 @@ public enum ThirdPartyLibrary {
    *     classpath iff the associated third-party library is on the classpath.
    */
   ThirdPartyLibrary(String witnessFqcn) {
-    this.canUse = VisitorState.memoize(state -> canIntroduceUsage(witnessFqcn, state));
+    this.canUse = MoreSuppliers.memoize(state -> canIntroduceUsage(witnessFqcn, state));
   }
 
   /**
@@ -70,28 +113,132 @@ public enum ThirdPartyLibrary {
     return canUse.get(state);
   }
 
+  /**
+   * Tells whether it is okay to introduce a dependency on the third party library with the given
+   * name in the given context.
+   *
+   * <p>The library must either be enumerated by this class, or be declared using the {@code
+   * ErrorProneSupport:AdditionalThirdPartyLibraries} flag; the answer is subject to the same flags
+   * and caching as {@link #isIntroductionAllowed(VisitorState)}.
+   *
+   * @param library The name of the library of interest.
+   * @param state The context under consideration.
+   * @return {@code true} iff the library is known and it is okay to assume or create a dependency
+   *     on it.
+   */
+  public static boolean isIntroductionAllowed(String library, VisitorState state) {
+    for (ThirdPartyLibrary value : values()) {
+      if (value.name().equals(library)) {
+        return value.isIntroductionAllowed(state);
+      }
+    }
+
+    @Nullable String witnessFqcn = ADDITIONAL_LIBRARIES.get(state).get(library);
+    return witnessFqcn != null && canIntroduceUsage(witnessFqcn, state);
+  }
+
+  private static ImmutableMap<String, String> getAdditionalLibraries(VisitorState state) {
+    ImmutableMap.Builder<String, String> libraries = ImmutableMap.builder();
+    for (String library :
+        Flags.getList(state.errorProneOptions().getFlags(), ADDITIONAL_LIBRARIES_FLAG)) {
+      List<String> parts = ADDITIONAL_LIBRARY_SPLITTER.splitToList(library);
+      checkArgument(
+          parts.size() == 2 && !parts.get(0).isEmpty() && !parts.get(1).isEmpty(),
+          "Not a valid third party library declaration: %s",
+          library);
+      libraries.put(parts.get(0), parts.get(1));
+    }
+    return libraries.buildOrThrow();
+  }
+
   private static boolean canIntroduceUsage(String className, VisitorState state) {
     return shouldIgnoreClasspath(state) || isKnownClass(className, state);
   }
 
   /**
-   * Attempts to determine whether a class with the given FQCN is on the classpath.
+   * Attempts to determine whether a class with the given FQCN is on the classpath, reusing the
+   * outcome of earlier attempts made in the context of an identical classpath.
    *
-   * <p>The {@link VisitorState}'s symbol table is consulted first. If the type has not yet been
-   * loaded, then an attempt is made to do so.
+   * <p>Classes defined by the sources being compiled are never cached, as other compilations with
+   * the same classpath need not define them.
    */
   private static boolean isKnownClass(String className, VisitorState state) {
-    return state.getTypeFromString(className) != null || canLoadClass(className, state);
+    if (isDefinedInSource(findEnteredClass(className, state))) {
+      return true;
+    }
+
+    Optional<ImmutableList<String>> fingerprint = CLASSPATH_FINGERPRINT.get(state);
+    if (fingerprint.isEmpty()) {
+      return probeClass(className, state) != null;
+    }
+
+    Map<String, Boolean> knownClasses = getKnownClasses(fingerprint.orElseThrow());
+    @Nullable Boolean known = knownClasses.get(className);
+    if (known != null) {
+      return known;
+    }
+
+    @Nullable ClassSymbol symbol = probeClass(className, state);
+    if (!isDefinedInSource(symbol)) {
+      knownClasses.put(className, symbol != null);
+    }
+    return symbol != null;
+  }
+
+  /**
+   * Tells whether the outcome of probing for the class with the given FQCN has been cached for the
+   * classpath of the current compilation.
+   */
+  @VisibleForTesting
+  static boolean isProbeCached(String className, VisitorState state) {
+    return CLASSPATH_FINGERPRINT
+        .get(state)
+        .map(fingerprint -> getKnownClasses(fingerprint).containsKey(className))
+        .orElse(Boolean.FALSE);
+  }
+
+  private static Map<String, Boolean> getKnownClasses(ImmutableList<String> fingerprint) {
+    try {
+      return KNOWN_CLASSES.get(fingerprint, ConcurrentHashMap::new);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Cannot create class probe cache", e);
+    }
+  }
+
+  /**
+   * Returns the symbol of the class with the given FQCN, if it has already been entered into the
+   * symbol table, without attempting to load it.
+   */
+  private static @Nullable ClassSymbol findEnteredClass(String className, VisitorState state) {
+    return state
+        .getSymtab()
+        .getClass(state.getSymtab().unnamedModule, state.binaryNameFromClassname(className));
   }
 
-  private static boolean canLoadClass(String className, VisitorState state) {
+  private static boolean isDefinedInSource(@Nullable ClassSymbol symbol) {
+    return symbol != null
+        && symbol.classfile != null
+        && symbol.classfile.getKind() == JavaFileObject.Kind.SOURCE;
+  }
+
+  /**
+   * Attempts to locate the class with the given FQCN on the classpath.
+   *
+   * <p>The {@link VisitorState}'s symbol table is consulted first. If the type has not yet been
+   * loaded, then an attempt is made to do so.
+   */
+  private static @Nullable ClassSymbol probeClass(String className, VisitorState state) {
+    @Nullable Type type = state.getTypeFromString(className);
+    if (type != null && type.tsym instanceof ClassSymbol) {
+      return (ClassSymbol) type.tsym;
+    }
+
     ClassFinder classFinder = ClassFinder.instance(state.context);
     Name binaryName = state.binaryNameFromClassname(className);
     try {
-      classFinder.loadClass(state.getSymtab().unnamedModule, binaryName);
-      return true;
+      return classFinder.loadClass(state.getSymtab().unnamedModule, binaryName);
     } catch (CompletionFailure e) {
-      return false;
+      return null;
     }
   }
 
@@ -102,4 +249,50 @@ public enum ThirdPartyLibrary {
         .getBoolean(IGNORE_CLASSPATH_COMPAT_FLAG)
         .orElse(Boolean.FALSE);
   }
+
+  /**
+   * Returns a description of the class path and source path of the current compilation, such that
+   * the outcome of class probes can be reused across compilations with the same description.
+   *
+   * <p>Each path element is described by its location and, if it is a regular file (typically a
+   * JAR), its size and modification time. If the paths cannot be determined, or if any of them is
+   * a directory, then no fingerprint is returned: changes to the (possibly nested) contents of a
+   * directory, such as a sibling module's {@code target/classes}, cannot be cheaply detected.
+   */
+  private static Optional<ImmutableList<String>> getClasspathFingerprint(VisitorState state) {
+    JavaFileManager fileManager = state.context.get(JavaFileManager.class);
+    if (!(fileManager instanceof StandardJavaFileManager)) {
+      return Optional.empty();
+    }
+
+    StandardJavaFileManager standardFileManager = (StandardJavaFileManager) fileManager;
+    ImmutableList.Builder<String> fingerprint = ImmutableList.builder();
+    for (StandardLocation location :
+        ImmutableList.of(StandardLocation.CLASS_PATH, StandardLocation.SOURCE_PATH)) {
+      fingerprint.add(location.getName());
+      Iterable<? extends Path> paths = standardFileManager.getLocationAsPaths(location);
+      if (paths != null) {
+        for (Path path : paths) {
+          if (Files.isDirectory(path)) {
+            return Optional.empty();
+          }
+          fingerprint.add(describe(path));
+        }
+      }
+    }
+    return Optional.of(fingerprint.build());
+  }
+
+  private static String describe(Path path) {
+    try {
+      BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+      return String.join(
+          ":",
+          path.toString(),
+          String.valueOf(attributes.size()),
+          String.valueOf(attributes.lastModifiedTime()));
+    } catch (IOException e) {
+      return path.toString();
+    }
+  }
 }
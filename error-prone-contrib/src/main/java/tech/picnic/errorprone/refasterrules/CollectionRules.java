@@ -3,6 +3,7 @@ package tech.picnic.errorprone.refasterrules;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 import com.google.errorprone.refaster.Refaster;
 import com.google.errorprone.refaster.annotation.AfterTemplate;
@@ -23,8 +24,6 @@ import java.util.stream.Stream;
 import tech.picnic.errorprone.refaster.annotation.OnlineDocumentation;
 
 /** Refaster rules related to expressions dealing with (arbitrary) collections. */
-// XXX: There are other Guava `Iterables` methods that should not be called if the input is known to
-// be a `Collection`. Add those here.
 @OnlineDocumentation
 final class CollectionRules {
   private CollectionRules() {}
@@ -59,7 +58,7 @@ final class CollectionRules {
   static final class CollectionSize<T> {
     @BeforeTemplate
     int before(Collection<T> collection) {
-      return Iterables.size(collection);
+      return Refaster.anyOf(Iterables.size(collection), Iterators.size(collection.iterator()));
     }
 
     @BeforeTemplate
@@ -73,6 +72,61 @@ final class CollectionRules {
     }
   }
 
+  /**
+   * Don't call {@link Iterators#contains(Iterator, Object)} on a {@link Collection}'s iterator, as
+   * that requires a linear scan.
+   *
+   * <p>Note that {@link Iterables#contains(Iterable, Object)} already delegates to {@link
+   * Collection#contains(Object)}.
+   */
+  // XXX: Unlike `Iterators#contains`, `Collection#contains` may throw a `ClassCastException` or
+  // `NullPointerException` for certain arguments. Consider restricting this rule to non-`null`
+  // arguments of the collection's element type.
+  static final class CollectionContains<T, S> {
+    @BeforeTemplate
+    boolean before(Collection<T> collection, S elem) {
+      return Iterators.contains(collection.iterator(), elem);
+    }
+
+    @AfterTemplate
+    boolean after(Collection<T> collection, S elem) {
+      return collection.contains(elem);
+    }
+  }
+
+  /**
+   * Prefer {@link List#get(int)} over iterating over the list's elements.
+   *
+   * <p>Note that {@link Iterables#get(Iterable, int)} already delegates to {@link List#get(int)}.
+   */
+  static final class ListGet<T> {
+    @BeforeTemplate
+    T before(List<T> list, int index) {
+      return Iterators.get(list.iterator(), index);
+    }
+
+    @AfterTemplate
+    T after(List<T> list, int index) {
+      return list.get(index);
+    }
+  }
+
+  /**
+   * Prefer {@link SortedSet#last()} over alternatives that (may) iterate over the set's elements in
+   * order to obtain the last one.
+   */
+  static final class SortedSetLast<T> {
+    @BeforeTemplate
+    T before(SortedSet<T> set) {
+      return Refaster.anyOf(Iterables.getLast(set), Iterators.getLast(set.iterator()));
+    }
+
+    @AfterTemplate
+    T after(SortedSet<T> set) {
+      return set.last();
+    }
+  }
+
   /**
    * Don't call {@link Iterables#addAll(Collection, Iterable)} when the elements to be added are
    * already part of a {@link Collection}.
@@ -417,7 +471,4 @@ final class CollectionRules {
       collection.forEach(consumer);
     }
   }
-
-  // XXX: collection.stream().noneMatch(e -> e.equals(other))
-  // ^ This is !collection.contains(other). Do we already rewrite variations on this?
 }
@@ -0,0 +1,138 @@
+package tech.picnic.errorprone.refasterrules;
+
+import com.google.errorprone.refaster.Refaster;
+import com.google.errorprone.refaster.annotation.AfterTemplate;
+import com.google.errorprone.refaster.annotation.AlsoNegation;
+import com.google.errorprone.refaster.annotation.BeforeTemplate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.stream.Stream;
+import tech.picnic.errorprone.refaster.annotation.OnlineDocumentation;
+import tech.picnic.errorprone.refaster.annotation.PerformanceRelated;
+
+/**
+ * Refaster rules that replace {@link Stream} round-trips and defensive copies of {@link Collection}s
+ * with direct invocations of the equivalent {@link Collection} methods.
+ *
+ * <p>Note that {@link CollectionRules} intentionally prefers {@code collection.stream().findFirst()}
+ * over index-based access of a guarded {@link java.util.List}, so no rule in the opposite direction
+ * is provided here.
+ */
+@OnlineDocumentation
+@PerformanceRelated
+final class CollectionStreamRules {
+  private CollectionStreamRules() {}
+
+  /** Prefer {@link Collection#size()} over counting the elements of a derived {@link Stream}. */
+  static final class CollectionStreamCount<T> {
+    @BeforeTemplate
+    long before(Collection<T> collection) {
+      return collection.stream().count();
+    }
+
+    @AfterTemplate
+    long after(Collection<T> collection) {
+      return (long) collection.size();
+    }
+  }
+
+  /** Prefer {@link Collection#isEmpty()} over searching a derived {@link Stream} for elements. */
+  static final class CollectionStreamIsEmpty<T> {
+    @BeforeTemplate
+    boolean before(Collection<T> collection) {
+      /*
+       * The `!Optional#isPresent()` variants are listed such that the negation of this template
+       * matches `Optional#isPresent()` invocations.
+       */
+      return Refaster.anyOf(
+          collection.stream().findAny().isEmpty(),
+          collection.stream().findFirst().isEmpty(),
+          !collection.stream().findAny().isPresent(),
+          !collection.stream().findFirst().isPresent());
+    }
+
+    @AfterTemplate
+    @AlsoNegation
+    boolean after(Collection<T> collection) {
+      return collection.isEmpty();
+    }
+  }
+
+  /**
+   * Prefer {@link Collection#contains(Object)} over matching the elements of a derived {@link
+   * Stream} against the element of interest.
+   */
+  // XXX: Also match the `e -> e.equals(elem)` variant. (The `e -> elem.equals(e)` variant is
+  // already rewritten to the form matched here by `EqualityRules.EqualsPredicate`.)
+  // XXX: This rule changes the semantics of code that operates on collections whose notion of
+  // membership is not based on `Object#equals`, such as a `TreeSet` with a custom comparator or a
+  // set created using `Collections#newSetFromMap(IdentityHashMap)`.
+  static final class CollectionStreamContains<T, S> {
+    @BeforeTemplate
+    boolean before(Collection<T> collection, S elem) {
+      return collection.stream().anyMatch(elem::equals);
+    }
+
+    @AfterTemplate
+    boolean after(Collection<T> collection, S elem) {
+      return collection.contains(elem);
+    }
+  }
+
+  /**
+   * Prefer {@link Collection#contains(Object)} over matching the elements of a derived {@link
+   * Stream} against the element of interest.
+   */
+  // XXX: Like `CollectionStreamContains`, this rule changes the semantics of code that operates on
+  // collections whose notion of membership is not based on `Object#equals`.
+  static final class CollectionStreamDoesNotContain<T, S> {
+    @BeforeTemplate
+    boolean before(Collection<T> collection, S elem) {
+      return collection.stream().noneMatch(elem::equals);
+    }
+
+    @AfterTemplate
+    boolean after(Collection<T> collection, S elem) {
+      return !collection.contains(elem);
+    }
+  }
+
+  /** Don't copy a {@link Collection} only to determine its size. */
+  static final class CollectionCopySize<T> {
+    @BeforeTemplate
+    int before(Collection<T> collection) {
+      return new ArrayList<>(collection).size();
+    }
+
+    @AfterTemplate
+    int after(Collection<T> collection) {
+      return collection.size();
+    }
+  }
+
+  /** Don't copy a {@link Collection} only to determine whether it is empty. */
+  static final class CollectionCopyIsEmpty<T> {
+    @BeforeTemplate
+    boolean before(Collection<T> collection) {
+      return new ArrayList<>(collection).isEmpty();
+    }
+
+    @AfterTemplate
+    boolean after(Collection<T> collection) {
+      return collection.isEmpty();
+    }
+  }
+
+  /** Don't copy a {@link Collection} only to stream over its elements. */
+  static final class CollectionCopyStream<T> {
+    @BeforeTemplate
+    Stream<T> before(Collection<T> collection) {
+      return new ArrayList<>(collection).stream();
+    }
+
+    @AfterTemplate
+    Stream<T> after(Collection<T> collection) {
+      return collection.stream();
+    }
+  }
+}
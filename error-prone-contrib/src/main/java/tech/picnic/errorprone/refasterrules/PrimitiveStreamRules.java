@@ -0,0 +1,274 @@
+package tech.picnic.errorprone.refasterrules;
+
+import static java.util.Comparator.naturalOrder;
+import static java.util.stream.Collectors.averagingDouble;
+import static java.util.stream.Collectors.averagingInt;
+import static java.util.stream.Collectors.averagingLong;
+import static java.util.stream.Collectors.summarizingDouble;
+import static java.util.stream.Collectors.summarizingInt;
+import static java.util.stream.Collectors.summarizingLong;
+import static java.util.stream.Collectors.summingDouble;
+import static java.util.stream.Collectors.summingInt;
+import static java.util.stream.Collectors.summingLong;
+
+import com.google.errorprone.refaster.Refaster;
+import com.google.errorprone.refaster.annotation.AfterTemplate;
+import com.google.errorprone.refaster.annotation.BeforeTemplate;
+import com.google.errorprone.refaster.annotation.Matches;
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import java.util.LongSummaryStatistics;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import tech.picnic.errorprone.refaster.annotation.OnlineDocumentation;
+import tech.picnic.errorprone.refaster.annotation.PerformanceRelated;
+import tech.picnic.errorprone.refaster.matchers.IsLambdaExpressionOrMethodReference;
+
+/**
+ * Refaster rules that replace aggregations over boxed {@link Stream} elements with equivalent
+ * aggregations over {@link IntStream}s, {@link LongStream}s and {@link DoubleStream}s, thus
+ * avoiding the allocation of intermediate boxed values.
+ */
+// XXX: Also rewrite `Optional#orElse` invocations on the result of boxed `Stream#min` and
+// `Stream#max` invocations.
+@OnlineDocumentation
+@PerformanceRelated
+final class PrimitiveStreamRules {
+  private PrimitiveStreamRules() {}
+
+  /** Prefer {@link IntStream#sum()} over the boxing {@link Collectors#summingInt} alternative. */
+  static final class StreamCollectSummingInt<T> {
+    @BeforeTemplate
+    int before(Stream<T> stream, ToIntFunction<? super T> mapper) {
+      return stream.collect(summingInt(mapper));
+    }
+
+    @AfterTemplate
+    int after(Stream<T> stream, ToIntFunction<? super T> mapper) {
+      return stream.mapToInt(mapper).sum();
+    }
+  }
+
+  /** Prefer {@link LongStream#sum()} over the boxing {@link Collectors#summingLong} alternative. */
+  static final class StreamCollectSummingLong<T> {
+    @BeforeTemplate
+    long before(Stream<T> stream, ToLongFunction<? super T> mapper) {
+      return stream.collect(summingLong(mapper));
+    }
+
+    @AfterTemplate
+    long after(Stream<T> stream, ToLongFunction<? super T> mapper) {
+      return stream.mapToLong(mapper).sum();
+    }
+  }
+
+  /**
+   * Prefer {@link DoubleStream#sum()} over the boxing {@link Collectors#summingDouble}
+   * alternative.
+   */
+  static final class StreamCollectSummingDouble<T> {
+    @BeforeTemplate
+    double before(Stream<T> stream, ToDoubleFunction<? super T> mapper) {
+      return stream.collect(summingDouble(mapper));
+    }
+
+    @AfterTemplate
+    double after(Stream<T> stream, ToDoubleFunction<? super T> mapper) {
+      return stream.mapToDouble(mapper).sum();
+    }
+  }
+
+  /**
+   * Prefer {@link IntStream#average()} over the boxing {@link Collectors#averagingInt}
+   * alternative.
+   */
+  static final class StreamCollectAveragingInt<T> {
+    @BeforeTemplate
+    double before(Stream<T> stream, ToIntFunction<? super T> mapper) {
+      return stream.collect(averagingInt(mapper));
+    }
+
+    @AfterTemplate
+    double after(Stream<T> stream, ToIntFunction<? super T> mapper) {
+      return stream.mapToInt(mapper).average().orElse(0);
+    }
+  }
+
+  /**
+   * Prefer {@link LongStream#average()} over the boxing {@link Collectors#averagingLong}
+   * alternative.
+   */
+  static final class StreamCollectAveragingLong<T> {
+    @BeforeTemplate
+    double before(Stream<T> stream, ToLongFunction<? super T> mapper) {
+      return stream.collect(averagingLong(mapper));
+    }
+
+    @AfterTemplate
+    double after(Stream<T> stream, ToLongFunction<? super T> mapper) {
+      return stream.mapToLong(mapper).average().orElse(0);
+    }
+  }
+
+  /**
+   * Prefer {@link DoubleStream#average()} over the boxing {@link Collectors#averagingDouble}
+   * alternative.
+   */
+  static final class StreamCollectAveragingDouble<T> {
+    @BeforeTemplate
+    double before(Stream<T> stream, ToDoubleFunction<? super T> mapper) {
+      return stream.collect(averagingDouble(mapper));
+    }
+
+    @AfterTemplate
+    double after(Stream<T> stream, ToDoubleFunction<? super T> mapper) {
+      return stream.mapToDouble(mapper).average().orElse(0);
+    }
+  }
+
+  /**
+   * Prefer {@link IntStream#summaryStatistics()} over the {@link Collectors#summarizingInt}
+   * alternative.
+   */
+  static final class StreamCollectSummarizingInt<T> {
+    @BeforeTemplate
+    IntSummaryStatistics before(Stream<T> stream, ToIntFunction<? super T> mapper) {
+      return stream.collect(summarizingInt(mapper));
+    }
+
+    @AfterTemplate
+    IntSummaryStatistics after(Stream<T> stream, ToIntFunction<? super T> mapper) {
+      return stream.mapToInt(mapper).summaryStatistics();
+    }
+  }
+
+  /**
+   * Prefer {@link LongStream#summaryStatistics()} over the {@link Collectors#summarizingLong}
+   * alternative.
+   */
+  static final class StreamCollectSummarizingLong<T> {
+    @BeforeTemplate
+    LongSummaryStatistics before(Stream<T> stream, ToLongFunction<? super T> mapper) {
+      return stream.collect(summarizingLong(mapper));
+    }
+
+    @AfterTemplate
+    LongSummaryStatistics after(Stream<T> stream, ToLongFunction<? super T> mapper) {
+      return stream.mapToLong(mapper).summaryStatistics();
+    }
+  }
+
+  /**
+   * Prefer {@link DoubleStream#summaryStatistics()} over the {@link Collectors#summarizingDouble}
+   * alternative.
+   */
+  static final class StreamCollectSummarizingDouble<T> {
+    @BeforeTemplate
+    DoubleSummaryStatistics before(Stream<T> stream, ToDoubleFunction<? super T> mapper) {
+      return stream.collect(summarizingDouble(mapper));
+    }
+
+    @AfterTemplate
+    DoubleSummaryStatistics after(Stream<T> stream, ToDoubleFunction<? super T> mapper) {
+      return stream.mapToDouble(mapper).summaryStatistics();
+    }
+  }
+
+  /** Prefer {@link IntStream#max()} over computing the maximum of boxed values. */
+  static final class StreamMapToIntMax<T> {
+    @BeforeTemplate
+    int before(
+        Stream<T> stream,
+        @Matches(IsLambdaExpressionOrMethodReference.class) Function<? super T, Integer> mapper) {
+      return Refaster.anyOf(
+          stream.map(mapper).max(naturalOrder()).orElseThrow(),
+          stream.map(mapper).max(naturalOrder()).get());
+    }
+
+    @AfterTemplate
+    int after(Stream<T> stream, ToIntFunction<T> mapper) {
+      return stream.mapToInt(mapper).max().orElseThrow();
+    }
+  }
+
+  /** Prefer {@link IntStream#min()} over computing the minimum of boxed values. */
+  static final class StreamMapToIntMin<T> {
+    @BeforeTemplate
+    int before(
+        Stream<T> stream,
+        @Matches(IsLambdaExpressionOrMethodReference.class) Function<? super T, Integer> mapper) {
+      return Refaster.anyOf(
+          stream.map(mapper).min(naturalOrder()).orElseThrow(),
+          stream.map(mapper).min(naturalOrder()).get());
+    }
+
+    @AfterTemplate
+    int after(Stream<T> stream, ToIntFunction<T> mapper) {
+      return stream.mapToInt(mapper).min().orElseThrow();
+    }
+  }
+
+  /** Prefer {@link LongStream#max()} over computing the maximum of boxed values. */
+  static final class StreamMapToLongMax<T> {
+    @BeforeTemplate
+    long before(
+        Stream<T> stream,
+        @Matches(IsLambdaExpressionOrMethodReference.class) Function<? super T, Long> mapper) {
+      return Refaster.anyOf(
+          stream.map(mapper).max(naturalOrder()).orElseThrow(),
+          stream.map(mapper).max(naturalOrder()).get());
+    }
+
+    @AfterTemplate
+    long after(Stream<T> stream, ToLongFunction<T> mapper) {
+      return stream.mapToLong(mapper).max().orElseThrow();
+    }
+  }
+
+  /** Prefer {@link LongStream#min()} over computing the minimum of boxed values. */
+  static final class StreamMapToLongMin<T> {
+    @BeforeTemplate
+    long before(
+        Stream<T> stream,
+        @Matches(IsLambdaExpressionOrMethodReference.class) Function<? super T, Long> mapper) {
+      return Refaster.anyOf(
+          stream.map(mapper).min(naturalOrder()).orElseThrow(),
+          stream.map(mapper).min(naturalOrder()).get());
+    }
+
+    @AfterTemplate
+    long after(Stream<T> stream, ToLongFunction<T> mapper) {
+      return stream.mapToLong(mapper).min().orElseThrow();
+    }
+  }
+
+  /**
+   * Prefer {@link DoubleStream#max()} over computing the maximum of boxed values.
+   *
+   * <p>Note that no such rule is provided for {@link DoubleStream#min()}, as that method yields
+   * {@link Double#NaN} if any of the stream's elements is {@code NaN}, while {@link
+   * Double#compareTo(Double)} considers {@code NaN} to be greater than all other values.
+   */
+  static final class StreamMapToDoubleMax<T> {
+    @BeforeTemplate
+    double before(
+        Stream<T> stream,
+        @Matches(IsLambdaExpressionOrMethodReference.class) Function<? super T, Double> mapper) {
+      return Refaster.anyOf(
+          stream.map(mapper).max(naturalOrder()).orElseThrow(),
+          stream.map(mapper).max(naturalOrder()).get());
+    }
+
+    @AfterTemplate
+    double after(Stream<T> stream, ToDoubleFunction<T> mapper) {
+      return stream.mapToDouble(mapper).max().orElseThrow();
+    }
+  }
+}
@@ -403,6 +403,29 @@ final class ReactorRules {
     }
   }
 
+  /**
+   * Don't collect all elements emitted by a {@link Flux} into a list, only to emit them one by one
+   * again.
+   */
+  // XXX: This rule changes the semantics of code that relies on elements being emitted only once
+  // the source completes successfully; the original expression emits no elements at all if the
+  // source errors.
+  static final class FluxIdentity<T> {
+    @BeforeTemplate
+    Flux<T> before(Flux<T> flux) {
+      return Refaster.anyOf(
+          flux.collectList().flatMapMany(Flux::fromIterable),
+          flux.collectList().flatMapMany(list -> Flux.fromIterable(list)),
+          flux.collectList().flatMapIterable(identity()),
+          flux.collectList().flatMapIterable(list -> list));
+    }
+
+    @AfterTemplate
+    Flux<T> after(Flux<T> flux) {
+      return flux;
+    }
+  }
+
   /** Prefer {@link Flux#concatMap(Function)} over more contrived alternatives. */
   static final class FluxConcatMap<T, S> {
     @BeforeTemplate
@@ -828,7 +851,8 @@ final class ReactorRules {
                       ImmutableCollection::size,
                       ImmutableList::size)),
           flux.collect(toCollection(ArrayList::new))
-              .map(Refaster.anyOf(Collection::size, List::size)));
+              .map(Refaster.anyOf(Collection::size, List::size)),
+          flux.collectList().map(Refaster.anyOf(Collection::size, List::size)));
     }
 
     @AfterTemplate
@@ -837,6 +861,57 @@ final class ReactorRules {
     }
   }
 
+  /**
+   * Prefer {@link Flux#hasElements()} over collecting all elements into a list and testing whether
+   * it is non-empty.
+   */
+  static final class FluxHasElements<T> {
+    @BeforeTemplate
+    Mono<Boolean> before(Flux<T> flux) {
+      return flux.collectList().map(list -> !list.isEmpty());
+    }
+
+    @AfterTemplate
+    Mono<Boolean> after(Flux<T> flux) {
+      return flux.hasElements();
+    }
+  }
+
+  /**
+   * Prefer {@link Flux#hasElements()} over collecting all elements into a list and testing whether
+   * it is empty.
+   */
+  static final class FluxHasNoElements<T> {
+    @BeforeTemplate
+    Mono<Boolean> before(Flux<T> flux) {
+      return flux.collectList()
+          .map(Refaster.anyOf(Collection::isEmpty, List::isEmpty, list -> list.isEmpty()));
+    }
+
+    @AfterTemplate
+    Mono<Boolean> after(Flux<T> flux) {
+      return flux.hasElements().map(hasElements -> !hasElements);
+    }
+  }
+
+  /**
+   * Prefer {@link Mono#just(Object)} over copying an {@link ImmutableList} by emitting and
+   * collecting its elements.
+   */
+  // XXX: This rule changes the semantics of code that modifies the collected list: unlike the
+  // original expression, the replacement does not emit a mutable copy.
+  static final class MonoJustImmutableList<T> {
+    @BeforeTemplate
+    Mono<List<T>> before(ImmutableList<T> list) {
+      return Flux.fromIterable(list).collectList();
+    }
+
+    @AfterTemplate
+    Mono<List<T>> after(ImmutableList<T> list) {
+      return Mono.just(list);
+    }
+  }
+
   /**
    * Prefer {@link Mono#doOnError(Class, Consumer)} over {@link Mono#doOnError(Predicate, Consumer)}
    * where possible.
@@ -0,0 +1,83 @@
+package tech.picnic.errorprone.refasterrules;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.google.errorprone.refaster.ImportPolicy.STATIC_IMPORT_ALWAYS;
+import static java.util.Comparator.naturalOrder;
+
+import com.google.errorprone.refaster.Refaster;
+import com.google.errorprone.refaster.annotation.AfterTemplate;
+import com.google.errorprone.refaster.annotation.BeforeTemplate;
+import com.google.errorprone.refaster.annotation.UseImportPolicy;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import tech.picnic.errorprone.refaster.annotation.OnlineDocumentation;
+import tech.picnic.errorprone.refaster.annotation.PerformanceRelated;
+
+/**
+ * Refaster rules that replace {@link Stream} terminal operations which traverse (or even sort) the
+ * entire stream with short-circuiting alternatives.
+ *
+ * <p>Note that {@link StreamRules} already replaces {@code sorted().findFirst()} constructs, as
+ * well as {@code filter(predicate).count()} comparisons (by way of {@link Stream#anyMatch} and
+ * {@link Stream#noneMatch}).
+ */
+@OnlineDocumentation
+@PerformanceRelated
+final class StreamTerminalOperationRules {
+  private StreamTerminalOperationRules() {}
+
+  /**
+   * In order to test whether a stream has any element, simply try to find one, rather than
+   * collecting all of them.
+   */
+  // XXX: This rule is deliberately limited to collectors that reject `null` elements: unlike e.g.
+  // `Collectors#toList()`, `Stream#findAny()` throws an NPE if the element found is `null`.
+  static final class StreamCollectIsEmpty<T> {
+    @BeforeTemplate
+    boolean before(Stream<T> stream) {
+      return Refaster.anyOf(
+          stream.collect(toImmutableList()).isEmpty(), stream.collect(toImmutableSet()).isEmpty());
+    }
+
+    @AfterTemplate
+    boolean after(Stream<T> stream) {
+      return stream.findAny().isEmpty();
+    }
+  }
+
+  /**
+   * Prefer {@link Stream#min(Comparator)} over sorting the entire stream in order to obtain its
+   * smallest element.
+   */
+  // XXX: This rule changes the semantics of code that sorts a stream containing `null` elements
+  // using a `null`-tolerant comparator: `Stream#min` throws an NPE if the minimum is `null`.
+  static final class StreamSortedLimitOne<T> {
+    @BeforeTemplate
+    Stream<T> before(Stream<T> stream, Comparator<? super T> comparator) {
+      return stream.sorted(comparator).limit(1);
+    }
+
+    @AfterTemplate
+    Stream<T> after(Stream<T> stream, Comparator<? super T> comparator) {
+      return stream.min(comparator).stream();
+    }
+  }
+
+  /**
+   * Prefer {@link Stream#min(Comparator)} over sorting the entire stream in order to obtain its
+   * smallest element.
+   */
+  static final class StreamSortedLimitOneNaturalOrder<T extends Comparable<? super T>> {
+    @BeforeTemplate
+    Stream<T> before(Stream<T> stream) {
+      return stream.sorted().limit(1);
+    }
+
+    @AfterTemplate
+    @UseImportPolicy(STATIC_IMPORT_ALWAYS)
+    Stream<T> after(Stream<T> stream) {
+      return stream.min(naturalOrder()).stream();
+    }
+  }
+}
@@ -0,0 +1,122 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.CompilationTestHelper;
+import org.junit.jupiter.api.Test;
+
+final class BlockingCallInReactorOperatorTest {
+  @Test
+  void identification() {
+    CompilationTestHelper.newInstance(BlockingCallInReactorOperator.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import java.nio.file.Files;",
+            "import java.nio.file.Path;",
+            "import java.sql.Statement;",
+            "import java.util.List;",
+            "import java.util.concurrent.CompletableFuture;",
+            "import java.util.concurrent.Future;",
+            "import reactor.core.publisher.Flux;",
+            "import reactor.core.publisher.Mono;",
+            "import reactor.core.scheduler.Schedulers;",
+            "",
+            "class A {",
+            "  void m(",
+            "      Flux<String> flux,",
+            "      Mono<String> mono,",
+            "      Future<String> future,",
+            "      CompletableFuture<String> completableFuture,",
+            "      Statement statement,",
+            "      Path path,",
+            "      List<String> list)",
+            "      throws Exception {",
+            "    mono.block();",
+            "    Thread.sleep(1);",
+            "    future.get();",
+            "    list.stream().map(s -> mono.block());",
+            "    Mono.fromCallable(() -> Files.readAllBytes(path));",
+            "    Mono.fromSupplier(() -> completableFuture.join());",
+            "    flux.map(String::length);",
+            "    flux.flatMap(",
+            "        s -> Mono.fromCallable(() -> future.get()).subscribeOn(Schedulers.boundedElastic()));",
+            "",
+            "    // BUG: Diagnostic contains: Avoid blocking calls inside Reactor operators such as `map`",
+            "    flux.map(s -> mono.block());",
+            "    // BUG: Diagnostic contains:",
+            "    flux.flatMap(s -> Mono.just(flux.blockFirst()));",
+            "    // BUG: Diagnostic contains: Avoid blocking calls inside Reactor operators such as `flatMap`",
+            "    flux.flatMap(s -> Mono.fromCallable(() -> future.get()));",
+            "    // BUG: Diagnostic contains:",
+            "    flux.flatMap(s -> Mono.defer(() -> Mono.just(mono.block())));",
+            "    // BUG: Diagnostic contains:",
+            "    flux.flatMap(s -> Mono.fromCallable(() -> future.get()).publishOn(Schedulers.boundedElastic()));",
+            "    // BUG: Diagnostic contains:",
+            "    flux.filter(s -> completableFuture.join().isEmpty());",
+            "    flux.doOnNext(",
+            "        s -> {",
+            "          try {",
+            "            // BUG: Diagnostic contains:",
+            "            Thread.sleep(1);",
+            "            // BUG: Diagnostic contains:",
+            "            future.get();",
+            "            // BUG: Diagnostic contains:",
+            "            statement.executeUpdate(s);",
+            "            // BUG: Diagnostic contains:",
+            "            Files.readString(path);",
+            "          } catch (Exception e) {",
+            "            throw new IllegalStateException(e);",
+            "          }",
+            "        });",
+            "    // BUG: Diagnostic contains:",
+            "    mono.map(s -> list.stream().map(e -> flux.blockLast()));",
+            "    // BUG: Diagnostic contains:",
+            "    flux.map(s -> mono).map(Mono::block);",
+            "    // BUG: Diagnostic contains:",
+            "    flux.subscribe(s -> mono.block());",
+            "    // BUG: Diagnostic contains:",
+            "    flux.publishOn(Schedulers.parallel()).map(s -> mono.block());",
+            "    // BUG: Diagnostic contains:",
+            "    flux.map(s -> mono.block()).publishOn(Schedulers.boundedElastic());",
+            "",
+            "    flux.publishOn(Schedulers.boundedElastic()).map(s -> mono.block());",
+            "    flux.subscribeOn(Schedulers.boundedElastic()).filter(s -> s.equals(mono.block()));",
+            "    flux.map(s -> mono.block()).subscribeOn(Schedulers.boundedElastic());",
+            "    flux.publishOn(Schedulers.newBoundedElastic(1, 1, \"foo\"))",
+            "        .map(s -> mono.block())",
+            "        .filter(s -> s.isEmpty());",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void identificationOfExtraBlockingMethods() {
+    CompilationTestHelper.newInstance(BlockingCallInReactorOperator.class, getClass())
+        .setArgs(
+            ImmutableList.of(
+                "-XepOpt:BlockingCallInReactorOperator:ExtraBlockingMethods=A#load(java.lang.String)"))
+        .addSourceLines(
+            "A.java",
+            "import reactor.core.publisher.Flux;",
+            "",
+            "class A {",
+            "  void m(Flux<String> flux) {",
+            "    flux.map(s -> load(1));",
+            "",
+            "    // BUG: Diagnostic contains:",
+            "    flux.map(s -> load(s));",
+            "    // BUG: Diagnostic contains:",
+            "    flux.map(A::load);",
+            "  }",
+            "",
+            "  static String load(String key) {",
+            "    return key;",
+            "  }",
+            "",
+            "  static String load(int key) {",
+            "    return String.valueOf(key);",
+            "  }",
+            "}")
+        .doTest();
+  }
+}
@@ -0,0 +1,178 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.bugpatterns.BugChecker;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.ServiceLoader;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Verifies that the {@link BugChecker}s in this package are thread-safe, by compiling the same set
+ * of sources many times concurrently within a single JVM and comparing the emitted diagnostics
+ * against those of a sequential compilation.
+ */
+final class ConcurrentCompilationTest {
+  private static final int THREAD_COUNT = 8;
+  private static final int COMPILATION_COUNT = 4 * THREAD_COUNT;
+  private static final int CLASS_COUNT = 10;
+
+  @Test
+  void concurrentCompilations(@TempDir Path tempDir) throws ExecutionException, IOException {
+    ImmutableList<Class<? extends BugChecker>> bugCheckers = getBugCheckers();
+    assertThat(bugCheckers).isNotEmpty();
+
+    ImmutableList<Path> sources = writeSources(tempDir.resolve("src"));
+    ImmutableList<String> options = getOptions(bugCheckers);
+    ImmutableList<String> expected = compile(sources, options, tempDir.resolve("baseline"));
+    assertThat(expected).isNotEmpty();
+
+    ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+    try {
+      List<Future<ImmutableList<String>>> results = new ArrayList<>();
+      for (int i = 0; i < COMPILATION_COUNT; i++) {
+        Path outputDirectory = tempDir.resolve("out-" + i);
+        results.add(executor.submit(() -> compile(sources, options, outputDirectory)));
+      }
+
+      for (Future<ImmutableList<String>> result : results) {
+        assertThat(result.get()).containsExactlyElementsOf(expected);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while awaiting compilation", e);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static ImmutableList<Class<? extends BugChecker>> getBugCheckers() {
+    return ServiceLoader.load(BugChecker.class).stream()
+        .map(ServiceLoader.Provider::type)
+        .filter(
+            type -> type.getPackageName().equals(ConcurrentCompilationTest.class.getPackageName()))
+        .collect(toImmutableList());
+  }
+
+  /**
+   * Returns the compiler options that enable all given {@link BugChecker}s, and no others.
+   *
+   * @implNote All checks are enabled at warning level, so that they do not prevent each other from
+   *     reporting their findings.
+   */
+  private static ImmutableList<String> getOptions(
+      ImmutableList<Class<? extends BugChecker>> bugCheckers) {
+    StringBuilder pluginOption = new StringBuilder("-Xplugin:ErrorProne -XepDisableAllChecks");
+    for (Class<? extends BugChecker> bugChecker : bugCheckers) {
+      pluginOption.append(" -Xep:").append(bugChecker.getSimpleName()).append(":WARN");
+    }
+
+    String classPath = System.getProperty("java.class.path");
+    return ImmutableList.of(
+        "-classpath",
+        classPath,
+        "-processorpath",
+        classPath,
+        "-proc:none",
+        "-XDcompilePolicy=simple",
+        pluginOption.toString());
+  }
+
+  private static ImmutableList<Path> writeSources(Path directory) throws IOException {
+    Files.createDirectories(directory);
+    ImmutableList.Builder<Path> sources = ImmutableList.builder();
+    for (int i = 0; i < CLASS_COUNT; i++) {
+      String className = "A" + i;
+      sources.add(
+          Files.writeString(
+              directory.resolve(className + ".java"),
+              String.join(
+                  "\n",
+                  "import static java.util.stream.Collectors.toList;",
+                  "",
+                  "import com.google.common.collect.ImmutableList;",
+                  "import java.util.List;",
+                  "import java.util.Objects;",
+                  "import java.util.Optional;",
+                  "import java.util.stream.Stream;",
+                  "import reactor.core.publisher.Flux;",
+                  "",
+                  "class " + className + " {",
+                  "  private static final String FOO = \"foo\";",
+                  "",
+                  "  void m(List<String> list, Optional<Optional<String>> nested) {",
+                  "    String s = \"\" + String.valueOf(list);",
+                  "    String t = String.format(\"%s \" + s, list);",
+                  "    List<String> copy = Stream.of(s, t).collect(toList());",
+                  "    ImmutableList<String> immutableCopy = ImmutableList.copyOf(copy);",
+                  "    Objects.requireNonNull(immutableCopy);",
+                  "    Flux.just(1, 2).flatMap(i -> Flux.range(0, i));",
+                  "    if (list.size() == 0) {",
+                  "      return;",
+                  "    }",
+                  "  }",
+                  "",
+                  "  void emptyMethod() {}",
+                  "}",
+                  "")));
+    }
+    return sources.build();
+  }
+
+  private static ImmutableList<String> compile(
+      ImmutableList<Path> sources, ImmutableList<String> options, Path outputDirectory)
+      throws IOException {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    try (StandardJavaFileManager fileManager =
+        compiler.getStandardFileManager(diagnostics, Locale.ROOT, UTF_8)) {
+      compiler
+          .getTask(
+              null,
+              fileManager,
+              diagnostics,
+              ImmutableList.<String>builder()
+                  .addAll(options)
+                  .add("-d", Files.createDirectories(outputDirectory).toString())
+                  .build(),
+              null,
+              fileManager.getJavaFileObjectsFromFiles(
+                  sources.stream().map(Path::toFile).collect(toImmutableList())))
+          .call();
+    }
+
+    return diagnostics.getDiagnostics().stream()
+        .map(ConcurrentCompilationTest::describe)
+        .sorted()
+        .collect(toImmutableList());
+  }
+
+  private static String describe(Diagnostic<? extends JavaFileObject> diagnostic) {
+    JavaFileObject source = diagnostic.getSource();
+    return String.join(
+        ":",
+        source == null ? "<unknown>" : Path.of(source.toUri()).getFileName().toString(),
+        String.valueOf(diagnostic.getLineNumber()),
+        String.valueOf(diagnostic.getColumnNumber()),
+        diagnostic.getMessage(Locale.ROOT));
+  }
+}
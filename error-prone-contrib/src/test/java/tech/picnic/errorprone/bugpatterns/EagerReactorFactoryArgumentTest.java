@@ -0,0 +1,203 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import com.google.errorprone.CompilationTestHelper;
+import org.junit.jupiter.api.Test;
+
+final class EagerReactorFactoryArgumentTest {
+  @Test
+  void identification() {
+    CompilationTestHelper.newInstance(EagerReactorFactoryArgument.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import java.util.List;",
+            "import java.util.Optional;",
+            "import java.util.concurrent.CompletableFuture;",
+            "import reactor.core.publisher.Flux;",
+            "import reactor.core.publisher.Mono;",
+            "",
+            "class A {",
+            "  private static final String CONSTANT = \"foo\";",
+            "",
+            "  void m(Mono<String> mono, Flux<String> flux, List<String> list, String str) {",
+            "    Mono.just(1);",
+            "    Mono.just(CONSTANT);",
+            "    Mono.just(str);",
+            "    Mono.just(List.of());",
+            "    Mono.just(String.valueOf(1));",
+            "    Mono.justOrEmpty(Optional.empty());",
+            "    Mono.empty();",
+            "    Mono.fromCallable(() -> load());",
+            "    Mono.fromSupplier(() -> load());",
+            "    Flux.fromIterable(list);",
+            "    Flux.fromStream(() -> list.stream());",
+            "    Mono.fromFuture(() -> future());",
+            "    flux.flatMap(s -> Mono.just(load()));",
+            "    flux.flatMap(s -> Mono.just(load()).map(String::length));",
+            "    flux.concatMap(",
+            "        s -> {",
+            "          return Flux.fromIterable(loadAll());",
+            "        });",
+            "",
+            "    // BUG: Diagnostic contains:",
+            "    Mono.just(load());",
+            "    // BUG: Diagnostic contains:",
+            "    Mono.just(new Object());",
+            "    // BUG: Diagnostic contains:",
+            "    mono.switchIfEmpty(Mono.just(load()));",
+            "    // BUG: Diagnostic contains:",
+            "    mono.or(Mono.justOrEmpty(find()));",
+            "    // BUG: Diagnostic contains:",
+            "    Flux.fromIterable(loadAll());",
+            "    // BUG: Diagnostic contains:",
+            "    Flux.fromStream(list.stream());",
+            "    // BUG: Diagnostic contains:",
+            "    Mono.fromFuture(future());",
+            "    // BUG: Diagnostic contains:",
+            "    Mono.fromCompletionStage(future());",
+            "  }",
+            "",
+            "  String load() {",
+            "    return \"foo\";",
+            "  }",
+            "",
+            "  List<String> loadAll() {",
+            "    return List.of();",
+            "  }",
+            "",
+            "  Optional<String> find() {",
+            "    return Optional.empty();",
+            "  }",
+            "",
+            "  CompletableFuture<String> future() {",
+            "    return CompletableFuture.completedFuture(\"foo\");",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void replacement() {
+    BugCheckerRefactoringTestHelper.newInstance(EagerReactorFactoryArgument.class, getClass())
+        .addInputLines(
+            "A.java",
+            "import java.io.IOException;",
+            "import java.util.List;",
+            "import java.util.Optional;",
+            "import java.util.concurrent.CompletableFuture;",
+            "import reactor.core.publisher.Flux;",
+            "import reactor.core.publisher.Mono;",
+            "",
+            "class A {",
+            "  void m(Mono<String> mono, List<String> list, int i) {",
+            "    mono.switchIfEmpty(Mono.just(load(i)));",
+            "    mono.switchIfEmpty(Mono.justOrEmpty(load(i)));",
+            "    mono.switchIfEmpty(Mono.justOrEmpty(find()));",
+            "    Flux.fromIterable(loadAll());",
+            "    Flux.fromStream(list.stream());",
+            "    Mono.fromFuture(future());",
+            "    Mono.fromCompletionStage(future());",
+            "",
+            "    int j = i;",
+            "    j++;",
+            "    Mono.just(load(j));",
+            "  }",
+            "",
+            "  void n(Mono<String> mono, int i) throws IOException {",
+            "    mono.switchIfEmpty(Mono.just(loadChecked(i)));",
+            "    mono.switchIfEmpty(Mono.justOrEmpty(load(loadChecked(i).length())));",
+            "    mono.switchIfEmpty(Mono.justOrEmpty(findChecked()));",
+            "    Flux.fromIterable(loadAllChecked());",
+            "  }",
+            "",
+            "  String load(int i) {",
+            "    return \"foo\";",
+            "  }",
+            "",
+            "  String loadChecked(int i) throws IOException {",
+            "    return \"foo\";",
+            "  }",
+            "",
+            "  List<String> loadAll() {",
+            "    return List.of();",
+            "  }",
+            "",
+            "  List<String> loadAllChecked() throws IOException {",
+            "    return List.of();",
+            "  }",
+            "",
+            "  Optional<String> find() {",
+            "    return Optional.empty();",
+            "  }",
+            "",
+            "  Optional<String> findChecked() throws IOException {",
+            "    return Optional.empty();",
+            "  }",
+            "",
+            "  CompletableFuture<String> future() {",
+            "    return CompletableFuture.completedFuture(\"foo\");",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import java.io.IOException;",
+            "import java.util.List;",
+            "import java.util.Optional;",
+            "import java.util.concurrent.CompletableFuture;",
+            "import reactor.core.publisher.Flux;",
+            "import reactor.core.publisher.Mono;",
+            "",
+            "class A {",
+            "  void m(Mono<String> mono, List<String> list, int i) {",
+            "    mono.switchIfEmpty(Mono.fromSupplier(() -> load(i)));",
+            "    mono.switchIfEmpty(Mono.fromSupplier(() -> load(i)));",
+            "    mono.switchIfEmpty(Mono.defer(() -> Mono.justOrEmpty(find())));",
+            "    Flux.defer(() -> Flux.fromIterable(loadAll()));",
+            "    Flux.fromStream(() -> list.stream());",
+            "    Mono.fromFuture(() -> future());",
+            "    Mono.fromCompletionStage(() -> future());",
+            "",
+            "    int j = i;",
+            "    j++;",
+            "    Mono.just(load(j));",
+            "  }",
+            "",
+            "  void n(Mono<String> mono, int i) throws IOException {",
+            "    mono.switchIfEmpty(Mono.fromCallable(() -> loadChecked(i)));",
+            "    mono.switchIfEmpty(Mono.fromCallable(() -> load(loadChecked(i).length())));",
+            "    mono.switchIfEmpty(Mono.justOrEmpty(findChecked()));",
+            "    Flux.fromIterable(loadAllChecked());",
+            "  }",
+            "",
+            "  String load(int i) {",
+            "    return \"foo\";",
+            "  }",
+            "",
+            "  String loadChecked(int i) throws IOException {",
+            "    return \"foo\";",
+            "  }",
+            "",
+            "  List<String> loadAll() {",
+            "    return List.of();",
+            "  }",
+            "",
+            "  List<String> loadAllChecked() throws IOException {",
+            "    return List.of();",
+            "  }",
+            "",
+            "  Optional<String> find() {",
+            "    return Optional.empty();",
+            "  }",
+            "",
+            "  Optional<String> findChecked() throws IOException {",
+            "    return Optional.empty();",
+            "  }",
+            "",
+            "  CompletableFuture<String> future() {",
+            "    return CompletableFuture.completedFuture(\"foo\");",
+            "  }",
+            "}")
+        .doTest(TestMode.TEXT_MATCH);
+  }
+}
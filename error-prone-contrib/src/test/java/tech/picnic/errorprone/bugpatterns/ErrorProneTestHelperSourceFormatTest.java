@@ -1,9 +1,19 @@
 package tech.picnic.errorprone.bugpatterns;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.hash.Hashing;
 import com.google.errorprone.BugCheckerRefactoringTestHelper;
 import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
 import com.google.errorprone.CompilationTestHelper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 final class ErrorProneTestHelperSourceFormatTest {
   @Test
@@ -51,6 +61,84 @@ final class ErrorProneTestHelperSourceFormatTest {
         .doTest();
   }
 
+  @Test
+  void identificationWithCacheFile(@TempDir Path tempDir) throws IOException {
+    Path cacheFile = tempDir.resolve("cache");
+
+    /*
+     * The second compilation is served from the cache; it should yield the same result as the
+     * first.
+     */
+    for (int i = 0; i < 2; i++) {
+      CompilationTestHelper.newInstance(ErrorProneTestHelperSourceFormat.class, getClass())
+          .setArgs("-XepOpt:ErrorProneTestHelperSourceFormat:CacheFile=" + cacheFile)
+          .addSourceLines(
+              "A.java",
+              "import com.google.errorprone.CompilationTestHelper;",
+              "import tech.picnic.errorprone.bugpatterns.EmptyMethod;",
+              "",
+              "class A {",
+              "  private final CompilationTestHelper compilationTestHelper =",
+              "      CompilationTestHelper.newInstance(EmptyMethod.class, getClass());",
+              "",
+              "  void m() {",
+              "    compilationTestHelper",
+              "        .addSourceLines(\"A.java\", \"class A {}\")",
+              "        .addSourceLines(\"B.java\", \"class B {}\")",
+              "        // BUG: Diagnostic contains: Test code should follow the Google Java style",
+              "        .addSourceLines(\"C.java\", \"class C { }\")",
+              "        .doTest();",
+              "  }",
+              "}")
+          .doTest();
+    }
+
+    /* Only the properly formatted sources are persisted. */
+    assertThat(Files.readAllLines(cacheFile, UTF_8)).hasSize(2).doesNotHaveDuplicates();
+  }
+
+  @Test
+  void identificationWithMalformedAndExcessCacheFileEntries(@TempDir Path tempDir)
+      throws IOException {
+    Path cacheFile = tempDir.resolve("cache");
+    List<String> entries = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      entries.add(Hashing.sha256().hashInt(i).toString());
+    }
+    entries.add("not-a-hash");
+    /* A truncated entry, as may be left behind by an interrupted write. */
+    entries.add(entries.get(0).substring(0, 10));
+    Files.write(cacheFile, entries, UTF_8);
+
+    CompilationTestHelper.newInstance(ErrorProneTestHelperSourceFormat.class, getClass())
+        .setArgs("-XepOpt:ErrorProneTestHelperSourceFormat:CacheFile=" + cacheFile)
+        .addSourceLines(
+            "A.java",
+            "import com.google.errorprone.CompilationTestHelper;",
+            "import tech.picnic.errorprone.bugpatterns.EmptyMethod;",
+            "",
+            "class A {",
+            "  private final CompilationTestHelper compilationTestHelper =",
+            "      CompilationTestHelper.newInstance(EmptyMethod.class, getClass());",
+            "",
+            "  void m() {",
+            "    compilationTestHelper",
+            "        .addSourceLines(\"A.java\", \"class A {}\")",
+            "        // BUG: Diagnostic contains: Test code should follow the Google Java style",
+            "        .addSourceLines(\"B.java\", \"class B { }\")",
+            "        .doTest();",
+            "  }",
+            "}")
+        .doTest();
+
+    /* Malformed and excess entries are dropped; the newly formatted source is persisted. */
+    assertThat(Files.readAllLines(cacheFile, UTF_8))
+        .hasSizeLessThanOrEqualTo(4097)
+        .doesNotHaveDuplicates()
+        .allMatch(line -> line.matches("[0-9a-f]{64}"))
+        .contains(entries.get(4999));
+  }
+
   @Test
   void replacement() {
     /*
@@ -0,0 +1,230 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import com.google.errorprone.CompilationTestHelper;
+import org.junit.jupiter.api.Test;
+
+final class PatternCompilationInHotPathTest {
+  @Test
+  void identification() {
+    CompilationTestHelper.newInstance(PatternCompilationInHotPath.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import java.util.List;",
+            "import java.util.function.Function;",
+            "import java.util.regex.Pattern;",
+            "",
+            "class A {",
+            "  private static final String REGEX = \"[a-z]+\";",
+            "  private static final Pattern PATTERN = Pattern.compile(\"[0-9]+\");",
+            "  private static final Pattern OTHER_PATTERN;",
+            "",
+            "  static {",
+            "    OTHER_PATTERN = Pattern.compile(REGEX);",
+            "  }",
+            "",
+            "  private static final Function<String, String[]> SPLITTER =",
+            "      // BUG: Diagnostic contains:",
+            "      s -> s.split(\"\\\\s+\");",
+            "",
+            "  void m(String s, String regex, List<String> list) {",
+            "    Pattern.compile(regex);",
+            "    s.matches(regex);",
+            "    s.replaceAll(regex, \"\");",
+            "    s.replaceFirst(regex, \"\");",
+            "    s.split(regex);",
+            "    s.split(\",\");",
+            "    s.split(\"\\\\.\");",
+            "    s.split(\",\", 2);",
+            "    s.replace(\".\", \"\");",
+            "",
+            "    // BUG: Diagnostic contains:",
+            "    Pattern.compile(\"[0-9]+\");",
+            "    // BUG: Diagnostic contains:",
+            "    Pattern.compile(REGEX, Pattern.CASE_INSENSITIVE);",
+            "    // BUG: Diagnostic contains:",
+            "    s.matches(REGEX);",
+            "    // BUG: Diagnostic contains:",
+            "    s.replaceAll(\"a|b\", \"\");",
+            "    // BUG: Diagnostic contains:",
+            "    s.replaceFirst(\"a\" + REGEX, \"\");",
+            "    // BUG: Diagnostic contains:",
+            "    s.split(\".\");",
+            "    // BUG: Diagnostic contains:",
+            "    s.split(\", \");",
+            "    // BUG: Diagnostic contains:",
+            "    s.split(\"\\\\d\", 2);",
+            "",
+            "    for (String e : list) {",
+            "      // BUG: Diagnostic contains:",
+            "      e.matches(REGEX);",
+            "    }",
+            "",
+            "    // BUG: Diagnostic contains:",
+            "    list.stream().filter(e -> e.matches(REGEX));",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void replacement() {
+    BugCheckerRefactoringTestHelper.newInstance(PatternCompilationInHotPath.class, getClass())
+        .addInputLines(
+            "A.java",
+            "import java.util.function.Predicate;",
+            "import java.util.regex.Pattern;",
+            "",
+            "class A {",
+            "  static final class B {",
+            "    Pattern caseInsensitiveWords() {",
+            "      return Pattern.compile(\"[a-z]+\", Pattern.CASE_INSENSITIVE);",
+            "    }",
+            "  }",
+            "",
+            "  static final class C {",
+            "    private static final String SEPARATOR = \"[,;]\";",
+            "",
+            "    String[] splitFields(String s) {",
+            "      return s.split(SEPARATOR, 3);",
+            "    }",
+            "  }",
+            "",
+            "  static final class D {",
+            "    boolean isNumeric(String s) {",
+            "      final String regex = \"\\\\d+\";",
+            "      return s.matches(regex);",
+            "    }",
+            "  }",
+            "",
+            "  static final class E {",
+            "    private static final Pattern WHITESPACE = Pattern.compile(\"\\\\s+\");",
+            "",
+            "    String normalize(String s) {",
+            "      return s.replaceAll(\"\\\\s+\", \" \");",
+            "    }",
+            "",
+            "    String strip(String s) {",
+            "      return s.replaceFirst(LATE, \"\");",
+            "    }",
+            "",
+            "    private static final String LATE = \"^ \";",
+            "  }",
+            "",
+            "  static final class F {",
+            "    private static final Predicate<String> IS_NUMERIC = s -> s.matches(\"\\\\d+\");",
+            "  }",
+            "",
+            "  static final class G {",
+            "    private static final String NORMALIZE_PATTERN = \"\";",
+            "",
+            "    G(String s) {",
+            "      s.matches(\"[a-z]+\");",
+            "    }",
+            "",
+            "    G(String s, String t) {",
+            "      s.matches(\"[0-9]+\");",
+            "    }",
+            "",
+            "    String normalize(String s) {",
+            "      String result = s.replaceAll(\"\\\\s+\", \" \");",
+            "      return result.replaceFirst(\"^ \", \"\");",
+            "    }",
+            "  }",
+            "",
+            "  static final class H {",
+            "    private static final Predicate<String> IS_WORD = s -> s.matches(\"[a-z]+\");",
+            "    private static final Pattern WORD = Pattern.compile(\"[a-z]+\");",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import java.util.function.Predicate;",
+            "import java.util.regex.Pattern;",
+            "",
+            "class A {",
+            "  static final class B {",
+            "    private static final Pattern CASE_INSENSITIVE_WORDS_PATTERN = Pattern.compile(\"[a-z]+\", Pattern.CASE_INSENSITIVE);",
+            "",
+            "    Pattern caseInsensitiveWords() {",
+            "      return CASE_INSENSITIVE_WORDS_PATTERN;",
+            "    }",
+            "  }",
+            "",
+            "  static final class C {",
+            "    private static final String SEPARATOR = \"[,;]\";",
+            "",
+            "    private static final Pattern SPLIT_FIELDS_PATTERN = Pattern.compile(SEPARATOR);",
+            "",
+            "    String[] splitFields(String s) {",
+            "      return SPLIT_FIELDS_PATTERN.split(s, 3);",
+            "    }",
+            "  }",
+            "",
+            "  static final class D {",
+            "    private static final Pattern IS_NUMERIC_PATTERN = Pattern.compile(\"\\\\d+\");",
+            "",
+            "    boolean isNumeric(String s) {",
+            "      final String regex = \"\\\\d+\";",
+            "      return IS_NUMERIC_PATTERN.matcher(s).matches();",
+            "    }",
+            "  }",
+            "",
+            "  static final class E {",
+            "    private static final Pattern WHITESPACE = Pattern.compile(\"\\\\s+\");",
+            "",
+            "    private static final Pattern STRIP_PATTERN = Pattern.compile(\"^ \");",
+            "",
+            "    String normalize(String s) {",
+            "      return WHITESPACE.matcher(s).replaceAll(\" \");",
+            "    }",
+            "",
+            "    String strip(String s) {",
+            "      return STRIP_PATTERN.matcher(s).replaceFirst(\"\");",
+            "    }",
+            "",
+            "    private static final String LATE = \"^ \";",
+            "  }",
+            "",
+            "  static final class F {",
+            "    private static final Pattern PATTERN = Pattern.compile(\"\\\\d+\");",
+            "",
+            "    private static final Predicate<String> IS_NUMERIC = s -> PATTERN.matcher(s).matches();",
+            "  }",
+            "",
+            "  static final class G {",
+            "    private static final String NORMALIZE_PATTERN = \"\";",
+            "",
+            "    private static final Pattern PATTERN = Pattern.compile(\"[a-z]+\");",
+            "",
+            "    private static final Pattern PATTERN_2 = Pattern.compile(\"[0-9]+\");",
+            "",
+            "    private static final Pattern NORMALIZE_PATTERN_2 = Pattern.compile(\"\\\\s+\");",
+            "",
+            "    private static final Pattern NORMALIZE_PATTERN_3 = Pattern.compile(\"^ \");",
+            "",
+            "    G(String s) {",
+            "      PATTERN.matcher(s).matches();",
+            "    }",
+            "",
+            "    G(String s, String t) {",
+            "      PATTERN_2.matcher(s).matches();",
+            "    }",
+            "",
+            "    String normalize(String s) {",
+            "      String result = NORMALIZE_PATTERN_2.matcher(s).replaceAll(\" \");",
+            "      return NORMALIZE_PATTERN_3.matcher(result).replaceFirst(\"\");",
+            "    }",
+            "  }",
+            "",
+            "  static final class H {",
+            "    private static final Pattern PATTERN = Pattern.compile(\"[a-z]+\");",
+            "",
+            "    private static final Predicate<String> IS_WORD = s -> PATTERN.matcher(s).matches();",
+            "    private static final Pattern WORD = Pattern.compile(\"[a-z]+\");",
+            "  }",
+            "}")
+        .doTest(TestMode.TEXT_MATCH);
+  }
+}
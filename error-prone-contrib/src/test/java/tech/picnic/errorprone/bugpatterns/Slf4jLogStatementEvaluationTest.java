@@ -0,0 +1,155 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import com.google.errorprone.CompilationTestHelper;
+import org.junit.jupiter.api.Test;
+
+final class Slf4jLogStatementEvaluationTest {
+  @Test
+  void identification() {
+    CompilationTestHelper.newInstance(Slf4jLogStatementEvaluation.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import java.util.List;",
+            "import org.slf4j.Logger;",
+            "import org.slf4j.LoggerFactory;",
+            "import org.slf4j.Marker;",
+            "import org.slf4j.MarkerFactory;",
+            "",
+            "class A {",
+            "  private static final Logger LOG = LoggerFactory.getLogger(A.class);",
+            "  private static final String NAME = \"foo\";",
+            "",
+            "  private final Marker marker = MarkerFactory.getMarker(A.class.getName());",
+            "  private final Throwable t = new Throwable();",
+            "",
+            "  void m(String s, int i, List<String> list) {",
+            "    LOG.trace(\"{}\", s);",
+            "    LOG.debug(\"{} {}\", s, i);",
+            "    LOG.debug(marker, \"{} {}\", s, i);",
+            "    LOG.debug(\"{}\", s, t);",
+            "    LOG.debug(\"Name: \" + NAME);",
+            "    LOG.trace(\"{}\", list.size());",
+            "    LOG.debug(\"{}\", s.length() + i);",
+            "    LOG.info(\"{}\", list.toString());",
+            "    LOG.warn(\"{} {} {}\", s, i, list);",
+            "    LOG.error(String.format(\"%s\", s));",
+            "",
+            "    // BUG: Diagnostic contains: Log statement arguments are evaluated even if the log level is",
+            "    // disabled",
+            "    LOG.trace(\"{}\", list.stream().count());",
+            "    // BUG: Diagnostic contains:",
+            "    LOG.debug(String.format(\"%s\", s));",
+            "    // BUG: Diagnostic contains:",
+            "    LOG.debug(\"Value: \" + s);",
+            "    // BUG: Diagnostic contains:",
+            "    LOG.debug(\"{}\", (list.toString()));",
+            "    // BUG: Diagnostic contains:",
+            "    LOG.trace(marker, \"{}\", new Object());",
+            "    // BUG: Diagnostic contains:",
+            "    LOG.debug(\"{}\", String.valueOf(list.toString()));",
+            "    // BUG: Diagnostic contains: Log statements with more than two format arguments allocate an",
+            "    // array",
+            "    LOG.debug(\"{} {} {}\", s, i, list);",
+            "    // BUG: Diagnostic contains:",
+            "    LOG.trace(marker, \"{} {} {}\", s, i, t);",
+            "",
+            "    if (LOG.isDebugEnabled()) {",
+            "      LOG.debug(\"{}\", list.toString());",
+            "      for (String e : list) {",
+            "        LOG.debug(\"{} {} {}\", e, s, i);",
+            "      }",
+            "    }",
+            "",
+            "    if (i > 0 && (LOG.isTraceEnabled(marker) && !list.isEmpty())) {",
+            "      LOG.trace(\"{}\", list.toString());",
+            "    }",
+            "",
+            "    if (LOG.isDebugEnabled()) {",
+            "      list.forEach(",
+            "          e -> {",
+            "            // BUG: Diagnostic contains:",
+            "            LOG.debug(\"{}\", e.toString());",
+            "          });",
+            "    } else {",
+            "      // BUG: Diagnostic contains:",
+            "      LOG.debug(\"{}\", list.toString());",
+            "    }",
+            "",
+            "    if (!LOG.isDebugEnabled()) {",
+            "      // BUG: Diagnostic contains:",
+            "      LOG.debug(\"{}\", list.toString());",
+            "    }",
+            "",
+            "    if (LOG.isInfoEnabled()) {",
+            "      // BUG: Diagnostic contains:",
+            "      LOG.debug(\"{}\", list.toString());",
+            "    }",
+            "",
+            "    if (LOG.isDebugEnabled()) {",
+            "      // BUG: Diagnostic contains:",
+            "      LOG.trace(\"{}\", list.toString());",
+            "    }",
+            "",
+            "    if (LOG.isDebugEnabled() || i > 0) {",
+            "      // BUG: Diagnostic contains:",
+            "      LOG.debug(\"{}\", list.toString());",
+            "    }",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void replacement() {
+    BugCheckerRefactoringTestHelper.newInstance(Slf4jLogStatementEvaluation.class, getClass())
+        .addInputLines(
+            "A.java",
+            "import java.util.List;",
+            "import org.slf4j.Logger;",
+            "import org.slf4j.LoggerFactory;",
+            "import org.slf4j.Marker;",
+            "",
+            "class A {",
+            "  private static final Logger LOG = LoggerFactory.getLogger(A.class);",
+            "",
+            "  void m(String s, int i, List<String> list, Marker marker) {",
+            "    LOG.debug(\"{}\", list.toString());",
+            "    for (String e : list) {",
+            "      LOG.trace(marker, \"{} {} {}\", e, s, i);",
+            "    }",
+            "  }",
+            "",
+            "  boolean n(List<String> list) {",
+            "    return list.stream().peek(e -> LOG.debug(\"{}\", e.toString())).findAny().isPresent();",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import java.util.List;",
+            "import org.slf4j.Logger;",
+            "import org.slf4j.LoggerFactory;",
+            "import org.slf4j.Marker;",
+            "",
+            "class A {",
+            "  private static final Logger LOG = LoggerFactory.getLogger(A.class);",
+            "",
+            "  void m(String s, int i, List<String> list, Marker marker) {",
+            "    if (LOG.isDebugEnabled()) {",
+            "      LOG.debug(\"{}\", list.toString());",
+            "    }",
+            "    for (String e : list) {",
+            "      if (LOG.isTraceEnabled(marker)) {",
+            "        LOG.trace(marker, \"{} {} {}\", e, s, i);",
+            "      }",
+            "    }",
+            "  }",
+            "",
+            "  boolean n(List<String> list) {",
+            "    return list.stream().peek(e -> LOG.debug(\"{}\", e.toString())).findAny().isPresent();",
+            "  }",
+            "}")
+        .doTest(TestMode.TEXT_MATCH);
+  }
+}
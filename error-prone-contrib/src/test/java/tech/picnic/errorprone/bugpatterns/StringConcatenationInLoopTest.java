@@ -0,0 +1,184 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import com.google.errorprone.CompilationTestHelper;
+import org.junit.jupiter.api.Test;
+
+final class StringConcatenationInLoopTest {
+  @Test
+  void identification() {
+    CompilationTestHelper.newInstance(StringConcatenationInLoop.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import java.util.List;",
+            "import java.util.Map;",
+            "",
+            "class A {",
+            "  private String field = \"\";",
+            "",
+            "  void m(List<String> list, Map<String, String> map, String param) {",
+            "    String s = \"\";",
+            "    s += \"foo\";",
+            "    s = s + \"bar\";",
+            "",
+            "    int count = 0;",
+            "    for (String e : list) {",
+            "      count += e.length();",
+            "      count = count + 1;",
+            "      String local = \"\";",
+            "      local += e;",
+            "      local = local + e;",
+            "      s = e + s;",
+            "      s = e + \",\";",
+            "",
+            "      // BUG: Diagnostic contains:",
+            "      s += e;",
+            "      // BUG: Diagnostic contains:",
+            "      s = s + e + \",\";",
+            "      // BUG: Diagnostic contains:",
+            "      param += e;",
+            "      // BUG: Diagnostic contains:",
+            "      field += e;",
+            "      // BUG: Diagnostic contains:",
+            "      this.field = this.field + e;",
+            "    }",
+            "",
+            "    int i = 0;",
+            "    while (i++ < 10) {",
+            "      // BUG: Diagnostic contains:",
+            "      s += i;",
+            "    }",
+            "",
+            "    list.forEach(",
+            "        e -> {",
+            "          // BUG: Diagnostic contains:",
+            "          field += e;",
+            "        });",
+            "    // BUG: Diagnostic contains:",
+            "    map.forEach((k, v) -> field += k);",
+            "    // BUG: Diagnostic contains:",
+            "    list.stream().forEach(e -> field = field + e);",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void replacement() {
+    BugCheckerRefactoringTestHelper.newInstance(StringConcatenationInLoop.class, getClass())
+        .addInputLines(
+            "A.java",
+            "import java.util.List;",
+            "",
+            "class A {",
+            "  private static final String PREFIX = \"prefix\";",
+            "",
+            "  String m(List<String> list) {",
+            "    String s = \"\";",
+            "    for (String e : list) {",
+            "      s += e;",
+            "    }",
+            "    return s;",
+            "  }",
+            "",
+            "  String n(List<String> list) {",
+            "    String s = PREFIX;",
+            "    for (int i = 0; i < list.size(); i++) {",
+            "      s = s + list.get(i) + \",\";",
+            "    }",
+            "    return s.trim();",
+            "  }",
+            "",
+            "  String o(List<String> list) {",
+            "    String s = \"\";",
+            "    for (String e : list) {",
+            "      s += e;",
+            "      s += \",\";",
+            "    }",
+            "    return s;",
+            "  }",
+            "",
+            "  String p(List<String> list, char[] prefix) {",
+            "    String s = new String(prefix);",
+            "    for (String e : list) {",
+            "      s += e;",
+            "    }",
+            "    return s;",
+            "  }",
+            "",
+            "  String q(List<String> list, String prefix) {",
+            "    String s = prefix;",
+            "    for (String e : list) {",
+            "      s += e;",
+            "    }",
+            "    return s;",
+            "  }",
+            "",
+            "  boolean r(List<String> list) {",
+            "    String s = \"\";",
+            "    for (String e : list) {",
+            "      s += e;",
+            "    }",
+            "    return s != null;",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import java.util.List;",
+            "",
+            "class A {",
+            "  private static final String PREFIX = \"prefix\";",
+            "",
+            "  String m(List<String> list) {",
+            "    StringBuilder s = new StringBuilder();",
+            "    for (String e : list) {",
+            "      s.append(e);",
+            "    }",
+            "    return s.toString();",
+            "  }",
+            "",
+            "  String n(List<String> list) {",
+            "    StringBuilder s = new StringBuilder(PREFIX);",
+            "    for (int i = 0; i < list.size(); i++) {",
+            "      s.append(list.get(i)).append(\",\");",
+            "    }",
+            "    return s.toString().trim();",
+            "  }",
+            "",
+            "  String o(List<String> list) {",
+            "    String s = \"\";",
+            "    for (String e : list) {",
+            "      s += e;",
+            "      s += \",\";",
+            "    }",
+            "    return s;",
+            "  }",
+            "",
+            "  String p(List<String> list, char[] prefix) {",
+            "    StringBuilder s = new StringBuilder(new String(prefix));",
+            "    for (String e : list) {",
+            "      s.append(e);",
+            "    }",
+            "    return s.toString();",
+            "  }",
+            "",
+            "  String q(List<String> list, String prefix) {",
+            "    String s = prefix;",
+            "    for (String e : list) {",
+            "      s += e;",
+            "    }",
+            "    return s;",
+            "  }",
+            "",
+            "  boolean r(List<String> list) {",
+            "    String s = \"\";",
+            "    for (String e : list) {",
+            "      s += e;",
+            "    }",
+            "    return s != null;",
+            "  }",
+            "}")
+        .doTest(TestMode.TEXT_MATCH);
+  }
+}
@@ -0,0 +1,104 @@
+package tech.picnic.errorprone.bugpatterns.util;
+
+import static com.google.errorprone.BugPattern.SeverityLevel.ERROR;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.CompilationTestHelper;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.ClassTreeMatcher;
+import com.google.errorprone.matchers.Description;
+import com.sun.source.tree.ClassTree;
+import org.junit.jupiter.api.Test;
+
+final class CompilationUnitFactsTest {
+  @Test
+  void isStaticallyImported() {
+    CompilationTestHelper.newInstance(StaticImportTestChecker.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import static java.util.Objects.requireNonNull;",
+            "import static java.util.stream.Collectors.*;",
+            "",
+            "import java.util.List;",
+            "",
+            "// BUG: Diagnostic contains: {requireNonNull=true, List=false, *=true, foo=false}",
+            "class A {",
+            "  void foo() {}",
+            "}")
+        .addSourceLines(
+            "B.java",
+            "// BUG: Diagnostic contains: {requireNonNull=false, List=false, *=false, foo=false}",
+            "class B {}")
+        .doTest();
+  }
+
+  @Test
+  void containsIdentifier() {
+    CompilationTestHelper.newInstance(IdentifierTestChecker.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import java.util.List;",
+            "",
+            "// BUG: Diagnostic contains: {A=true, List=true, foo=true, bar=true, baz=false}",
+            "class A {",
+            "  void foo(List<String> bar) {}",
+            "}")
+        .doTest();
+  }
+
+  private static String createDiagnosticsMessage(
+      ImmutableSet<String> names, VisitorState state, boolean testStaticImports) {
+    CompilationUnitFacts facts = CompilationUnitFacts.get(state);
+    return Maps.toMap(
+            names,
+            name ->
+                testStaticImports
+                    ? facts.isStaticallyImported(name)
+                    : facts.containsIdentifier(name))
+        .toString();
+  }
+
+  /**
+   * A {@link BugChecker} that delegates to {@link
+   * CompilationUnitFacts#isStaticallyImported(CharSequence)}.
+   */
+  @BugPattern(
+      summary = "Interacts with `CompilationUnitFacts` for testing purposes",
+      severity = ERROR)
+  public static final class StaticImportTestChecker extends BugChecker
+      implements ClassTreeMatcher {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Description matchClass(ClassTree tree, VisitorState state) {
+      return buildDescription(tree)
+          .setMessage(
+              createDiagnosticsMessage(
+                  ImmutableSet.of("requireNonNull", "List", "*", "foo"), state, true))
+          .build();
+    }
+  }
+
+  /**
+   * A {@link BugChecker} that delegates to {@link
+   * CompilationUnitFacts#containsIdentifier(CharSequence)}.
+   */
+  @BugPattern(
+      summary = "Interacts with `CompilationUnitFacts` for testing purposes",
+      severity = ERROR)
+  public static final class IdentifierTestChecker extends BugChecker implements ClassTreeMatcher {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Description matchClass(ClassTree tree, VisitorState state) {
+      return buildDescription(tree)
+          .setMessage(
+              createDiagnosticsMessage(
+                  ImmutableSet.of("A", "List", "foo", "bar", "baz"), state, false))
+          .build();
+    }
+  }
+}
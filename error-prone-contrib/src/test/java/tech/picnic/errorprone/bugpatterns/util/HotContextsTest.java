@@ -0,0 +1,147 @@
+package tech.picnic.errorprone.bugpatterns.util;
+
+import static com.google.errorprone.BugPattern.SeverityLevel.ERROR;
+
+import com.google.common.collect.Iterables;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.CompilationTestHelper;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.MethodInvocationTree;
+import org.junit.jupiter.api.Test;
+
+final class HotContextsTest {
+  @Test
+  void hotContexts() {
+    CompilationTestHelper.newInstance(TestChecker.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import java.math.BigDecimal;",
+            "import java.util.ArrayList;",
+            "import java.util.Iterator;",
+            "import java.util.List;",
+            "import java.util.Optional;",
+            "import java.util.Queue;",
+            "import java.util.Random;",
+            "import java.util.regex.Pattern;",
+            "import java.util.stream.Stream;",
+            "import reactor.core.publisher.Flux;",
+            "import reactor.core.publisher.Mono;",
+            "",
+            "class A {",
+            "  private static final String CONSTANT = \"foo\";",
+            "",
+            "  private String field = \"bar\";",
+            "",
+            "  void m(",
+            "      List<String> list, String param, Iterator<String> it, Random random, Queue<String> queue) {",
+            "    String local = param;",
+            "    // BUG: Diagnostic contains: Optional.empty: true",
+            "    flag(local);",
+            "",
+            "    // BUG: Diagnostic contains: Optional.empty: true",
+            "    for (int i = flag(CONSTANT).length(); i < list.size(); i++) {",
+            "      // BUG: Diagnostic contains: Optional[LOOP]: true",
+            "      flag(CONSTANT + local + param.length());",
+            "      // BUG: Diagnostic contains: Optional[LOOP]: false",
+            "      flag(field);",
+            "      // BUG: Diagnostic contains: Optional[LOOP]: false",
+            "      flag(list.get(i));",
+            "      String inner = list.get(0);",
+            "      // BUG: Diagnostic contains: Optional[LOOP]: false",
+            "      flag(inner);",
+            "      // BUG: Diagnostic contains: Optional[LOOP]: true",
+            "      flag(Pattern.compile(CONSTANT + local));",
+            "      // BUG: Diagnostic contains: Optional[LOOP]: true",
+            "      flag(String.valueOf(param.isEmpty()));",
+            "      // BUG: Diagnostic contains: Optional[LOOP]: true",
+            "      flag(new BigDecimal(CONSTANT));",
+            "      // BUG: Diagnostic contains: Optional[LOOP]: false",
+            "      flag(it.next());",
+            "      // BUG: Diagnostic contains: Optional[LOOP]: false",
+            "      flag(random.nextInt());",
+            "      // BUG: Diagnostic contains: Optional[LOOP]: false",
+            "      flag(queue.poll());",
+            "      // BUG: Diagnostic contains: Optional[LOOP]: false",
+            "      flag(list.size());",
+            "      // BUG: Diagnostic contains: Optional[LOOP]: false",
+            "      flag(new ArrayList<>(list));",
+            "      // BUG: Diagnostic contains: Optional[LOOP]: false",
+            "      flag(String.valueOf(list.size()));",
+            "      list.add(local);",
+            "    }",
+            "",
+            "    // BUG: Diagnostic contains: Optional.empty: true",
+            "    for (String s : flag(list)) {",
+            "      // BUG: Diagnostic contains: Optional[LOOP]: false",
+            "      flag(s);",
+            "    }",
+            "",
+            "    while (list.isEmpty()) {",
+            "      // BUG: Diagnostic contains: Optional[LOOP]: true",
+            "      flag(local);",
+            "    }",
+            "",
+            "    // BUG: Diagnostic contains: Optional[STREAM_LAMBDA]: false",
+            "    list.stream().map(s -> flag(s));",
+            "    // BUG: Diagnostic contains: Optional[STREAM_LAMBDA]: true",
+            "    Stream.of(1).map(n -> flag(local));",
+            "    // BUG: Diagnostic contains: Optional[REACTOR_LAMBDA]: true",
+            "    Flux.just(1).map(n -> flag(CONSTANT));",
+            "    // BUG: Diagnostic contains: Optional.empty: true",
+            "    Mono.fromCallable(() -> flag(local));",
+            "    // BUG: Diagnostic contains: Optional.empty: true",
+            "    Flux.defer(() -> flag(Flux.just(local)));",
+            "    // BUG: Diagnostic contains: Optional[FOR_EACH_LAMBDA]: false",
+            "    list.forEach(s -> flag(s));",
+            "    // BUG: Diagnostic contains: Optional.empty: true",
+            "    Optional.of(1).map(n -> flag(local));",
+            "",
+            "    do {",
+            "      Runnable r =",
+            "          new Runnable() {",
+            "            @Override",
+            "            public void run() {",
+            "              // BUG: Diagnostic contains: Optional.empty: true",
+            "              flag(local);",
+            "            }",
+            "          };",
+            "    } while (list.isEmpty());",
+            "  }",
+            "",
+            "  private static <T> T flag(T value) {",
+            "    return value;",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  /**
+   * A {@link BugChecker} that flags invocations of methods named {@code flag}, with a message that
+   * describes the enclosing hot context, if any, and whether its argument is loop invariant.
+   */
+  @BugPattern(summary = "Interacts with `HotContexts` for testing purposes", severity = ERROR)
+  public static final class TestChecker extends BugChecker implements MethodInvocationTreeMatcher {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+      if (!ASTHelpers.getSymbol(tree).getSimpleName().contentEquals("flag")) {
+        return Description.NO_MATCH;
+      }
+
+      return buildDescription(tree)
+          .setMessage(
+              String.join(
+                  ": ",
+                  String.valueOf(HotContexts.getHotContextKind(state)),
+                  String.valueOf(
+                      HotContexts.isLoopInvariant(
+                          Iterables.getOnlyElement(tree.getArguments()), state))))
+          .build();
+    }
+  }
+}
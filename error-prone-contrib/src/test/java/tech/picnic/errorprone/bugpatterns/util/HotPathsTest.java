@@ -0,0 +1,157 @@
+package tech.picnic.errorprone.bugpatterns.util;
+
+import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
+import static com.google.errorprone.BugPattern.SeverityLevel.WARNING;
+
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.CompilationTestHelper;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.MethodInvocationTree;
+import org.junit.jupiter.api.Test;
+
+final class HotPathsTest {
+  @Test
+  void getSeverityAndEscalateSeverity() {
+    CompilationTestHelper.newInstance(TestChecker.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import static com.google.errorprone.BugPattern.SeverityLevel.ERROR;",
+            "import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;",
+            "",
+            "import tech.picnic.errorprone.refaster.annotation.HotPath;",
+            "",
+            "class A {",
+            "  void m() {",
+            "    // BUG: Diagnostic contains: Optional.empty: WARNING",
+            "    flag();",
+            "  }",
+            "",
+            "  @HotPath",
+            "  A() {",
+            "    // BUG: Diagnostic contains: Optional[WARNING]: WARNING",
+            "    flag();",
+            "  }",
+            "",
+            "  @HotPath(SUGGESTION)",
+            "  void suggestion() {",
+            "    // BUG: Diagnostic contains: Optional[SUGGESTION]: WARNING",
+            "    flag();",
+            "  }",
+            "",
+            "  @HotPath(ERROR)",
+            "  static final class B {",
+            "    void m() {",
+            "      // BUG: Diagnostic contains: Optional[ERROR]: ERROR",
+            "      Runnable r = () -> flag();",
+            "    }",
+            "",
+            "    @HotPath",
+            "    void hot() {",
+            "      // BUG: Diagnostic contains: Optional[WARNING]: WARNING",
+            "      flag();",
+            "    }",
+            "  }",
+            "",
+            "  private static void flag() {}",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void escalateSeverityInHotContext() {
+    CompilationTestHelper.newInstance(HotContextTestChecker.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import static com.google.errorprone.BugPattern.SeverityLevel.ERROR;",
+            "import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;",
+            "",
+            "import java.util.List;",
+            "import tech.picnic.errorprone.refaster.annotation.HotPath;",
+            "",
+            "class A {",
+            "  void m(List<String> list) {",
+            "    // BUG: Diagnostic contains: SUGGESTION",
+            "    flag();",
+            "    for (String s : list) {",
+            "      // BUG: Diagnostic contains: WARNING",
+            "      flag();",
+            "    }",
+            "    // BUG: Diagnostic contains: WARNING",
+            "    list.stream().forEach(s -> flag());",
+            "  }",
+            "",
+            "  @HotPath(SUGGESTION)",
+            "  void suggestion(List<String> list) {",
+            "    // BUG: Diagnostic contains: SUGGESTION",
+            "    flag();",
+            "    while (list.isEmpty()) {",
+            "      // BUG: Diagnostic contains: WARNING",
+            "      flag();",
+            "    }",
+            "  }",
+            "",
+            "  @HotPath(ERROR)",
+            "  void error(List<String> list) {",
+            "    // BUG: Diagnostic contains: ERROR",
+            "    flag();",
+            "    for (String s : list) {",
+            "      // BUG: Diagnostic contains: ERROR",
+            "      flag();",
+            "    }",
+            "  }",
+            "",
+            "  private static void flag() {}",
+            "}")
+        .doTest();
+  }
+
+  /**
+   * A {@link BugChecker} that flags invocations of methods named {@code flag}, with a message that
+   * describes the applicable {@code HotPath} severity, if any, and the resultant severity of the
+   * reported finding.
+   */
+  @BugPattern(summary = "Interacts with `HotPaths` for testing purposes", severity = WARNING)
+  public static final class TestChecker extends BugChecker implements MethodInvocationTreeMatcher {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+      if (!ASTHelpers.getSymbol(tree).getSimpleName().contentEquals("flag")) {
+        return Description.NO_MATCH;
+      }
+
+      Description escalated =
+          HotPaths.escalateSeverity(buildDescription(tree), this, state).build();
+      return buildDescription(tree)
+          .setMessage(
+              String.join(
+                  ": ", String.valueOf(HotPaths.getSeverity(state)), escalated.severity.name()))
+          .build();
+    }
+  }
+
+  /**
+   * A {@link BugChecker} that flags invocations of methods named {@code flag}, with a message that
+   * describes the severity of the reported finding after escalation in hot contexts.
+   */
+  @BugPattern(summary = "Interacts with `HotPaths` for testing purposes", severity = SUGGESTION)
+  public static final class HotContextTestChecker extends BugChecker
+      implements MethodInvocationTreeMatcher {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+      if (!ASTHelpers.getSymbol(tree).getSimpleName().contentEquals("flag")) {
+        return Description.NO_MATCH;
+      }
+
+      Description escalated =
+          HotPaths.escalateSeverityInHotContext(buildDescription(tree), this, state).build();
+      return buildDescription(tree).setMessage(escalated.severity.name()).build();
+    }
+  }
+}
@@ -2,6 +2,8 @@ package tech.picnic.errorprone.bugpatterns.util;
 
 import static com.google.errorprone.BugPattern.SeverityLevel.ERROR;
 import static tech.picnic.errorprone.bugpatterns.util.MoreTypes.generic;
+import static tech.picnic.errorprone.bugpatterns.util.MoreTypes.isSameType;
+import static tech.picnic.errorprone.bugpatterns.util.MoreTypes.isSubtype;
 import static tech.picnic.errorprone.bugpatterns.util.MoreTypes.raw;
 import static tech.picnic.errorprone.bugpatterns.util.MoreTypes.subOf;
 import static tech.picnic.errorprone.bugpatterns.util.MoreTypes.superOf;
@@ -118,6 +120,33 @@ final class MoreTypesTest {
         .doTest();
   }
 
+  @Test
+  void isSameTypeMatcher() {
+    CompilationTestHelper.newInstance(SameTypeFlagger.class, getClass())
+        .addSourceLines(
+            "/A.java",
+            "import java.util.List;",
+            "",
+            "class A {",
+            "  void m() {",
+            "    Object object = factory();",
+            "    List rawList = factory();",
+            "    // BUG: Diagnostic contains: [List<?>]",
+            "    List<?> listOfUnbound = factory();",
+            "    // BUG: Diagnostic contains: [List<String>]",
+            "    List<String> listOfString = factory();",
+            "    List<? extends String> listOfSubtypeOfString = factory();",
+            "    // BUG: Diagnostic contains: [List<String>]",
+            "    List<String> otherListOfString = factory();",
+            "  }",
+            "",
+            "  private <T> T factory() {",
+            "    return null;",
+            "  }",
+            "}")
+        .doTest();
+  }
+
   /**
    * A {@link BugChecker} that flags method invocations that are a subtype of any type defined by
    * {@link #getTestTypes()}.
@@ -134,9 +163,8 @@ final class MoreTypesTest {
       List<String> matches = new ArrayList<>();
 
       for (Supplier<Type> type : getTestTypes()) {
-        Type testType = type.get(state);
-        if (testType != null && state.getTypes().isSubtype(treeType, testType)) {
-          matches.add(Signatures.prettyType(testType));
+        if (isSubtype(treeType, type, state)) {
+          matches.add(Signatures.prettyType(type.get(state)));
         }
       }
 
@@ -192,4 +220,38 @@ final class MoreTypesTest {
               subOf(generic(type("java.util.Collection"), superOf(type("java.lang.Short"))))));
     }
   }
+
+  /**
+   * A {@link BugChecker} that flags method invocations with a return type that is the same as any
+   * type defined by {@link #getTestTypes()}.
+   */
+  @BugPattern(summary = "Flags invocations of methods with select return types", severity = ERROR)
+  public static final class SameTypeFlagger extends BugChecker
+      implements MethodInvocationTreeMatcher {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+      Type treeType = ASTHelpers.getType(tree);
+
+      List<String> matches = new ArrayList<>();
+
+      for (Supplier<Type> type : getTestTypes()) {
+        if (isSameType(treeType, type, state)) {
+          matches.add(Signatures.prettyType(type.get(state)));
+        }
+      }
+
+      return matches.isEmpty()
+          ? Description.NO_MATCH
+          : buildDescription(tree).setMessage(matches.toString()).build();
+    }
+
+    private static ImmutableSet<Supplier<Type>> getTestTypes() {
+      return ImmutableSet.of(
+          type("java.lang.Nonexistent"),
+          generic(type("java.util.List"), unbound()),
+          generic(type("java.util.List"), type("java.lang.String")));
+    }
+  }
 }
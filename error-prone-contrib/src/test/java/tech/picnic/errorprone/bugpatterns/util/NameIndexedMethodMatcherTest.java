@@ -0,0 +1,90 @@
+package tech.picnic.errorprone.bugpatterns.util;
+
+import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
+import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.CompilationTestHelper;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MemberReferenceTreeMatcher;
+import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.MemberReferenceTree;
+import com.sun.source.tree.MethodInvocationTree;
+import org.junit.jupiter.api.Test;
+
+final class NameIndexedMethodMatcherTest {
+  /** A {@link BugChecker} that flags method references matched by {@link #TEST_MATCHER}. */
+  @BugPattern(severity = SUGGESTION, summary = "Flags methods matched by the test matcher.")
+  public static final class MatchedMethodsFlagger extends BugChecker
+      implements MemberReferenceTreeMatcher, MethodInvocationTreeMatcher {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Description matchMemberReference(MemberReferenceTree tree, VisitorState state) {
+      return TEST_MATCHER.matches(tree, state) ? describeMatch(tree) : Description.NO_MATCH;
+    }
+
+    @Override
+    public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+      return TEST_MATCHER.matches(tree, state) ? describeMatch(tree) : Description.NO_MATCH;
+    }
+  }
+
+  private static final Matcher<ExpressionTree> TEST_MATCHER =
+      NameIndexedMethodMatcher.<ExpressionTree>builder()
+          .add(
+              ImmutableSet.of("isEmpty", "length"),
+              instanceMethod().onDescendantOf(String.class.getName()))
+          .add(
+              "valueOf",
+              staticMethod()
+                  .onClass(String.class.getName())
+                  .withAnyName()
+                  .withParameters(Object.class.getName()))
+          .add("valueOf", staticMethod().onClass(Integer.class.getName()))
+          .build();
+
+  @Test
+  void matcher() {
+    CompilationTestHelper.newInstance(MatchedMethodsFlagger.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import java.util.function.Function;",
+            "import java.util.function.Predicate;",
+            "",
+            "class A {",
+            "  void m() {",
+            "    // BUG: Diagnostic contains:",
+            "    \"foo\".isEmpty();",
+            "    \"foo\".isBlank();",
+            "    // BUG: Diagnostic contains:",
+            "    \"foo\".length();",
+            "    \"foo\".trim();",
+            "",
+            "    // BUG: Diagnostic contains:",
+            "    String.valueOf((Object) \"foo\");",
+            "    String.valueOf(1);",
+            "",
+            "    // BUG: Diagnostic contains:",
+            "    Integer.valueOf(1);",
+            "    // BUG: Diagnostic contains:",
+            "    Integer.valueOf(\"1\");",
+            "    Integer.parseInt(\"1\");",
+            "    Long.valueOf(1);",
+            "",
+            "    // BUG: Diagnostic contains:",
+            "    Predicate<String> isEmpty = String::isEmpty;",
+            "    Predicate<String> isBlank = String::isBlank;",
+            "    // BUG: Diagnostic contains:",
+            "    Function<String, Integer> valueOf = Integer::valueOf;",
+            "  }",
+            "}")
+        .doTest();
+  }
+}
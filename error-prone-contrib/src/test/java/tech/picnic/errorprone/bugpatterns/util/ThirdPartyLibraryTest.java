@@ -11,8 +11,11 @@ import com.google.errorprone.bugpatterns.BugChecker;
 import com.google.errorprone.bugpatterns.BugChecker.ClassTreeMatcher;
 import com.google.errorprone.matchers.Description;
 import com.sun.source.tree.ClassTree;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import reactor.core.publisher.Flux;
@@ -91,6 +94,73 @@ final class ThirdPartyLibraryTest {
         .doTest();
   }
 
+  @Test
+  void isIntroductionAllowedAdditionalLibraries() {
+    CompilationTestHelper.newInstance(AdditionalLibraryTestChecker.class, getClass())
+        .setArgs(
+            "-XepOpt:ErrorProneSupport:AdditionalThirdPartyLibraries=IMMUTABLE_SET=com.google.common.collect.ImmutableSet,MISSING=com.example.Missing")
+        .withClasspath(ImmutableList.class)
+        .addSourceLines(
+            "A.java",
+            "// BUG: Diagnostic contains: IMMUTABLE_SET: true, MISSING: false, GUAVA: true, REACTOR: false, UNDECLARED: false",
+            "class A {}")
+        .doTest();
+  }
+
+  @Test
+  void isIntroductionAllowedReusesProbesAcrossCompilations() {
+    CompilationTestHelper.newInstance(ReusedWitnessTestChecker.class, getClass())
+        .setArgs(
+            "-XepOpt:ErrorProneSupport:AdditionalThirdPartyLibraries=REUSED=com.example.Reused")
+        .withClasspath(ImmutableList.class)
+        .addSourceLines("A.java", "// BUG: Diagnostic contains: REUSED: false", "class A {}")
+        .doTest();
+
+    CompilationTestHelper.newInstance(ProbeCacheTestChecker.class, getClass())
+        .withClasspath(ImmutableList.class)
+        .addSourceLines(
+            "A.java", "// BUG: Diagnostic contains: com.example.Reused cached: true", "class A {}")
+        .doTest();
+  }
+
+  @Test
+  void isIntroductionAllowedDoesNotCacheSourceDefinedWitnessClass() {
+    CompilationTestHelper.newInstance(CachedWitnessTestChecker.class, getClass())
+        .setArgs(
+            "-XepOpt:ErrorProneSupport:AdditionalThirdPartyLibraries=WITNESS=com.example.SourceDefined")
+        .withClasspath(ImmutableList.class)
+        .addSourceLines(
+            "com/example/SourceDefined.java",
+            "package com.example;",
+            "",
+            "// BUG: Diagnostic contains: WITNESS: true, cached: false",
+            "public class SourceDefined {}")
+        .addSourceLines(
+            "A.java", "// BUG: Diagnostic contains: WITNESS: true, cached: false", "class A {}")
+        .doTest();
+
+    CompilationTestHelper.newInstance(CachedWitnessTestChecker.class, getClass())
+        .setArgs(
+            "-XepOpt:ErrorProneSupport:AdditionalThirdPartyLibraries=WITNESS=com.example.SourceDefined")
+        .withClasspath(ImmutableList.class)
+        .addSourceLines(
+            "A.java", "// BUG: Diagnostic contains: WITNESS: false, cached: true", "class A {}")
+        .doTest();
+  }
+
+  @Test
+  void isIntroductionAllowedDoesNotCacheProbesWithDirectoryOnPath(@TempDir Path tempDir) {
+    CompilationTestHelper.newInstance(CachedWitnessTestChecker.class, getClass())
+        .setArgs(
+            "-XepOpt:ErrorProneSupport:AdditionalThirdPartyLibraries=WITNESS=com.example.InDirectory",
+            "-sourcepath",
+            tempDir.toString())
+        .withClasspath(ImmutableList.class)
+        .addSourceLines(
+            "A.java", "// BUG: Diagnostic contains: WITNESS: false, cached: false", "class A {}")
+        .doTest();
+  }
+
   /**
    * Flags classes with a diagnostics message that indicates, for each {@link ThirdPartyLibrary}
    * element, whether they can be used.
@@ -112,4 +182,94 @@ final class ThirdPartyLibraryTest {
           .build();
     }
   }
+
+  /**
+   * Flags classes with a diagnostics message that indicates, for a number of library names, whether
+   * the associated library can be used.
+   */
+  @BugPattern(severity = ERROR, summary = "Interacts with `ThirdPartyLibrary` for testing purposes")
+  public static final class AdditionalLibraryTestChecker extends BugChecker
+      implements ClassTreeMatcher {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Description matchClass(ClassTree tree, VisitorState state) {
+      return buildDescription(tree)
+          .setMessage(
+              Stream.of("IMMUTABLE_SET", "MISSING", "GUAVA", "REACTOR", "UNDECLARED")
+                  .map(
+                      library ->
+                          String.join(
+                              ": ",
+                              library,
+                              String.valueOf(
+                                  ThirdPartyLibrary.isIntroductionAllowed(library, state))))
+                  .collect(joining(", ")))
+          .build();
+    }
+  }
+
+  /**
+   * Flags classes with a diagnostics message that indicates whether the {@code REUSED} library,
+   * whose witness class is not used by any other test, can be used.
+   */
+  @BugPattern(severity = ERROR, summary = "Interacts with `ThirdPartyLibrary` for testing purposes")
+  public static final class ReusedWitnessTestChecker extends BugChecker
+      implements ClassTreeMatcher {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Description matchClass(ClassTree tree, VisitorState state) {
+      return buildDescription(tree)
+          .setMessage(
+              "REUSED: " + ThirdPartyLibrary.isIntroductionAllowed("REUSED", state))
+          .build();
+    }
+  }
+
+  /**
+   * Flags classes with a diagnostics message that indicates whether the outcome of probing for the
+   * witness class used by {@link ReusedWitnessTestChecker} is cached, without probing for it.
+   */
+  @BugPattern(severity = ERROR, summary = "Interacts with `ThirdPartyLibrary` for testing purposes")
+  public static final class ProbeCacheTestChecker extends BugChecker implements ClassTreeMatcher {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Description matchClass(ClassTree tree, VisitorState state) {
+      return buildDescription(tree)
+          .setMessage(
+              "com.example.Reused cached: "
+                  + ThirdPartyLibrary.isProbeCached("com.example.Reused", state))
+          .build();
+    }
+  }
+
+  /**
+   * Flags classes with a diagnostics message that indicates whether the {@code WITNESS} library can
+   * be used, and whether the outcome of probing for its witness class is cached.
+   */
+  @BugPattern(severity = ERROR, summary = "Interacts with `ThirdPartyLibrary` for testing purposes")
+  public static final class CachedWitnessTestChecker extends BugChecker
+      implements ClassTreeMatcher {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Description matchClass(ClassTree tree, VisitorState state) {
+      boolean allowed = ThirdPartyLibrary.isIntroductionAllowed("WITNESS", state);
+      String witness =
+          Flags.getList(
+                  state.errorProneOptions().getFlags(),
+                  "ErrorProneSupport:AdditionalThirdPartyLibraries")
+              .get(0)
+              .substring("WITNESS=".length());
+      return buildDescription(tree)
+          .setMessage(
+              String.join(
+                  ", ",
+                  "WITNESS: " + allowed,
+                  "cached: " + ThirdPartyLibrary.isProbeCached(witness, state)))
+          .build();
+    }
+  }
 }
@@ -37,6 +37,7 @@ final class RefasterRulesTest {
           BigDecimalRules.class,
           BugCheckerRules.class,
           CollectionRules.class,
+          CollectionStreamRules.class,
           ComparatorRules.class,
           DoubleStreamRules.class,
           EqualityRules.class,
@@ -61,9 +62,11 @@ final class RefasterRulesTest {
           OptionalRules.class,
           PreconditionsRules.class,
           PrimitiveRules.class,
+          PrimitiveStreamRules.class,
           ReactorRules.class,
           RxJava2AdapterRules.class,
           StreamRules.class,
+          StreamTerminalOperationRules.class,
           StringRules.class,
           TestNGToAssertJRules.class,
           TimeRules.class,
@@ -4,6 +4,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -17,7 +18,7 @@ import tech.picnic.errorprone.refaster.test.RefasterRuleCollectionTestCase;
 final class CollectionRulesTest implements RefasterRuleCollectionTestCase {
   @Override
   public ImmutableSet<?> elidedTypesAndStaticImports() {
-    return ImmutableSet.of(Iterables.class, Lists.class);
+    return ImmutableSet.of(Iterables.class, Iterators.class, Lists.class);
   }
 
   ImmutableSet<Boolean> testCollectionIsEmpty() {
@@ -33,7 +34,24 @@ final class CollectionRulesTest implements RefasterRuleCollectionTestCase {
   }
 
   ImmutableSet<Integer> testCollectionSize() {
-    return ImmutableSet.of(Iterables.size(ImmutableSet.of(1)), ImmutableSet.of(2).asList().size());
+    return ImmutableSet.of(
+        Iterables.size(ImmutableSet.of(1)),
+        ImmutableSet.of(2).asList().size(),
+        Iterators.size(ImmutableSet.of(3).iterator()));
+  }
+
+  boolean testCollectionContains() {
+    return Iterators.contains(ImmutableSet.of(1).iterator(), 2);
+  }
+
+  Integer testListGet() {
+    return Iterators.get(ImmutableList.of(1).iterator(), 0);
+  }
+
+  ImmutableSet<Integer> testSortedSetLast() {
+    return ImmutableSet.of(
+        Iterables.getLast(ImmutableSortedSet.of(1)),
+        Iterators.getLast(ImmutableSortedSet.of(2).iterator()));
   }
 
   boolean testCollectionAddAllToCollectionExpression() {
@@ -4,6 +4,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -17,7 +18,7 @@ import tech.picnic.errorprone.refaster.test.RefasterRuleCollectionTestCase;
 final class CollectionRulesTest implements RefasterRuleCollectionTestCase {
   @Override
   public ImmutableSet<?> elidedTypesAndStaticImports() {
-    return ImmutableSet.of(Iterables.class, Lists.class);
+    return ImmutableSet.of(Iterables.class, Iterators.class, Lists.class);
   }
 
   ImmutableSet<Boolean> testCollectionIsEmpty() {
@@ -33,7 +34,20 @@ final class CollectionRulesTest implements RefasterRuleCollectionTestCase {
   }
 
   ImmutableSet<Integer> testCollectionSize() {
-    return ImmutableSet.of(ImmutableSet.of(1).size(), ImmutableSet.of(2).size());
+    return ImmutableSet.of(
+        ImmutableSet.of(1).size(), ImmutableSet.of(2).size(), ImmutableSet.of(3).size());
+  }
+
+  boolean testCollectionContains() {
+    return ImmutableSet.of(1).contains(2);
+  }
+
+  Integer testListGet() {
+    return ImmutableList.of(1).get(0);
+  }
+
+  ImmutableSet<Integer> testSortedSetLast() {
+    return ImmutableSet.of(ImmutableSortedSet.of(1).last(), ImmutableSortedSet.of(2).last());
   }
 
   boolean testCollectionAddAllToCollectionExpression() {
@@ -0,0 +1,42 @@
+package tech.picnic.errorprone.refasterrules;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.stream.Stream;
+import tech.picnic.errorprone.refaster.test.RefasterRuleCollectionTestCase;
+
+final class CollectionStreamRulesTest implements RefasterRuleCollectionTestCase {
+  long testCollectionStreamCount() {
+    return ImmutableSet.of(1).stream().count();
+  }
+
+  ImmutableSet<Boolean> testCollectionStreamIsEmpty() {
+    return ImmutableSet.of(
+        ImmutableSet.of(1).stream().findAny().isEmpty(),
+        ImmutableSet.of(2).stream().findFirst().isEmpty(),
+        ImmutableSet.of(3).stream().findAny().isPresent(),
+        ImmutableSet.of(4).stream().findFirst().isPresent(),
+        !ImmutableSet.of(5).stream().findAny().isEmpty(),
+        !ImmutableSet.of(6).stream().findFirst().isEmpty());
+  }
+
+  boolean testCollectionStreamContains() {
+    return ImmutableSet.of("foo").stream().anyMatch("bar"::equals);
+  }
+
+  boolean testCollectionStreamDoesNotContain() {
+    return ImmutableSet.of("foo").stream().noneMatch("bar"::equals);
+  }
+
+  int testCollectionCopySize() {
+    return new ArrayList<>(ImmutableSet.of(1)).size();
+  }
+
+  boolean testCollectionCopyIsEmpty() {
+    return new ArrayList<>(ImmutableSet.of(1)).isEmpty();
+  }
+
+  Stream<Integer> testCollectionCopyStream() {
+    return new ArrayList<>(ImmutableSet.of(1)).stream();
+  }
+}
@@ -0,0 +1,41 @@
+package tech.picnic.errorprone.refasterrules;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.stream.Stream;
+import tech.picnic.errorprone.refaster.test.RefasterRuleCollectionTestCase;
+
+final class CollectionStreamRulesTest implements RefasterRuleCollectionTestCase {
+  long testCollectionStreamCount() {
+    return (long) ImmutableSet.of(1).size();
+  }
+
+  ImmutableSet<Boolean> testCollectionStreamIsEmpty() {
+    return ImmutableSet.of(
+        ImmutableSet.of(1).isEmpty(),
+        ImmutableSet.of(2).isEmpty(),
+        !ImmutableSet.of(3).isEmpty(),
+        !ImmutableSet.of(4).isEmpty(),
+        !ImmutableSet.of(5).isEmpty(),
+        !ImmutableSet.of(6).isEmpty());
+  }
+
+  boolean testCollectionStreamContains() {
+    return ImmutableSet.of("foo").contains("bar");
+  }
+
+  boolean testCollectionStreamDoesNotContain() {
+    return !ImmutableSet.of("foo").contains("bar");
+  }
+
+  int testCollectionCopySize() {
+    return ImmutableSet.of(1).size();
+  }
+
+  boolean testCollectionCopyIsEmpty() {
+    return ImmutableSet.of(1).isEmpty();
+  }
+
+  Stream<Integer> testCollectionCopyStream() {
+    return ImmutableSet.of(1).stream();
+  }
+}
@@ -0,0 +1,102 @@
+package tech.picnic.errorprone.refasterrules;
+
+import static java.util.Comparator.naturalOrder;
+import static java.util.stream.Collectors.averagingDouble;
+import static java.util.stream.Collectors.averagingInt;
+import static java.util.stream.Collectors.averagingLong;
+import static java.util.stream.Collectors.summarizingDouble;
+import static java.util.stream.Collectors.summarizingInt;
+import static java.util.stream.Collectors.summarizingLong;
+import static java.util.stream.Collectors.summingDouble;
+import static java.util.stream.Collectors.summingInt;
+import static java.util.stream.Collectors.summingLong;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import java.util.LongSummaryStatistics;
+import java.util.stream.Stream;
+import tech.picnic.errorprone.refaster.test.RefasterRuleCollectionTestCase;
+
+final class PrimitiveStreamRulesTest implements RefasterRuleCollectionTestCase {
+  @Override
+  public ImmutableSet<?> elidedTypesAndStaticImports() {
+    return ImmutableSet.of(
+        averagingDouble(null),
+        averagingInt(null),
+        averagingLong(null),
+        naturalOrder(),
+        summarizingDouble(null),
+        summarizingInt(null),
+        summarizingLong(null),
+        summingDouble(null),
+        summingInt(null),
+        summingLong(null));
+  }
+
+  int testStreamCollectSummingInt() {
+    return Stream.of("1").collect(summingInt(String::length));
+  }
+
+  long testStreamCollectSummingLong() {
+    return Stream.of("1").collect(summingLong(Long::parseLong));
+  }
+
+  double testStreamCollectSummingDouble() {
+    return Stream.of("1").collect(summingDouble(Double::parseDouble));
+  }
+
+  double testStreamCollectAveragingInt() {
+    return Stream.of("1").collect(averagingInt(String::length));
+  }
+
+  double testStreamCollectAveragingLong() {
+    return Stream.of("1").collect(averagingLong(Long::parseLong));
+  }
+
+  double testStreamCollectAveragingDouble() {
+    return Stream.of("1").collect(averagingDouble(Double::parseDouble));
+  }
+
+  IntSummaryStatistics testStreamCollectSummarizingInt() {
+    return Stream.of("1").collect(summarizingInt(String::length));
+  }
+
+  LongSummaryStatistics testStreamCollectSummarizingLong() {
+    return Stream.of("1").collect(summarizingLong(Long::parseLong));
+  }
+
+  DoubleSummaryStatistics testStreamCollectSummarizingDouble() {
+    return Stream.of("1").collect(summarizingDouble(Double::parseDouble));
+  }
+
+  ImmutableSet<Integer> testStreamMapToIntMax() {
+    return ImmutableSet.of(
+        Stream.of("1").map(String::length).max(naturalOrder()).orElseThrow(),
+        Stream.of("2").map(s -> s.length() * 2).max(naturalOrder()).get());
+  }
+
+  ImmutableSet<Integer> testStreamMapToIntMin() {
+    return ImmutableSet.of(
+        Stream.of("1").map(String::length).min(naturalOrder()).orElseThrow(),
+        Stream.of("2").map(s -> s.length() * 2).min(naturalOrder()).get());
+  }
+
+  ImmutableSet<Long> testStreamMapToLongMax() {
+    return ImmutableSet.of(
+        Stream.of("1").map(Long::valueOf).max(naturalOrder()).orElseThrow(),
+        Stream.of("2").map(s -> s.length() * 2L).max(naturalOrder()).get());
+  }
+
+  ImmutableSet<Long> testStreamMapToLongMin() {
+    return ImmutableSet.of(
+        Stream.of("1").map(Long::valueOf).min(naturalOrder()).orElseThrow(),
+        Stream.of("2").map(s -> s.length() * 2L).min(naturalOrder()).get());
+  }
+
+  ImmutableSet<Double> testStreamMapToDoubleMax() {
+    return ImmutableSet.of(
+        Stream.of("1").map(Double::valueOf).max(naturalOrder()).orElseThrow(),
+        Stream.of("2").map(s -> s.length() * 2.0).max(naturalOrder()).get());
+  }
+}
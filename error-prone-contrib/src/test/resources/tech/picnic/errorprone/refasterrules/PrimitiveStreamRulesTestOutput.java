@@ -0,0 +1,102 @@
+package tech.picnic.errorprone.refasterrules;
+
+import static java.util.Comparator.naturalOrder;
+import static java.util.stream.Collectors.averagingDouble;
+import static java.util.stream.Collectors.averagingInt;
+import static java.util.stream.Collectors.averagingLong;
+import static java.util.stream.Collectors.summarizingDouble;
+import static java.util.stream.Collectors.summarizingInt;
+import static java.util.stream.Collectors.summarizingLong;
+import static java.util.stream.Collectors.summingDouble;
+import static java.util.stream.Collectors.summingInt;
+import static java.util.stream.Collectors.summingLong;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import java.util.LongSummaryStatistics;
+import java.util.stream.Stream;
+import tech.picnic.errorprone.refaster.test.RefasterRuleCollectionTestCase;
+
+final class PrimitiveStreamRulesTest implements RefasterRuleCollectionTestCase {
+  @Override
+  public ImmutableSet<?> elidedTypesAndStaticImports() {
+    return ImmutableSet.of(
+        averagingDouble(null),
+        averagingInt(null),
+        averagingLong(null),
+        naturalOrder(),
+        summarizingDouble(null),
+        summarizingInt(null),
+        summarizingLong(null),
+        summingDouble(null),
+        summingInt(null),
+        summingLong(null));
+  }
+
+  int testStreamCollectSummingInt() {
+    return Stream.of("1").mapToInt(String::length).sum();
+  }
+
+  long testStreamCollectSummingLong() {
+    return Stream.of("1").mapToLong(Long::parseLong).sum();
+  }
+
+  double testStreamCollectSummingDouble() {
+    return Stream.of("1").mapToDouble(Double::parseDouble).sum();
+  }
+
+  double testStreamCollectAveragingInt() {
+    return Stream.of("1").mapToInt(String::length).average().orElse(0);
+  }
+
+  double testStreamCollectAveragingLong() {
+    return Stream.of("1").mapToLong(Long::parseLong).average().orElse(0);
+  }
+
+  double testStreamCollectAveragingDouble() {
+    return Stream.of("1").mapToDouble(Double::parseDouble).average().orElse(0);
+  }
+
+  IntSummaryStatistics testStreamCollectSummarizingInt() {
+    return Stream.of("1").mapToInt(String::length).summaryStatistics();
+  }
+
+  LongSummaryStatistics testStreamCollectSummarizingLong() {
+    return Stream.of("1").mapToLong(Long::parseLong).summaryStatistics();
+  }
+
+  DoubleSummaryStatistics testStreamCollectSummarizingDouble() {
+    return Stream.of("1").mapToDouble(Double::parseDouble).summaryStatistics();
+  }
+
+  ImmutableSet<Integer> testStreamMapToIntMax() {
+    return ImmutableSet.of(
+        Stream.of("1").mapToInt(String::length).max().orElseThrow(),
+        Stream.of("2").mapToInt(s -> s.length() * 2).max().orElseThrow());
+  }
+
+  ImmutableSet<Integer> testStreamMapToIntMin() {
+    return ImmutableSet.of(
+        Stream.of("1").mapToInt(String::length).min().orElseThrow(),
+        Stream.of("2").mapToInt(s -> s.length() * 2).min().orElseThrow());
+  }
+
+  ImmutableSet<Long> testStreamMapToLongMax() {
+    return ImmutableSet.of(
+        Stream.of("1").mapToLong(Long::valueOf).max().orElseThrow(),
+        Stream.of("2").mapToLong(s -> s.length() * 2L).max().orElseThrow());
+  }
+
+  ImmutableSet<Long> testStreamMapToLongMin() {
+    return ImmutableSet.of(
+        Stream.of("1").mapToLong(Long::valueOf).min().orElseThrow(),
+        Stream.of("2").mapToLong(s -> s.length() * 2L).min().orElseThrow());
+  }
+
+  ImmutableSet<Double> testStreamMapToDoubleMax() {
+    return ImmutableSet.of(
+        Stream.of("1").mapToDouble(Double::valueOf).max().orElseThrow(),
+        Stream.of("2").mapToDouble(s -> s.length() * 2.0).max().orElseThrow());
+  }
+}
@@ -145,6 +145,14 @@ final class ReactorRulesTest implements RefasterRuleCollectionTestCase {
         Flux.just(1).switchIfEmpty(Mono.empty()), Flux.just(2).switchIfEmpty(Flux.empty()));
   }
 
+  ImmutableSet<Flux<Integer>> testFluxIdentity() {
+    return ImmutableSet.of(
+        Flux.just(1).collectList().flatMapMany(Flux::fromIterable),
+        Flux.just(2).collectList().flatMapMany(list -> Flux.fromIterable(list)),
+        Flux.just(3).collectList().flatMapIterable(identity()),
+        Flux.just(4).collectList().flatMapIterable(list -> list));
+  }
+
   ImmutableSet<Flux<Integer>> testFluxConcatMap() {
     return ImmutableSet.of(
         Flux.just(1).flatMap(Mono::just, 1),
@@ -287,7 +295,24 @@ final class ReactorRulesTest implements RefasterRuleCollectionTestCase {
         Flux.just(3).collect(toImmutableList()).map(ImmutableCollection::size),
         Flux.just(4).collect(toImmutableList()).map(ImmutableList::size),
         Flux.just(5).collect(toCollection(ArrayList::new)).map(Collection::size),
-        Flux.just(6).collect(toCollection(ArrayList::new)).map(List::size));
+        Flux.just(6).collect(toCollection(ArrayList::new)).map(List::size),
+        Flux.just(7).collectList().map(Collection::size),
+        Flux.just(8).collectList().map(List::size));
+  }
+
+  Mono<Boolean> testFluxHasElements() {
+    return Flux.just(1).collectList().map(list -> !list.isEmpty());
+  }
+
+  ImmutableSet<Mono<Boolean>> testFluxHasNoElements() {
+    return ImmutableSet.of(
+        Flux.just(1).collectList().map(Collection::isEmpty),
+        Flux.just(2).collectList().map(List::isEmpty),
+        Flux.just(3).collectList().map(list -> list.isEmpty()));
+  }
+
+  Mono<List<String>> testMonoJustImmutableList() {
+    return Flux.fromIterable(ImmutableList.of("foo")).collectList();
   }
 
   Mono<Integer> testMonoDoOnError() {
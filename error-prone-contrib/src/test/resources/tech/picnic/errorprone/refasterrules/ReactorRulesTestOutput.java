@@ -144,6 +144,10 @@ final class ReactorRulesTest implements RefasterRuleCollectionTestCase {
     return ImmutableSet.of(Flux.just(1), Flux.just(2));
   }
 
+  ImmutableSet<Flux<Integer>> testFluxIdentity() {
+    return ImmutableSet.of(Flux.just(1), Flux.just(2), Flux.just(3), Flux.just(4));
+  }
+
   ImmutableSet<Flux<Integer>> testFluxConcatMap() {
     return ImmutableSet.of(
         Flux.just(1).concatMap(Mono::just),
@@ -279,7 +283,24 @@ final class ReactorRulesTest implements RefasterRuleCollectionTestCase {
         Flux.just(3).count().map(Math::toIntExact),
         Flux.just(4).count().map(Math::toIntExact),
         Flux.just(5).count().map(Math::toIntExact),
-        Flux.just(6).count().map(Math::toIntExact));
+        Flux.just(6).count().map(Math::toIntExact),
+        Flux.just(7).count().map(Math::toIntExact),
+        Flux.just(8).count().map(Math::toIntExact));
+  }
+
+  Mono<Boolean> testFluxHasElements() {
+    return Flux.just(1).hasElements();
+  }
+
+  ImmutableSet<Mono<Boolean>> testFluxHasNoElements() {
+    return ImmutableSet.of(
+        Flux.just(1).hasElements().map(hasElements -> !hasElements),
+        Flux.just(2).hasElements().map(hasElements -> !hasElements),
+        Flux.just(3).hasElements().map(hasElements -> !hasElements));
+  }
+
+  Mono<List<String>> testMonoJustImmutableList() {
+    return Mono.just(ImmutableList.of("foo"));
   }
 
   Mono<Integer> testMonoDoOnError() {
@@ -0,0 +1,30 @@
+package tech.picnic.errorprone.refasterrules;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static java.util.Comparator.reverseOrder;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.stream.Stream;
+import tech.picnic.errorprone.refaster.test.RefasterRuleCollectionTestCase;
+
+final class StreamTerminalOperationRulesTest implements RefasterRuleCollectionTestCase {
+  @Override
+  public ImmutableSet<?> elidedTypesAndStaticImports() {
+    return ImmutableSet.of(toImmutableList(), toImmutableSet());
+  }
+
+  ImmutableSet<Boolean> testStreamCollectIsEmpty() {
+    return ImmutableSet.of(
+        Stream.of(1).collect(toImmutableList()).isEmpty(),
+        Stream.of(2).collect(toImmutableSet()).isEmpty());
+  }
+
+  Stream<String> testStreamSortedLimitOne() {
+    return Stream.of("foo").sorted(reverseOrder()).limit(1);
+  }
+
+  Stream<String> testStreamSortedLimitOneNaturalOrder() {
+    return Stream.of("foo").sorted().limit(1);
+  }
+}
@@ -23,5 +23,18 @@ EOF
     sed -i ${macos_compat:+".bak"} 's/srcset="website\//srcset="/g' "${homepage}"
 }
 
+generate_bugpattern_pages() {
+    local docs="${REPOSITORY_ROOT}/error-prone-contrib/target/docs"
+    if [[ ! -d "${docs}" ]]; then
+        echo "No extracted documentation found at ${docs}; skipping bug pattern pages."
+        return
+    fi
+
+    echo "Generating bug pattern pages from ${docs}..."
+    mvn -q -f "${REPOSITORY_ROOT}/documentation-support/pom.xml" exec:java \
+        -Dexec.args="${docs} ${WEBSITE_ROOT}"
+}
+
 # Generate the website.
 generate_homepage
+generate_bugpattern_pages
@@ -4,29 +4,39 @@ import com.google.common.collect.ImmutableClassToInstanceMap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
+import com.google.common.io.ByteStreams;
 import com.google.errorprone.CodeTransformer;
 import com.google.errorprone.refaster.RefasterRuleBuilderScanner;
 import com.google.errorprone.refaster.UTemplater;
 import com.google.errorprone.refaster.annotation.BeforeTemplate;
 import com.google.errorprone.util.ASTHelpers;
-import com.sun.source.tree.AnnotationTree;
 import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.ImportTree;
 import com.sun.source.util.TaskEvent;
 import com.sun.source.util.TaskEvent.Kind;
 import com.sun.source.util.TaskListener;
 import com.sun.source.util.TreeScanner;
 import com.sun.tools.javac.api.JavacTrees;
+import com.sun.tools.javac.code.Attribute;
 import com.sun.tools.javac.code.Symbol;
 import com.sun.tools.javac.code.Symbol.ClassSymbol;
+import com.sun.tools.javac.code.Symbol.MethodSymbol;
 import com.sun.tools.javac.code.Symbol.PackageSymbol;
+import com.sun.tools.javac.code.Symbol.TypeSymbol;
 import com.sun.tools.javac.main.JavaCompiler;
 import com.sun.tools.javac.util.Context;
 import com.sun.tools.javac.util.Name;
+import com.sun.tools.javac.util.Names;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectOutput;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.lang.annotation.Annotation;
+import java.util.Arrays;
 import java.util.Map;
 import javax.tools.FileObject;
 import javax.tools.JavaFileManager;
@@ -42,10 +52,16 @@ import tech.picnic.errorprone.refaster.AnnotatedCompositeCodeTransformer;
  * <p>This {@link TaskListener} thus supports compilation of multiple Refaster rules.
  */
 final class RefasterRuleCompilerTaskListener implements TaskListener {
+  private static final String REFASTER_ANNOTATION_PACKAGE_PREFIX =
+      BeforeTemplate.class.getPackageName() + '.';
+
   private final Context context;
+  private final Name beforeTemplate;
 
   RefasterRuleCompilerTaskListener(Context context) {
     this.context = context;
+    this.beforeTemplate =
+        Names.instance(context).fromString(BeforeTemplate.class.getCanonicalName());
   }
 
   @Override
@@ -54,8 +70,16 @@ final class RefasterRuleCompilerTaskListener implements TaskListener {
       return;
     }
 
-    ClassTree tree = JavacTrees.instance(context).getTree(taskEvent.getTypeElement());
-    if (tree == null || !containsRefasterRules(tree)) {
+    ClassSymbol symbol = (ClassSymbol) taskEvent.getTypeElement();
+    if (symbol == null) {
+      return;
+    }
+
+    ClassTree tree = JavacTrees.instance(context).getTree(symbol);
+    if (tree == null
+        || (!containsRefasterRules(symbol)
+            && (!importsRefasterAnnotations(taskEvent.getCompilationUnit())
+                || !containsLocalRefasterRules(tree)))) {
       return;
     }
 
@@ -103,16 +127,70 @@ final class RefasterRuleCompilerTaskListener implements TaskListener {
         taskEvent.getSourceFile());
   }
 
-  private static boolean containsRefasterRules(ClassTree tree) {
+  /**
+   * Tells whether the given class, or any of its (transitively) nested member classes, declares a
+   * method annotated with {@link BeforeTemplate}.
+   *
+   * <p>Local and anonymous classes are not considered; see {@link
+   * #containsLocalRefasterRules(ClassTree)}.
+   *
+   * @implNote This method inspects the class' symbol rather than its AST, as the former only
+   *     requires a traversal of the class' members.
+   */
+  private boolean containsRefasterRules(ClassSymbol symbol) {
+    for (Symbol member : symbol.getEnclosedElements()) {
+      if (member instanceof MethodSymbol && hasAnnotation(member, beforeTemplate)) {
+        return true;
+      }
+
+      if (member instanceof ClassSymbol && containsRefasterRules((ClassSymbol) member)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Tells whether the given compilation unit imports any of Refaster's annotations.
+   *
+   * <p>This check is used to avoid scanning the AST of classes that cannot declare local or
+   * anonymous Refaster rules. As a result, rules in such classes that reference {@link
+   * BeforeTemplate} by its fully qualified name are not recognized.
+   */
+  private static boolean importsRefasterAnnotations(@Nullable CompilationUnitTree compilationUnit) {
+    if (compilationUnit == null) {
+      return false;
+    }
+
+    for (ImportTree importTree : compilationUnit.getImports()) {
+      if (!importTree.isStatic()
+          && importTree
+              .getQualifiedIdentifier()
+              .toString()
+              .startsWith(REFASTER_ANNOTATION_PACKAGE_PREFIX)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Tells whether the given class tree contains a local or anonymous class that (transitively)
+   * declares a method annotated with {@link BeforeTemplate}.
+   *
+   * @implNote Unlike member classes, local and anonymous classes are not enclosed elements of
+   *     their outer class' symbol, so these can only be located by scanning the AST.
+   */
+  private boolean containsLocalRefasterRules(ClassTree tree) {
     return Boolean.TRUE.equals(
         new TreeScanner<Boolean, @Nullable Void>() {
           @Override
-          public Boolean visitAnnotation(AnnotationTree node, @Nullable Void unused) {
-            Symbol sym = ASTHelpers.getSymbol(node);
-            return (sym != null
-                    && sym.getQualifiedName()
-                        .contentEquals(BeforeTemplate.class.getCanonicalName()))
-                || super.visitAnnotation(node, unused);
+          public Boolean visitClass(ClassTree node, @Nullable Void unused) {
+            ClassSymbol symbol = ASTHelpers.getSymbol(node);
+            return (!(symbol.owner instanceof TypeSymbol) && containsRefasterRules(symbol))
+                || Boolean.TRUE.equals(super.visitClass(node, unused));
           }
 
           @Override
@@ -122,6 +200,17 @@ final class RefasterRuleCompilerTaskListener implements TaskListener {
         }.scan(tree, null));
   }
 
+  private static boolean hasAnnotation(Symbol symbol, Name annotationType) {
+    for (Attribute.Compound annotation : symbol.getRawAttributes()) {
+      /* Names are interned, so they can be compared by identity. */
+      if (annotation.type.tsym.getQualifiedName() == annotationType) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
   /** Merges two annotation mappings, preferring the second over the first in case of conflicts. */
   private static ImmutableClassToInstanceMap<Annotation> merge(
       ImmutableClassToInstanceMap<Annotation> first,
@@ -143,10 +232,34 @@ final class RefasterRuleCompilerTaskListener implements TaskListener {
     return lastDot < 0 ? flatName : flatName.subSequence(lastDot + 1, flatName.length());
   }
 
+  /**
+   * Serializes the given {@link CodeTransformer} to the given target file, unless the file already
+   * has the exact same content.
+   *
+   * <p>By not rewriting unchanged files their timestamps are preserved, such that incremental build
+   * tools do not needlessly consider downstream modules stale.
+   */
   private static void outputCodeTransformer(CodeTransformer codeTransformer, FileObject target)
       throws IOException {
-    try (ObjectOutput output = new ObjectOutputStream(target.openOutputStream())) {
+    ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+    try (ObjectOutput output = new ObjectOutputStream(serialized)) {
       output.writeObject(codeTransformer);
     }
+
+    byte[] content = serialized.toByteArray();
+    if (!Arrays.equals(content, readExistingContent(target))) {
+      try (OutputStream output = target.openOutputStream()) {
+        output.write(content);
+      }
+    }
+  }
+
+  private static byte @Nullable [] readExistingContent(FileObject file) {
+    try (InputStream input = file.openInputStream()) {
+      return ByteStreams.toByteArray(input);
+    } catch (IOException e) {
+      /* The file does not exist (yet), or it cannot be read; either way it must be (re)written. */
+      return null;
+    }
   }
 }
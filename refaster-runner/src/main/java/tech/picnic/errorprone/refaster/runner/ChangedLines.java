@@ -0,0 +1,227 @@
+package tech.picnic.errorprone.refaster.runner;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.DiscreteDomain;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableRangeSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Range;
+import com.google.common.collect.RangeSet;
+import com.google.common.collect.TreeRangeSet;
+import com.google.errorprone.ErrorProneFlags;
+import com.sun.source.tree.CompilationUnitTree;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The set of source code lines to which the {@link Refaster} bug checker restricts its analysis.
+ *
+ * <p>By default all lines of all files are considered changed. If the {@value #CHANGED_LINES_FLAG}
+ * flag is set, then only the lines listed in the referenced file are considered changed. This file
+ * either contains a unified diff, or lines of the form {@code path/to/File.java:10-20,30}, listing
+ * the changed (ranges of) lines of each file. A listed path matches any source file whose path ends
+ * with said path.
+ */
+final class ChangedLines implements Serializable {
+  /** Flag to pass the path of a file that lists the source code lines to analyze. */
+  static final String CHANGED_LINES_FLAG = "Refaster:ChangedLines";
+
+  private static final long serialVersionUID = 1L;
+  private static final ImmutableRangeSet<Integer> ALL_LINES = ImmutableRangeSet.of(Range.all());
+  private static final Pattern HUNK_HEADER =
+      Pattern.compile("^@@ -\\d+(?:,(\\d+))? \\+(\\d+)(?:,(\\d+))? @@");
+  private static final Splitter RANGE_SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
+
+  private final boolean restricted;
+  private final ImmutableMap<String, ImmutableRangeSet<Integer>> linesByPath;
+
+  private ChangedLines(
+      boolean restricted, ImmutableMap<String, ImmutableRangeSet<Integer>> linesByPath) {
+    this.restricted = restricted;
+    this.linesByPath = linesByPath;
+  }
+
+  /**
+   * Returns the set of changed lines configured through the given flags.
+   *
+   * @param flags Any provided command line flags.
+   * @return A non-{@code null} {@link ChangedLines} instance.
+   */
+  static ChangedLines fromFlags(ErrorProneFlags flags) {
+    return flags
+        .get(CHANGED_LINES_FLAG)
+        .map(Path::of)
+        .map(ChangedLines::read)
+        .orElseGet(() -> new ChangedLines(false, ImmutableMap.of()));
+  }
+
+  /**
+   * Tells whether the analysis is restricted to a subset of all source code lines.
+   *
+   * @return {@code false} iff all lines of all files are to be analyzed.
+   */
+  boolean isRestricted() {
+    return restricted;
+  }
+
+  /**
+   * Returns the (one-based) line numbers of the given compilation unit that should be analyzed.
+   *
+   * @param tree The compilation unit of interest.
+   * @return A possibly-empty set of line number ranges.
+   */
+  ImmutableRangeSet<Integer> getChangedLines(CompilationUnitTree tree) {
+    if (!restricted) {
+      return ALL_LINES;
+    }
+
+    String sourcePath = tree.getSourceFile().toUri().getPath();
+    if (sourcePath == null) {
+      return ImmutableRangeSet.of();
+    }
+
+    for (Map.Entry<String, ImmutableRangeSet<Integer>> entry : linesByPath.entrySet()) {
+      String path = entry.getKey();
+      if (sourcePath.equals(path) || sourcePath.endsWith('/' + path)) {
+        return entry.getValue();
+      }
+    }
+
+    return ImmutableRangeSet.of();
+  }
+
+  private static ChangedLines read(Path file) {
+    List<String> lines;
+    try {
+      lines = Files.readAllLines(file, UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException(String.format("Cannot read file '%s'", file), e);
+    }
+
+    Map<String, RangeSet<Integer>> linesByPath =
+        isUnifiedDiff(lines) ? parseUnifiedDiff(lines) : parseLineRanges(lines);
+    return new ChangedLines(
+        true, ImmutableMap.copyOf(Maps.transformValues(linesByPath, ImmutableRangeSet::copyOf)));
+  }
+
+  private static boolean isUnifiedDiff(List<String> lines) {
+    return lines.stream().anyMatch(line -> line.startsWith("+++ ") || line.startsWith("@@ "));
+  }
+
+  /**
+   * Collects the lines added by the given unified diff.
+   *
+   * @implNote Hunk lines are identified using the line counts listed in their hunk header, such
+   *     that e.g. an added line whose content starts with {@code "++ "} is not mistaken for a file
+   *     header.
+   */
+  private static Map<String, RangeSet<Integer>> parseUnifiedDiff(List<String> lines) {
+    Map<String, RangeSet<Integer>> linesByPath = new LinkedHashMap<>();
+    @Nullable RangeSet<Integer> currentFile = null;
+    int currentLine = 0;
+    int remainingOldLines = 0;
+    int remainingNewLines = 0;
+    for (String line : lines) {
+      if (remainingOldLines > 0 || remainingNewLines > 0) {
+        if (line.startsWith("+")) {
+          if (currentFile != null) {
+            currentFile.add(Range.singleton(currentLine).canonical(DiscreteDomain.integers()));
+          }
+          currentLine++;
+          remainingNewLines--;
+        } else if (line.startsWith("-")) {
+          remainingOldLines--;
+        } else if (!line.startsWith("\\")) {
+          /* A context line; some tools strip the leading space of empty context lines. */
+          currentLine++;
+          remainingOldLines--;
+          remainingNewLines--;
+        }
+        continue;
+      }
+
+      if (line.startsWith("+++ ")) {
+        String path = getTargetPath(line.substring("+++ ".length()));
+        currentFile =
+            path == null ? null : linesByPath.computeIfAbsent(path, p -> TreeRangeSet.create());
+        continue;
+      }
+
+      Matcher hunkHeader = HUNK_HEADER.matcher(line);
+      if (hunkHeader.find()) {
+        remainingOldLines = getLineCount(hunkHeader.group(1));
+        currentLine = Integer.parseInt(hunkHeader.group(2));
+        remainingNewLines = getLineCount(hunkHeader.group(3));
+      }
+    }
+
+    return linesByPath;
+  }
+
+  /** Returns the line count of a hunk header range, which defaults to one if omitted. */
+  private static int getLineCount(@Nullable String count) {
+    return count == null ? 1 : Integer.parseInt(count);
+  }
+
+  /**
+   * Extracts the path of the changed file from the target file header of a unified diff, or
+   * returns {@code null} if the file was deleted.
+   */
+  private static @Nullable String getTargetPath(String header) {
+    int timestampSeparator = header.indexOf('\t');
+    String path = timestampSeparator < 0 ? header : header.substring(0, timestampSeparator);
+    if (path.equals("/dev/null")) {
+      return null;
+    }
+
+    /* Strip the `b/` prefix emitted by `git diff`. */
+    return path.startsWith("b/") ? path.substring(2) : path;
+  }
+
+  private static Map<String, RangeSet<Integer>> parseLineRanges(List<String> lines) {
+    Map<String, RangeSet<Integer>> linesByPath = new LinkedHashMap<>();
+    for (String line : lines) {
+      String entry = line.trim();
+      if (entry.isEmpty() || entry.startsWith("#")) {
+        continue;
+      }
+
+      int separator = entry.lastIndexOf(':');
+      checkArgument(separator > 0, "Invalid changed lines entry '%s'", entry);
+      RangeSet<Integer> ranges =
+          linesByPath.computeIfAbsent(entry.substring(0, separator), p -> TreeRangeSet.create());
+      for (String range : RANGE_SPLITTER.split(entry.substring(separator + 1))) {
+        ranges.add(parseRange(range, entry));
+      }
+    }
+
+    return linesByPath;
+  }
+
+  private static Range<Integer> parseRange(String range, String entry) {
+    try {
+      int separator = range.indexOf('-');
+      return separator < 0
+          ? Range.singleton(Integer.parseInt(range)).canonical(DiscreteDomain.integers())
+          : Range.closed(
+                  Integer.parseInt(range.substring(0, separator)),
+                  Integer.parseInt(range.substring(separator + 1)))
+              .canonical(DiscreteDomain.integers());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(
+          String.format("Invalid line range '%s' in changed lines entry '%s'", range, entry), e);
+    }
+  }
+}
@@ -28,7 +28,9 @@ public final class CodeTransformers {
   /**
    * Returns all Refaster {@link CodeTransformer}s found on the classpath.
    *
-   * <p>This method returns a cached view; all invocations except the first are very cheap.
+   * <p>This method returns a cached view; all invocations except the first are very cheap. It is
+   * safe to invoke this method concurrently, as is the case when multiple compilations run in
+   * parallel within the same JVM.
    *
    * @return A mapping from Refaster rule names to associated {@link CodeTransformer}s.
    */
@@ -43,6 +45,9 @@ public final class CodeTransformers {
    * @return A mapping from Refaster rule names to associated {@link CodeTransformer}s.
    */
   private static ImmutableListMultimap<String, CodeTransformer> loadAllCodeTransformers() {
+    RefasterEvents.RuleLoading event = new RefasterEvents.RuleLoading();
+    event.begin();
+
     ImmutableListMultimap.Builder<String, CodeTransformer> transformers =
         ImmutableListMultimap.builder();
 
@@ -54,7 +59,12 @@ public final class CodeTransformers {
                       .ifPresent(transformer -> transformers.put(ruleName, transformer)));
     }
 
-    return transformers.build();
+    ImmutableListMultimap<String, CodeTransformer> result = transformers.build();
+    if (event.shouldCommit()) {
+      event.ruleCount = result.size();
+      event.commit();
+    }
+    return result;
   }
 
   private static ImmutableSet<ResourceInfo> getClassPathResources() {
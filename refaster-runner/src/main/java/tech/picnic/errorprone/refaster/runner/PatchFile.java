@@ -0,0 +1,358 @@
+package tech.picnic.errorprone.refaster.runner;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.util.Comparator.comparingInt;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.apply.ImportOrganizer;
+import com.google.errorprone.apply.ImportStatements;
+import com.google.errorprone.fixes.Fix;
+import com.google.errorprone.fixes.Replacement;
+import com.google.errorprone.matchers.Description;
+import com.sun.tools.javac.tree.JCTree.JCCompilationUnit;
+import com.sun.tools.javac.util.Context;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A unified diff file to which the {@link Refaster} bug checker writes the fixes it reports.
+ *
+ * <p>The diff is appended to one compilation unit at a time, such that at no point more than a
+ * single patched source file is held in memory. The file is truncated once per compilation, such
+ * that a module's patch file reflects only the most recent compilation of that module. The
+ * resultant file can be applied using {@code git apply}.
+ */
+final class PatchFile {
+  /** Flag to pass the path of the unified diff file to which to write suggested fixes. */
+  static final String PATCH_FILE_FLAG = "Refaster:PatchFile";
+
+  private static final Context.Key<PatchFile> PATCH_FILE_KEY = new Context.Key<>();
+  private static final int CONTEXT_LINES = 3;
+
+  private final Path path;
+
+  private PatchFile(Path path) {
+    this.path = path;
+  }
+
+  /**
+   * Returns the {@link PatchFile} associated with the given compilation, creating and truncating
+   * the file on first access.
+   *
+   * @param context The {@link Context} in which the current compilation takes place.
+   * @param path The path of the unified diff file.
+   * @return A non-{@code null} {@link PatchFile} instance.
+   */
+  static synchronized PatchFile instance(Context context, Path path) {
+    PatchFile patchFile = context.get(PATCH_FILE_KEY);
+    if (patchFile == null) {
+      patchFile = new PatchFile(path);
+      patchFile.truncate();
+      context.put(PATCH_FILE_KEY, patchFile);
+    }
+    return patchFile;
+  }
+
+  /**
+   * Appends the changes suggested by the first fix of each of the given descriptions to this
+   * file.
+   *
+   * @param compilationUnit The compilation unit to which the given descriptions apply.
+   * @param descriptions The descriptions whose fixes to export; their (non-import) replacements
+   *     must not overlap.
+   */
+  synchronized void write(JCCompilationUnit compilationUnit, Collection<Description> descriptions) {
+    ImmutableList<Fix> fixes =
+        descriptions.stream()
+            .filter(description -> !description.fixes.isEmpty())
+            .map(description -> description.fixes.get(0))
+            .collect(toImmutableList());
+    if (fixes.isEmpty()) {
+      return;
+    }
+
+    String source;
+    try {
+      source = compilationUnit.getSourceFile().getCharContent(true).toString();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read source file", e);
+    }
+
+    String diff =
+        toUnifiedDiff(
+            getDisplayPath(compilationUnit), source, getReplacements(compilationUnit, fixes));
+    if (diff.isEmpty()) {
+      return;
+    }
+
+    try (Writer writer = Files.newBufferedWriter(path, UTF_8, CREATE, APPEND)) {
+      writer.write(diff);
+    } catch (IOException e) {
+      throw new UncheckedIOException(String.format("Cannot write to file '%s'", path), e);
+    }
+  }
+
+  private void truncate() {
+    try {
+      Path parent = path.toAbsolutePath().getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      Files.newBufferedWriter(path, UTF_8, CREATE, TRUNCATE_EXISTING).close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(String.format("Cannot create file '%s'", path), e);
+    }
+  }
+
+  /**
+   * Returns the replacements described by the given fixes, including a replacement of the import
+   * block if the fixes add or remove any imports.
+   */
+  private static ImmutableList<Replacement> getReplacements(
+      JCCompilationUnit compilationUnit, ImmutableList<Fix> fixes) {
+    List<Replacement> replacements = new ArrayList<>();
+    Set<String> importsToAdd = new LinkedHashSet<>();
+    Set<String> importsToRemove = new LinkedHashSet<>();
+    for (Fix fix : fixes) {
+      replacements.addAll(fix.getReplacements(compilationUnit.endPositions));
+      importsToAdd.addAll(fix.getImportsToAdd());
+      importsToRemove.addAll(fix.getImportsToRemove());
+    }
+
+    if (!importsToAdd.isEmpty() || !importsToRemove.isEmpty()) {
+      ImportStatements imports =
+          ImportStatements.create(compilationUnit, ImportOrganizer.STATIC_FIRST_ORGANIZER);
+      imports.addAll(importsToAdd);
+      imports.removeAll(importsToRemove);
+      if (imports.importsHaveChanged()) {
+        replacements.add(
+            Replacement.create(imports.getStartPos(), imports.getEndPos(), imports.toString()));
+      }
+    }
+
+    return ImmutableList.sortedCopyOf(comparingInt(Replacement::startPosition), replacements);
+  }
+
+  /**
+   * Returns the path of the given compilation unit's source file, relative to the current working
+   * directory if possible, and without leading slashes otherwise.
+   */
+  private static String getDisplayPath(JCCompilationUnit compilationUnit) {
+    URI sourceUri = compilationUnit.getSourceFile().toUri();
+    String sourcePath = sourceUri.getPath() == null ? sourceUri.toString() : sourceUri.getPath();
+    String workingDirectory = Path.of("").toAbsolutePath().toUri().getPath();
+    return sourcePath.startsWith(workingDirectory)
+        ? sourcePath.substring(workingDirectory.length())
+        : sourcePath.replaceFirst("^/+", "");
+  }
+
+  /**
+   * Renders the difference between the given source code and the result of applying the given
+   * replacements to it as a unified diff.
+   *
+   * @param fileName The name of the file to which the replacements apply.
+   * @param source The original source code.
+   * @param replacements The non-overlapping replacements to apply, ordered by start position.
+   * @return A unified diff, or the empty string if the replacements do not change the source code.
+   */
+  @VisibleForTesting
+  static String toUnifiedDiff(String fileName, String source, List<Replacement> replacements) {
+    int[] lineStarts = getLineStarts(source);
+    ImmutableList<ChangedBlock> blocks = getChangedBlocks(source, lineStarts, replacements);
+    if (blocks.isEmpty()) {
+      return "";
+    }
+
+    StringBuilder diff =
+        new StringBuilder()
+            .append("--- a/")
+            .append(fileName)
+            .append('\n')
+            .append("+++ b/")
+            .append(fileName)
+            .append('\n');
+
+    int lineDelta = 0;
+    int hunkStart = 0;
+    while (hunkStart < blocks.size()) {
+      int hunkEnd = hunkStart + 1;
+      while (hunkEnd < blocks.size()
+          && blocks.get(hunkEnd).firstLine - blocks.get(hunkEnd - 1).lastLine - 1
+              <= 2 * CONTEXT_LINES) {
+        hunkEnd++;
+      }
+
+      lineDelta +=
+          appendHunk(diff, source, lineStarts, blocks.subList(hunkStart, hunkEnd), lineDelta);
+      hunkStart = hunkEnd;
+    }
+
+    return diff.toString();
+  }
+
+  /**
+   * Appends a single hunk covering the given blocks to the given diff, and returns the resultant
+   * difference in line count.
+   */
+  private static int appendHunk(
+      StringBuilder diff,
+      String source,
+      int[] lineStarts,
+      List<ChangedBlock> blocks,
+      int lineDelta) {
+    int firstLine = Math.max(0, blocks.get(0).firstLine - CONTEXT_LINES);
+    int lastLine =
+        Math.min(lineStarts.length - 1, blocks.get(blocks.size() - 1).lastLine + CONTEXT_LINES);
+
+    StringBuilder body = new StringBuilder();
+    int originalCount = 0;
+    int patchedCount = 0;
+    int line = firstLine;
+    for (ChangedBlock block : blocks) {
+      for (; line < block.firstLine; line++) {
+        appendLine(body, ' ', getLine(source, lineStarts, line));
+        originalCount++;
+        patchedCount++;
+      }
+      for (; line <= block.lastLine; line++) {
+        appendLine(body, '-', getLine(source, lineStarts, line));
+        originalCount++;
+      }
+      for (String patchedLine : splitLines(block.replacement)) {
+        appendLine(body, '+', patchedLine);
+        patchedCount++;
+      }
+    }
+    for (; line <= lastLine; line++) {
+      appendLine(body, ' ', getLine(source, lineStarts, line));
+      originalCount++;
+      patchedCount++;
+    }
+
+    int patchedFirstLine = firstLine + lineDelta + (patchedCount == 0 ? 0 : 1);
+    diff.append(
+        String.format(
+            "@@ -%d,%d +%d,%d @@\n",
+            firstLine + 1, originalCount, patchedFirstLine, patchedCount));
+    diff.append(body);
+    return patchedCount - originalCount;
+  }
+
+  /**
+   * Groups the given replacements into blocks of whole lines, such that no two blocks share a line.
+   */
+  private static ImmutableList<ChangedBlock> getChangedBlocks(
+      String source, int[] lineStarts, List<Replacement> replacements) {
+    ImmutableList.Builder<ChangedBlock> blocks = ImmutableList.builder();
+    int index = 0;
+    while (index < replacements.size()) {
+      Replacement first = replacements.get(index);
+      int firstLine = getLineNumber(lineStarts, first.startPosition());
+      int lastLine = getLastLineNumber(lineStarts, first);
+
+      int end = index + 1;
+      while (end < replacements.size()
+          && getLineNumber(lineStarts, replacements.get(end).startPosition()) <= lastLine) {
+        lastLine = Math.max(lastLine, getLastLineNumber(lineStarts, replacements.get(end)));
+        end++;
+      }
+
+      int blockStart = lineStarts[firstLine];
+      int blockEnd = getLineEnd(source, lineStarts, lastLine);
+      StringBuilder patched = new StringBuilder();
+      int position = blockStart;
+      for (Replacement replacement : replacements.subList(index, end)) {
+        patched
+            .append(source, position, replacement.startPosition())
+            .append(replacement.replaceWith());
+        position = replacement.endPosition();
+      }
+      patched.append(source, position, blockEnd);
+
+      String replacement = patched.toString();
+      if (!replacement.equals(source.substring(blockStart, blockEnd))) {
+        blocks.add(new ChangedBlock(firstLine, lastLine, replacement));
+      }
+      index = end;
+    }
+
+    return blocks.build();
+  }
+
+  /** Returns the start offsets of all (zero-indexed) lines of the given source code. */
+  private static int[] getLineStarts(String source) {
+    List<Integer> lineStarts = new ArrayList<>();
+    lineStarts.add(0);
+    for (int i = 0; i < source.length() - 1; i++) {
+      if (source.charAt(i) == '\n') {
+        lineStarts.add(i + 1);
+      }
+    }
+    return lineStarts.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  private static int getLineNumber(int[] lineStarts, int position) {
+    int index = Arrays.binarySearch(lineStarts, position);
+    return index >= 0 ? index : -index - 2;
+  }
+
+  private static int getLastLineNumber(int[] lineStarts, Replacement replacement) {
+    return getLineNumber(
+        lineStarts, Math.max(replacement.startPosition(), replacement.endPosition() - 1));
+  }
+
+  private static int getLineEnd(String source, int[] lineStarts, int line) {
+    return line + 1 < lineStarts.length ? lineStarts[line + 1] : source.length();
+  }
+
+  private static String getLine(String source, int[] lineStarts, int line) {
+    return source.substring(lineStarts[line], getLineEnd(source, lineStarts, line));
+  }
+
+  private static ImmutableList<String> splitLines(String text) {
+    ImmutableList.Builder<String> lines = ImmutableList.builder();
+    int start = 0;
+    while (start < text.length()) {
+      int end = text.indexOf('\n', start);
+      int lineEnd = end < 0 ? text.length() : end + 1;
+      lines.add(text.substring(start, lineEnd));
+      start = lineEnd;
+    }
+    return lines.build();
+  }
+
+  private static void appendLine(StringBuilder diff, char prefix, String line) {
+    diff.append(prefix).append(line);
+    if (!line.endsWith("\n")) {
+      diff.append("\n\\ No newline at end of file\n");
+    }
+  }
+
+  /** A range of whole source lines, along with the text by which they are to be replaced. */
+  private static final class ChangedBlock {
+    private final int firstLine;
+    private final int lastLine;
+    private final String replacement;
+
+    ChangedBlock(int firstLine, int lastLine, String replacement) {
+      this.firstLine = firstLine;
+      this.lastLine = lastLine;
+      this.replacement = replacement;
+    }
+  }
+}
@@ -1,6 +1,5 @@
 package tech.picnic.errorprone.refaster.runner;
 
-import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableRangeSet.toImmutableRangeSet;
 import static com.google.errorprone.BugPattern.LinkType.NONE;
 import static com.google.errorprone.BugPattern.SeverityLevel.ERROR;
@@ -10,17 +9,17 @@ import static com.google.errorprone.BugPattern.StandardTags.SIMPLIFICATION;
 import static java.util.function.Predicate.not;
 
 import com.google.auto.service.AutoService;
-import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableRangeSet;
+import com.google.common.collect.Multimaps;
 import com.google.common.collect.Range;
 import com.google.common.collect.RangeSet;
 import com.google.common.collect.TreeRangeSet;
 import com.google.errorprone.BugPattern;
 import com.google.errorprone.BugPattern.SeverityLevel;
 import com.google.errorprone.CodeTransformer;
-import com.google.errorprone.CompositeCodeTransformer;
+import com.google.errorprone.DescriptionListener;
 import com.google.errorprone.ErrorProneFlags;
 import com.google.errorprone.ErrorProneOptions.Severity;
 import com.google.errorprone.SubContext;
@@ -30,16 +29,27 @@ import com.google.errorprone.bugpatterns.BugChecker;
 import com.google.errorprone.bugpatterns.BugChecker.CompilationUnitTreeMatcher;
 import com.google.errorprone.fixes.Replacement;
 import com.google.errorprone.matchers.Description;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.ClassTree;
 import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.LineMap;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreePath;
 import com.sun.tools.javac.tree.EndPosTable;
 import com.sun.tools.javac.tree.JCTree.JCCompilationUnit;
+import com.sun.tools.javac.util.Context;
+import com.sun.tools.javac.util.JCDiagnostic.DiagnosticPosition;
+import com.sun.tools.javac.util.Position;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
+import org.jspecify.annotations.Nullable;
 
 /**
  * A {@link BugChecker} that flags code that can be simplified using Refaster rules located on the
@@ -48,6 +58,17 @@ import java.util.stream.Stream;
  * <p>This checker locates all {@code *.refaster} classpath resources and assumes that they contain
  * a {@link CodeTransformer}. The set of loaded Refaster rules can be restricted by passing {@code
  * -XepOpt:Refaster:NamePattern=<someRegex>}.
+ *
+ * <p>The analysis can be restricted to a subset of source code lines, such as those changed by a
+ * pull request, by passing {@code -XepOpt:Refaster:ChangedLines=<path>}. See {@link ChangedLines}
+ * for the supported file formats.
+ *
+ * <p>The suggested fixes can additionally be exported to a unified diff file, suitable for use
+ * with {@code git apply}, by passing {@code -XepOpt:Refaster:PatchFile=<path>}. See {@link
+ * PatchFile} for details.
+ *
+ * <p>The time spent loading and applying Refaster rules can be analyzed using the Java Flight
+ * Recorder events defined in {@link RefasterEvents}.
  */
 @AutoService(BugChecker.class)
 @BugPattern(
@@ -62,7 +83,9 @@ public final class Refaster extends BugChecker implements CompilationUnitTreeMat
   private static final long serialVersionUID = 1L;
 
   @SuppressWarnings("serial" /* Concrete instance will be `Serializable`. */)
-  private final CodeTransformer codeTransformer;
+  private final ImmutableListMultimap<String, CodeTransformer> codeTransformers;
+  private final ChangedLines changedLines;
+  private final @Nullable String patchFile;
 
   /** Instantiates a default {@link Refaster} instance. */
   public Refaster() {
@@ -75,16 +98,34 @@ public final class Refaster extends BugChecker implements CompilationUnitTreeMat
    * @param flags Any provided command line flags.
    */
   public Refaster(ErrorProneFlags flags) {
-    codeTransformer = createCompositeCodeTransformer(flags);
+    codeTransformers = selectCodeTransformers(flags);
+    changedLines = ChangedLines.fromFlags(flags);
+    patchFile = flags.get(PatchFile.PATCH_FILE_FLAG).orElse(null);
   }
 
   @CanIgnoreReturnValue
   @Override
   public Description matchCompilationUnit(CompilationUnitTree tree, VisitorState state) {
+    /*
+     * The patch file is initialized for every compilation unit, even those without (relevant)
+     * matches, such that a compilation without any fixes doesn't leave a stale patch file behind.
+     */
+    @Nullable PatchFile patch =
+        patchFile == null ? null : PatchFile.instance(state.context, Path.of(patchFile));
+
+    ImmutableRangeSet<Integer> lines = changedLines.getChangedLines(tree);
+    if (lines.isEmpty()) {
+      /* This compilation unit contains no code of interest. */
+      return Description.NO_MATCH;
+    }
+
+    RefasterEvents.CompilationUnitMatch event = new RefasterEvents.CompilationUnitMatch();
+    event.begin();
+
     /* First, collect all matches. */
     List<Description> matches = new ArrayList<>();
     try {
-      codeTransformer.apply(state.getPath(), new SubContext(state.context), matches::add);
+      applyCodeTransformers(tree, getPathsToAnalyze(lines, state), state, matches);
     } catch (LinkageError e) {
       // XXX: This `try/catch` block handles the issue described and resolved in
       // https://github.com/google/error-prone/pull/2456. Drop this block once that change is
@@ -94,12 +135,126 @@ public final class Refaster extends BugChecker implements CompilationUnitTreeMat
       return Description.NO_MATCH;
     }
     /* Then apply them. */
-    applyMatches(matches, ((JCCompilationUnit) tree).endPositions, state);
+    if (changedLines.isRestricted()) {
+      matches.removeIf(match -> !lines.intersects(getLineRange(match.position, tree)));
+    }
+    applyMatches(matches, tree, state, patch);
+
+    if (event.shouldCommit()) {
+      event.sourceFile = getSourceFileName(tree);
+      event.matchCount = matches.size();
+      event.commit();
+    }
 
     /* Any matches were already reported by the code above, directly to the `VisitorState`. */
     return Description.NO_MATCH;
   }
 
+  /**
+   * Returns the paths of the subtrees of the current compilation unit that overlap with the given
+   * lines.
+   *
+   * <p>If the analysis is not restricted, then this is just the path to the compilation unit
+   * itself. Otherwise it is the list of class members (other than nested classes, which are
+   * inspected recursively) that overlap with the given lines.
+   */
+  private ImmutableList<TreePath> getPathsToAnalyze(
+      ImmutableRangeSet<Integer> lines, VisitorState state) {
+    TreePath compilationUnit = state.getPath();
+    if (!changedLines.isRestricted()) {
+      return ImmutableList.of(compilationUnit);
+    }
+
+    ImmutableList.Builder<TreePath> paths = ImmutableList.builder();
+    collectChangedMembers(
+        compilationUnit,
+        compilationUnit.getCompilationUnit().getTypeDecls(),
+        lines,
+        state,
+        paths);
+    return paths.build();
+  }
+
+  private static void collectChangedMembers(
+      TreePath parent,
+      List<? extends Tree> members,
+      ImmutableRangeSet<Integer> lines,
+      VisitorState state,
+      ImmutableList.Builder<TreePath> paths) {
+    for (Tree member : members) {
+      if (overlaps(member, lines, state)) {
+        TreePath path = new TreePath(parent, member);
+        if (member instanceof ClassTree) {
+          collectChangedMembers(path, ((ClassTree) member).getMembers(), lines, state, paths);
+        } else {
+          paths.add(path);
+        }
+      }
+    }
+  }
+
+  private static boolean overlaps(Tree tree, ImmutableRangeSet<Integer> lines, VisitorState state) {
+    LineMap lineMap = state.getPath().getCompilationUnit().getLineMap();
+    int startPosition = ASTHelpers.getStartPosition(tree);
+    int endPosition = state.getEndPosition(tree);
+    return startPosition != Position.NOPOS
+        && endPosition != Position.NOPOS
+        && lines.intersects(
+            Range.closed(
+                (int) lineMap.getLineNumber(startPosition),
+                (int) lineMap.getLineNumber(endPosition)));
+  }
+
+  /** Returns the range of lines spanned by the code at the given position. */
+  private static Range<Integer> getLineRange(
+      DiagnosticPosition position, CompilationUnitTree tree) {
+    LineMap lineMap = tree.getLineMap();
+    int startPosition = position.getStartPosition();
+    int endPosition = position.getEndPosition(((JCCompilationUnit) tree).endPositions);
+    return Range.closed(
+        (int) lineMap.getLineNumber(startPosition),
+        (int) lineMap.getLineNumber(endPosition == Position.NOPOS ? startPosition : endPosition));
+  }
+
+  /**
+   * Applies each of the selected {@link CodeTransformer}s to the given subtrees of the given
+   * compilation unit, collecting the resultant matches.
+   *
+   * @implNote The {@link CodeTransformer}s are applied one by one, rather than through a {@link
+   *     com.google.errorprone.CompositeCodeTransformer}, such that the time spent on each Refaster
+   *     rule can be reported using a {@link RefasterEvents.RuleMatch} event.
+   */
+  private void applyCodeTransformers(
+      CompilationUnitTree tree,
+      ImmutableList<TreePath> paths,
+      VisitorState state,
+      List<Description> matches) {
+    Context context = new SubContext(state.context);
+    DescriptionListener listener = matches::add;
+    /* Per-rule events are only instantiated if they may be recorded. */
+    boolean recordRuleMatches = RefasterEvents.isRuleMatchEnabled();
+
+    for (Map.Entry<String, CodeTransformer> transformer : codeTransformers.entries()) {
+      @Nullable RefasterEvents.RuleMatch event = null;
+      if (recordRuleMatches) {
+        event = new RefasterEvents.RuleMatch();
+        event.begin();
+      }
+      int matchCountBefore = matches.size();
+
+      for (TreePath path : paths) {
+        transformer.getValue().apply(path, context, listener);
+      }
+
+      if (event != null && event.shouldCommit()) {
+        event.sourceFile = getSourceFileName(tree);
+        event.rule = transformer.getKey();
+        event.matchCount = matches.size() - matchCountBefore;
+        event.commit();
+      }
+    }
+  }
+
   /**
    * Reports a subset of the given matches, such that no two reported matches suggest a replacement
    * of the same part of the source code.
@@ -111,7 +266,14 @@ public final class Refaster extends BugChecker implements CompilationUnitTreeMat
   // XXX: This selection logic solves an issue described in
   // https://github.com/google/error-prone/issues/559. Consider contributing it back upstream.
   private void applyMatches(
-      Iterable<Description> allMatches, EndPosTable endPositions, VisitorState state) {
+      Collection<Description> allMatches,
+      CompilationUnitTree tree,
+      VisitorState state,
+      @Nullable PatchFile patch) {
+    RefasterEvents.OverlapResolution event = new RefasterEvents.OverlapResolution();
+    event.begin();
+
+    EndPosTable endPositions = ((JCCompilationUnit) tree).endPositions;
     ImmutableList<Description> byReplacementSize =
         ImmutableList.sortedCopyOf(
             Comparator.<Description>comparingInt(d -> getReplacedCodeSize(d, endPositions))
@@ -120,14 +282,31 @@ public final class Refaster extends BugChecker implements CompilationUnitTreeMat
             allMatches);
 
     RangeSet<Integer> replacedSections = TreeRangeSet.create();
+    List<Description> reported = new ArrayList<>();
     for (Description description : byReplacementSize) {
       ImmutableRangeSet<Integer> ranges = getReplacementRanges(description, endPositions);
       if (ranges.asRanges().stream().noneMatch(replacedSections::intersects)) {
         /* This suggested fix does not overlap with any ("larger") replacement seen until now. Apply it. */
         state.reportMatch(augmentDescription(description, getSeverityOverride(state)));
         replacedSections.addAll(ranges);
+        reported.add(description);
       }
     }
+
+    if (patch != null && !reported.isEmpty()) {
+      patch.write((JCCompilationUnit) tree, reported);
+    }
+
+    if (event.shouldCommit()) {
+      event.sourceFile = getSourceFileName(tree);
+      event.candidateCount = allMatches.size();
+      event.reportedCount = reported.size();
+      event.commit();
+    }
+  }
+
+  private static String getSourceFileName(CompilationUnitTree tree) {
+    return tree.getSourceFile().getName();
   }
 
   private Optional<SeverityLevel> getSeverityOverride(VisitorState state) {
@@ -196,23 +375,20 @@ public final class Refaster extends BugChecker implements CompilationUnitTreeMat
     return description.fixes.stream().flatMap(fix -> fix.getReplacements(endPositions).stream());
   }
 
-  private static CodeTransformer createCompositeCodeTransformer(ErrorProneFlags flags) {
+  private static ImmutableListMultimap<String, CodeTransformer> selectCodeTransformers(
+      ErrorProneFlags flags) {
     ImmutableListMultimap<String, CodeTransformer> allTransformers =
         CodeTransformers.getAllCodeTransformers();
-    return CompositeCodeTransformer.compose(
-        flags
-            .get(INCLUDED_RULES_PATTERN_FLAG)
-            .map(Pattern::compile)
-            .<ImmutableCollection<CodeTransformer>>map(
-                nameFilter -> filterCodeTransformers(allTransformers, nameFilter))
-            .orElseGet(allTransformers::values));
+    return flags
+        .get(INCLUDED_RULES_PATTERN_FLAG)
+        .map(Pattern::compile)
+        .map(nameFilter -> filterCodeTransformers(allTransformers, nameFilter))
+        .orElse(allTransformers);
   }
 
-  private static ImmutableList<CodeTransformer> filterCodeTransformers(
+  private static ImmutableListMultimap<String, CodeTransformer> filterCodeTransformers(
       ImmutableListMultimap<String, CodeTransformer> transformers, Pattern nameFilter) {
-    return transformers.entries().stream()
-        .filter(e -> nameFilter.matcher(e.getKey()).matches())
-        .map(Map.Entry::getValue)
-        .collect(toImmutableList());
+    return ImmutableListMultimap.copyOf(
+        Multimaps.filterKeys(transformers, name -> nameFilter.matcher(name).matches()));
   }
 }
@@ -0,0 +1,97 @@
+package tech.picnic.errorprone.refaster.runner;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Java Flight Recorder events emitted by the {@link Refaster} bug checker and its supporting
+ * classes.
+ *
+ * <p>These events are disabled by default. They can be enabled through the Java Flight Recorder
+ * configuration, for example by passing {@code
+ * -XX:StartFlightRecording:tech.picnic.errorprone.refaster.RuleMatch#enabled=true} to the JVM
+ * running {@code javac}. While disabled, the overhead of these events is negligible, as their
+ * fields are only computed if the event is actually going to be committed, and per-rule events are
+ * not even instantiated.
+ */
+final class RefasterEvents {
+  private static final String CATEGORY = "Error Prone Support";
+
+  private RefasterEvents() {}
+
+  /**
+   * Tells whether {@link RuleMatch} events are currently enabled.
+   *
+   * <p>As such events are emitted for each Refaster rule collection and compilation unit, callers
+   * should consult this method once per compilation unit, and only instantiate {@link RuleMatch}
+   * events if it returns {@code true}.
+   */
+  static boolean isRuleMatchEnabled() {
+    return EventType.getEventType(RuleMatch.class).isEnabled();
+  }
+
+  /** An event that tracks the loading of Refaster rules from the classpath. */
+  @Name("tech.picnic.errorprone.refaster.RuleLoading")
+  @Label("Refaster Rule Loading")
+  @Category({CATEGORY, "Refaster"})
+  @Description("Loading of all Refaster rules found on the classpath")
+  @Enabled(false)
+  static final class RuleLoading extends Event {
+    @Label("Rule Count")
+    int ruleCount;
+  }
+
+  /** An event that tracks the application of all Refaster rules to a compilation unit. */
+  @Name("tech.picnic.errorprone.refaster.CompilationUnitMatch")
+  @Label("Refaster Compilation Unit Match")
+  @Category({CATEGORY, "Refaster"})
+  @Description("Application of all enabled Refaster rules to a single compilation unit")
+  @Enabled(false)
+  static final class CompilationUnitMatch extends Event {
+    @Label("Source File")
+    @Nullable String sourceFile;
+
+    @Label("Match Count")
+    int matchCount;
+  }
+
+  /** An event that tracks the application of a single Refaster rule to a compilation unit. */
+  @Name("tech.picnic.errorprone.refaster.RuleMatch")
+  @Label("Refaster Rule Match")
+  @Category({CATEGORY, "Refaster"})
+  @Description("Application of a single Refaster rule to a single compilation unit")
+  @Enabled(false)
+  static final class RuleMatch extends Event {
+    @Label("Source File")
+    @Nullable String sourceFile;
+
+    @Label("Rule")
+    @Nullable String rule;
+
+    @Label("Match Count")
+    int matchCount;
+  }
+
+  /** An event that tracks the selection of non-overlapping Refaster rule matches. */
+  @Name("tech.picnic.errorprone.refaster.OverlapResolution")
+  @Label("Refaster Overlap Resolution")
+  @Category({CATEGORY, "Refaster"})
+  @Description("Selection of non-overlapping Refaster rule matches within a compilation unit")
+  @Enabled(false)
+  static final class OverlapResolution extends Event {
+    @Label("Source File")
+    @Nullable String sourceFile;
+
+    @Label("Candidate Count")
+    int candidateCount;
+
+    @Label("Reported Count")
+    int reportedCount;
+  }
+}
@@ -8,6 +8,7 @@ import com.google.errorprone.refaster.annotation.AfterTemplate;
 import com.google.errorprone.refaster.annotation.BeforeTemplate;
 import tech.picnic.errorprone.refaster.annotation.Description;
 import tech.picnic.errorprone.refaster.annotation.OnlineDocumentation;
+import tech.picnic.errorprone.refaster.annotation.PerformanceRelated;
 import tech.picnic.errorprone.refaster.annotation.Severity;
 
 /** An example rule collection used to test {@link CodeTransformers} and {@link Refaster}. */
@@ -59,6 +60,20 @@ final class FooRules {
     }
   }
 
+  /** A simple rule for testing purposes, marked as performance-related. */
+  @PerformanceRelated
+  static final class StringOfSizeFourRule {
+    @BeforeTemplate
+    boolean before(String string) {
+      return string.toCharArray().length == 4;
+    }
+
+    @AfterTemplate
+    boolean after(String string) {
+      return string.length() == 4;
+    }
+  }
+
   /** A nested class with annotations that are inherited by the Refaster rules contained in it. */
   @Description("A custom subgroup description")
   @OnlineDocumentation("https://example.com/rule/${topLevelClassName}#${nestedClassName}")
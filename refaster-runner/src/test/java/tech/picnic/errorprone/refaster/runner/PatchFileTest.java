@@ -0,0 +1,115 @@
+package tech.picnic.errorprone.refaster.runner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.fixes.Replacement;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+final class PatchFileTest {
+  @Test
+  void toUnifiedDiffWithoutChanges() {
+    assertThat(
+            PatchFile.toUnifiedDiff(
+                "A.java", "a\nb\n", ImmutableList.of(Replacement.create(0, 1, "a"))))
+        .isEmpty();
+  }
+
+  @Test
+  void toUnifiedDiffSingleReplacement() {
+    assertThat(
+            PatchFile.toUnifiedDiff(
+                "pkg/A.java",
+                "a\nb\nc\nd\ne\nf\ng\nh\ni\n",
+                ImmutableList.of(Replacement.create(8, 9, "E"))))
+        .isEqualTo(
+            String.join(
+                "\n",
+                "--- a/pkg/A.java",
+                "+++ b/pkg/A.java",
+                "@@ -2,7 +2,7 @@",
+                " b",
+                " c",
+                " d",
+                "-e",
+                "+E",
+                " f",
+                " g",
+                " h",
+                ""));
+  }
+
+  @Test
+  void toUnifiedDiffMultipleHunks() {
+    String source =
+        IntStream.rangeClosed(1, 20).mapToObj(i -> i + "\n").collect(Collectors.joining());
+
+    assertThat(
+            PatchFile.toUnifiedDiff(
+                "A.java",
+                source,
+                ImmutableList.of(
+                    Replacement.create(2, 4, ""), Replacement.create(33, 35, "15a\n15b"))))
+        .isEqualTo(
+            String.join(
+                "\n",
+                "--- a/A.java",
+                "+++ b/A.java",
+                "@@ -1,5 +1,4 @@",
+                " 1",
+                "-2",
+                " 3",
+                " 4",
+                " 5",
+                "@@ -12,7 +11,8 @@",
+                " 12",
+                " 13",
+                " 14",
+                "-15",
+                "+15a",
+                "+15b",
+                " 16",
+                " 17",
+                " 18",
+                ""));
+  }
+
+  @Test
+  void toUnifiedDiffMultipleReplacementsOnSameLine() {
+    assertThat(
+            PatchFile.toUnifiedDiff(
+                "A.java",
+                "foo(a, b);\n",
+                ImmutableList.of(Replacement.create(4, 5, "x"), Replacement.create(7, 8, "y"))))
+        .isEqualTo(
+            String.join(
+                "\n",
+                "--- a/A.java",
+                "+++ b/A.java",
+                "@@ -1,1 +1,1 @@",
+                "-foo(a, b);",
+                "+foo(x, y);",
+                ""));
+  }
+
+  @Test
+  void toUnifiedDiffWithoutTrailingNewline() {
+    assertThat(
+            PatchFile.toUnifiedDiff(
+                "A.java", "a\nb", ImmutableList.of(Replacement.create(2, 3, "c"))))
+        .isEqualTo(
+            String.join(
+                "\n",
+                "--- a/A.java",
+                "+++ b/A.java",
+                "@@ -1,2 +1,2 @@",
+                " a",
+                "-b",
+                "\\ No newline at end of file",
+                "+c",
+                "\\ No newline at end of file",
+                ""));
+  }
+}
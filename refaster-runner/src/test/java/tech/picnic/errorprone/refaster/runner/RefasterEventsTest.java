@@ -0,0 +1,95 @@
+package tech.picnic.errorprone.refaster.runner;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import java.io.IOException;
+import java.nio.file.Path;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class RefasterEventsTest {
+  @Test
+  void isRuleMatchEnabled() {
+    assertThat(RefasterEvents.isRuleMatchEnabled()).isFalse();
+
+    try (Recording recording = new Recording()) {
+      recording.enable(RefasterEvents.RuleMatch.class);
+      recording.start();
+      assertThat(RefasterEvents.isRuleMatchEnabled()).isTrue();
+    }
+  }
+
+  @Test
+  void events(@TempDir Path tempDir) throws IOException {
+    Path recordingFile = tempDir.resolve("refaster.jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(RefasterEvents.CompilationUnitMatch.class);
+      recording.enable(RefasterEvents.RuleMatch.class);
+      recording.enable(RefasterEvents.OverlapResolution.class);
+      recording.start();
+
+      BugCheckerRefactoringTestHelper.newInstance(Refaster.class, getClass())
+          .addInputLines(
+              "A.java",
+              "class A {",
+              "  boolean b1 = \"foo\".toCharArray().length == 0;",
+              "  boolean b2 = \"bar\".toCharArray().length == 1;",
+              "}")
+          .addOutputLines(
+              "A.java",
+              "class A {",
+              "  boolean b1 = \"foo\".isEmpty();",
+              "  boolean b2 = \"bar\".length() == 1;",
+              "}")
+          .doTest(TestMode.TEXT_MATCH);
+
+      recording.stop();
+      recording.dump(recordingFile);
+    }
+
+    ImmutableList<RecordedEvent> events =
+        ImmutableList.copyOf(RecordingFile.readAllEvents(recordingFile));
+
+    /*
+     * Both `StringOfSizeZeroRule` and `StringOfSizeZeroVerboseRule` match the first field, but only
+     * one of these matches is reported.
+     */
+    assertThat(getEvents(events, "CompilationUnitMatch"))
+        .singleElement()
+        .satisfies(
+            event -> {
+              assertThat(event.getString("sourceFile")).endsWith("A.java");
+              assertThat(event.getInt("matchCount")).isEqualTo(3);
+            });
+    assertThat(getEvents(events, "RuleMatch"))
+        .filteredOn(event -> "FooRules".equals(event.getString("rule")))
+        .singleElement()
+        .satisfies(
+            event -> {
+              assertThat(event.getString("sourceFile")).endsWith("A.java");
+              assertThat(event.getInt("matchCount")).isEqualTo(3);
+            });
+    assertThat(getEvents(events, "OverlapResolution"))
+        .singleElement()
+        .satisfies(
+            event -> {
+              assertThat(event.getString("sourceFile")).endsWith("A.java");
+              assertThat(event.getInt("candidateCount")).isEqualTo(3);
+              assertThat(event.getInt("reportedCount")).isEqualTo(2);
+            });
+  }
+
+  private static ImmutableList<RecordedEvent> getEvents(
+      ImmutableList<RecordedEvent> events, String simpleName) {
+    return events.stream()
+        .filter(event -> event.getEventType().getName().endsWith('.' + simpleName))
+        .collect(toImmutableList());
+  }
+}
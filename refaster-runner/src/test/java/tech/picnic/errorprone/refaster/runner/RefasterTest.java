@@ -5,6 +5,7 @@ import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.errorprone.BugPattern.SeverityLevel.ERROR;
 import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
 import static com.google.errorprone.BugPattern.SeverityLevel.WARNING;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Comparator.comparingInt;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -16,9 +17,13 @@ import com.google.errorprone.BugCheckerRefactoringTestHelper;
 import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
 import com.google.errorprone.BugPattern.SeverityLevel;
 import com.google.errorprone.CompilationTestHelper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -186,6 +191,58 @@ final class RefasterTest {
                     .containsExactlyElementsOf(expectedSeverities));
   }
 
+  /**
+   * Verifies that matches of performance-related Refaster rules are reported with escalated
+   * severity inside code annotated with {@link tech.picnic.errorprone.refaster.annotation.HotPath}.
+   */
+  @Test
+  void hotPathSeverityEscalation() {
+    assertThatThrownBy(
+            () ->
+                compilationHelper
+                    .addSourceLines(
+                        "A.java",
+                        "import static com.google.errorprone.BugPattern.SeverityLevel.ERROR;",
+                        "",
+                        "import tech.picnic.errorprone.refaster.annotation.HotPath;",
+                        "",
+                        "class A {",
+                        "  void m() {",
+                        "    boolean[] bs = {",
+                        "      \"foo\".toCharArray().length == 4,",
+                        "      \"bar\".toCharArray().length == 1",
+                        "    };",
+                        "  }",
+                        "",
+                        "  @HotPath",
+                        "  void hot() {",
+                        "    boolean[] bs = {",
+                        "      \"baz\".toCharArray().length == 4,",
+                        "      \"qux\".toCharArray().length == 3",
+                        "    };",
+                        "  }",
+                        "",
+                        "  @HotPath(ERROR)",
+                        "  static final class B {",
+                        "    boolean m() {",
+                        "      return \"quux\".toCharArray().length == 4;",
+                        "    }",
+                        "",
+                        "    @HotPath",
+                        "    boolean hot() {",
+                        "      return \"corge\".toCharArray().length == 4;",
+                        "    }",
+                        "  }",
+                        "}")
+                    .doTest())
+        .isInstanceOf(AssertionError.class)
+        .message()
+        .satisfies(
+            message ->
+                assertThat(extractRefasterSeverities("A.java", message))
+                    .containsExactly(SUGGESTION, WARNING, WARNING, SUGGESTION, ERROR, WARNING));
+  }
+
   private static ImmutableList<SeverityLevel> extractRefasterSeverities(
       String fileName, String message) {
     return Pattern.compile(
@@ -265,4 +322,204 @@ final class RefasterTest {
             "}")
         .doTest(TestMode.TEXT_MATCH);
   }
+
+  @Test
+  void changedLinesReplacement(@TempDir Path tempDir) throws IOException {
+    Path changedLines = tempDir.resolve("changed-lines.txt");
+    Files.writeString(changedLines, String.join("\n", "# Comment", "pkg/A.java:3,5-5"), UTF_8);
+
+    BugCheckerRefactoringTestHelper.newInstance(Refaster.class, getClass())
+        .setArgs("-XepOpt:Refaster:ChangedLines=" + changedLines)
+        .addInputLines(
+            "pkg/A.java",
+            "package pkg;",
+            "class A {",
+            "  boolean b1 = \"foo\".toCharArray().length == 0;",
+            "  boolean b2 = \"bar\".toCharArray().length == 1;",
+            "  boolean b3 = \"baz\".toCharArray().length == 2;",
+            "  boolean b4 = \"qux\".toCharArray().length == 3;",
+            "}")
+        .addOutputLines(
+            "pkg/A.java",
+            "package pkg;",
+            "class A {",
+            "  boolean b1 = \"foo\".isEmpty();",
+            "  boolean b2 = \"bar\".toCharArray().length == 1;",
+            "  boolean b3 = \"baz\".length() == 2;",
+            "  boolean b4 = \"qux\".toCharArray().length == 3;",
+            "}")
+        .addInputLines(
+            "pkg/B.java",
+            "package pkg;",
+            "class B {",
+            "  boolean b1 = \"foo\".toCharArray().length == 0;",
+            "}")
+        .expectUnchanged()
+        .doTest(TestMode.TEXT_MATCH);
+  }
+
+  @Test
+  void changedLinesFromUnifiedDiffReplacement(@TempDir Path tempDir) throws IOException {
+    Path diff = tempDir.resolve("changes.diff");
+    Files.writeString(
+        diff,
+        String.join(
+            "\n",
+            "diff --git a/A.java b/A.java",
+            "--- a/A.java",
+            "+++ b/A.java",
+            "@@ -3,3 +3,3 @@ class A {",
+            "   void m() {",
+            "-    boolean b1 = false;",
+            "+    boolean b1 = \"foo\".toCharArray().length == 0;",
+            "     boolean b2 = \"bar\".toCharArray().length == 1;",
+            "diff --git a/B.java b/B.java",
+            "deleted file mode 100644",
+            "--- a/B.java",
+            "+++ /dev/null",
+            "@@ -1 +0,0 @@",
+            "-class B {}"),
+        UTF_8);
+
+    BugCheckerRefactoringTestHelper.newInstance(Refaster.class, getClass())
+        .setArgs("-XepOpt:Refaster:ChangedLines=" + diff)
+        .addInputLines(
+            "A.java",
+            "class A {",
+            "",
+            "  void m() {",
+            "    boolean b1 = \"foo\".toCharArray().length == 0;",
+            "    boolean b2 = \"bar\".toCharArray().length == 1;",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "class A {",
+            "",
+            "  void m() {",
+            "    boolean b1 = \"foo\".isEmpty();",
+            "    boolean b2 = \"bar\".toCharArray().length == 1;",
+            "  }",
+            "}")
+        .doTest(TestMode.TEXT_MATCH);
+  }
+
+  @Test
+  void changedLinesMultiLineMatchReplacement(@TempDir Path tempDir) throws IOException {
+    Path changedLines = tempDir.resolve("changed-lines.txt");
+    Files.writeString(changedLines, "A.java:7", UTF_8);
+
+    BugCheckerRefactoringTestHelper.newInstance(Refaster.class, getClass())
+        .setArgs("-XepOpt:Refaster:ChangedLines=" + changedLines)
+        .addInputLines(
+            "A.java",
+            "class A {",
+            "  boolean b1 =",
+            "      \"foo\".toCharArray().length",
+            "          == 0;",
+            "  boolean b2 =",
+            "      \"bar\".toCharArray().length",
+            "          == 1;",
+            "  boolean b3 =",
+            "      \"baz\".toCharArray().length",
+            "          == 2;",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "class A {",
+            "  boolean b1 =",
+            "      \"foo\".toCharArray().length",
+            "          == 0;",
+            "  boolean b2 =",
+            "      \"bar\".length() == 1;",
+            "  boolean b3 =",
+            "      \"baz\".toCharArray().length",
+            "          == 2;",
+            "}")
+        .doTest(TestMode.TEXT_MATCH);
+  }
+
+  @Test
+  void changedLinesFromUnifiedDiffWithAmbiguousLinesReplacement(@TempDir Path tempDir)
+      throws IOException {
+    Path diff = tempDir.resolve("changes.diff");
+    Files.writeString(
+        diff,
+        String.join(
+            "\n",
+            "--- a/A.java",
+            "+++ b/A.java",
+            "@@ -2,4 +2,5 @@ class A {",
+            "   void m(int i) {",
+            "+++ i;",
+            "     boolean b1 = \"foo\".toCharArray().length == 0;",
+            "-    boolean b2 = false;",
+            "+    boolean b2 = \"bar\".toCharArray().length == 1;",
+            "   }"),
+        UTF_8);
+
+    BugCheckerRefactoringTestHelper.newInstance(Refaster.class, getClass())
+        .setArgs("-XepOpt:Refaster:ChangedLines=" + diff)
+        .addInputLines(
+            "A.java",
+            "class A {",
+            "  void m(int i) {",
+            "++ i;",
+            "    boolean b1 = \"foo\".toCharArray().length == 0;",
+            "    boolean b2 = \"bar\".toCharArray().length == 1;",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "class A {",
+            "  void m(int i) {",
+            "++ i;",
+            "    boolean b1 = \"foo\".toCharArray().length == 0;",
+            "    boolean b2 = \"bar\".length() == 1;",
+            "  }",
+            "}")
+        .doTest(TestMode.TEXT_MATCH);
+  }
+
+  @Test
+  void patchFile(@TempDir Path tempDir) throws IOException {
+    Path patchFile = tempDir.resolve("target/refaster.patch");
+
+    BugCheckerRefactoringTestHelper.newInstance(Refaster.class, getClass())
+        .setArgs("-XepOpt:Refaster:PatchFile=" + patchFile)
+        .addInputLines(
+            "A.java",
+            "class A {",
+            "  boolean b1 = \"foo\".toCharArray().length == 0;",
+            "  boolean b2 = \"bar\".isEmpty();",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "class A {",
+            "  boolean b1 = \"foo\".isEmpty();",
+            "  boolean b2 = \"bar\".isEmpty();",
+            "}")
+        .doTest(TestMode.TEXT_MATCH);
+
+    assertThat(Files.readString(patchFile, UTF_8))
+        .contains(
+            "@@ -1,4 +1,4 @@\n",
+            " class A {\n",
+            "-  boolean b1 = \"foo\".toCharArray().length == 0;\n",
+            "+  boolean b1 = \"foo\".isEmpty();\n",
+            "   boolean b2 = \"bar\".isEmpty();\n");
+  }
+
+  @Test
+  void patchFileWithoutFixes(@TempDir Path tempDir) throws IOException {
+    Path patchFile = tempDir.resolve("refaster.patch");
+    Files.writeString(patchFile, "--- a/Stale.java\n+++ b/Stale.java\n", UTF_8);
+
+    CompilationTestHelper.newInstance(Refaster.class, getClass())
+        .setArgs("-XepOpt:Refaster:PatchFile=" + patchFile)
+        .addSourceLines("A.java", "class A {", "  boolean b = \"foo\".isEmpty();", "}")
+        .doTest();
+
+    assertThat(patchFile).isEmptyFile();
+  }
 }
@@ -26,7 +26,9 @@ import java.lang.annotation.Annotation;
 import java.util.Iterator;
 import java.util.Optional;
 import java.util.function.Function;
+import tech.picnic.errorprone.refaster.annotation.HotPath;
 import tech.picnic.errorprone.refaster.annotation.OnlineDocumentation;
+import tech.picnic.errorprone.refaster.annotation.PerformanceRelated;
 import tech.picnic.errorprone.refaster.annotation.Severity;
 
 /**
@@ -73,19 +75,20 @@ public abstract class AnnotatedCompositeCodeTransformer implements CodeTransform
           path,
           context,
           description ->
-              listener.onDescribed(augmentDescription(description, transformer, context)));
+              listener.onDescribed(
+                  augmentDescription(description, transformer, path, context)));
     }
   }
 
   @SuppressWarnings("RestrictedApiChecker" /* We create a heavily customized `Description` here. */)
   private Description augmentDescription(
-      Description description, CodeTransformer delegate, Context context) {
+      Description description, CodeTransformer delegate, TreePath path, Context context) {
     String shortCheckName = getShortCheckName(description.checkName);
     return Description.builder(
             description.position,
             shortCheckName,
             getLinkPattern(delegate, shortCheckName).orElse(null),
-            overrideSeverity(getSeverity(delegate), context),
+            overrideSeverity(getSeverity(delegate), delegate, description, path, context),
             getDescription(delegate))
         .addAllFixes(description.fixes)
         .build();
@@ -144,12 +147,36 @@ public abstract class AnnotatedCompositeCodeTransformer implements CodeTransform
     return Optional.ofNullable(codeTransformer.annotations().getInstance(annotation));
   }
 
-  private static SeverityLevel overrideSeverity(SeverityLevel severity, Context context) {
+  private boolean isPerformanceRelated(CodeTransformer delegate) {
+    return getAnnotationValue(PerformanceRelated.class, a -> a, delegate).isPresent();
+  }
+
+  /**
+   * Returns the severity with which to report the given match, taking into account any applicable
+   * {@link HotPath} annotation and the Error Prone severity bounds.
+   *
+   * <p>Matches of {@link PerformanceRelated} rules inside {@link HotPath}-annotated code are
+   * reported with at least the severity specified by the innermost such annotation.
+   */
+  private SeverityLevel overrideSeverity(
+      SeverityLevel severity,
+      CodeTransformer delegate,
+      Description description,
+      TreePath path,
+      Context context) {
+    SeverityLevel effectiveSeverity =
+        isPerformanceRelated(delegate)
+            ? HotPaths.getSeverity(path, description.position.getStartPosition())
+                /* Note that more severe levels are ordered first. */
+                .map(hotPathSeverity -> Comparators.min(severity, hotPathSeverity))
+                .orElse(severity)
+            : severity;
+
     ErrorProneOptions options = context.get(ErrorProneOptions.class);
     SeverityLevel minSeverity =
         ErrorProneFork.isSuggestionsAsWarningsEnabled(options) ? WARNING : SUGGESTION;
     SeverityLevel maxSeverity = options.isDropErrorsToWarnings() ? WARNING : ERROR;
 
-    return Comparators.max(Comparators.min(severity, minSeverity), maxSeverity);
+    return Comparators.max(Comparators.min(effectiveSeverity, minSeverity), maxSeverity);
   }
 }
@@ -0,0 +1,101 @@
+package tech.picnic.errorprone.refaster;
+
+import com.google.errorprone.BugPattern.SeverityLevel;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.code.Attribute;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.tree.EndPosTable;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.JCTree.JCCompilationUnit;
+import java.util.Map;
+import java.util.Optional;
+import org.jspecify.annotations.Nullable;
+import tech.picnic.errorprone.refaster.annotation.HotPath;
+
+/** Utility methods for locating {@link HotPath}-annotated code. */
+final class HotPaths {
+  private static final String HOT_PATH_ANNOTATION = HotPath.class.getCanonicalName();
+
+  private HotPaths() {}
+
+  /**
+   * Returns the severity specified by the innermost {@link HotPath}-annotated method, constructor
+   * or class that encloses the given source position, if any.
+   *
+   * @param path The path to the compilation unit of interest.
+   * @param position The source position of interest.
+   * @return The applicable {@link HotPath#value()}, if any.
+   */
+  static Optional<SeverityLevel> getSeverity(TreePath path, int position) {
+    JCCompilationUnit compilationUnit = (JCCompilationUnit) path.getCompilationUnit();
+    EnclosingDeclarationScanner scanner =
+        new EnclosingDeclarationScanner(compilationUnit.endPositions, position);
+    scanner.scan(compilationUnit.getTypeDecls(), null);
+    return Optional.ofNullable(scanner.severity);
+  }
+
+  private static Optional<SeverityLevel> getSeverity(@Nullable Symbol symbol) {
+    if (symbol == null) {
+      return Optional.empty();
+    }
+
+    return symbol.getRawAttributes().stream()
+        .filter(a -> a.type.tsym.getQualifiedName().contentEquals(HOT_PATH_ANNOTATION))
+        .findFirst()
+        .map(HotPaths::getValue);
+  }
+
+  private static SeverityLevel getValue(Attribute.Compound annotation) {
+    return annotation.getElementValues().entrySet().stream()
+        .filter(e -> e.getKey().getSimpleName().contentEquals("value"))
+        .map(Map.Entry::getValue)
+        .filter(Attribute.Enum.class::isInstance)
+        .map(v -> SeverityLevel.valueOf(((Attribute.Enum) v).value.getSimpleName().toString()))
+        .findFirst()
+        .orElse(SeverityLevel.WARNING);
+  }
+
+  /**
+   * A {@link TreeScanner} that descends only into the declarations that enclose a given source
+   * position, tracking the severity specified by the innermost {@link HotPath} annotation.
+   */
+  private static final class EnclosingDeclarationScanner
+      extends TreeScanner<@Nullable Void, @Nullable Void> {
+    private final EndPosTable endPositions;
+    private final int position;
+    private @Nullable SeverityLevel severity;
+
+    EnclosingDeclarationScanner(EndPosTable endPositions, int position) {
+      this.endPositions = endPositions;
+      this.position = position;
+    }
+
+    @Override
+    public @Nullable Void scan(@Nullable Tree tree, @Nullable Void unused) {
+      return tree == null || encloses(tree) ? super.scan(tree, null) : null;
+    }
+
+    @Override
+    public @Nullable Void visitClass(ClassTree tree, @Nullable Void unused) {
+      getSeverity(ASTHelpers.getSymbol(tree)).ifPresent(s -> severity = s);
+      return super.visitClass(tree, null);
+    }
+
+    @Override
+    public @Nullable Void visitMethod(MethodTree tree, @Nullable Void unused) {
+      getSeverity(ASTHelpers.getSymbol(tree)).ifPresent(s -> severity = s);
+      return super.visitMethod(tree, null);
+    }
+
+    private boolean encloses(Tree tree) {
+      JCTree jcTree = (JCTree) tree;
+      return jcTree.getStartPosition() <= position
+          && position < jcTree.getEndPosition(endPositions);
+    }
+  }
+}
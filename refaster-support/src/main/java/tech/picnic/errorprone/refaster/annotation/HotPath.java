@@ -0,0 +1,29 @@
+package tech.picnic.errorprone.refaster.annotation;
+
+import com.google.errorprone.BugPattern.SeverityLevel;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates that the annotated code is latency-critical.
+ *
+ * <p>Unlike the other annotations in this package, this annotation is meant to be placed on
+ * regular (non-Refaster) code. Performance-related findings reported inside annotated code are
+ * escalated to (at least) the specified severity; this applies to matches of {@link
+ * PerformanceRelated} Refaster rules and to findings of performance-related bug checkers.
+ * Annotations on methods and nested classes override the severity associated with any enclosing
+ * class.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD, ElementType.CONSTRUCTOR})
+@Retention(RetentionPolicy.CLASS)
+public @interface HotPath {
+  /**
+   * The minimum severity with which to report performance-related findings inside the annotated
+   * code.
+   *
+   * @return An Error Prone severity level.
+   */
+  SeverityLevel value() default SeverityLevel.WARNING;
+}
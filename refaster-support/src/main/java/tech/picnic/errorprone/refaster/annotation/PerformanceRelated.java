@@ -0,0 +1,16 @@
+package tech.picnic.errorprone.refaster.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates that a Refaster rule or group of Refaster rules primarily aims to improve performance.
+ *
+ * <p>Matches of such rules inside code annotated with {@link HotPath} are reported with (at least)
+ * the severity specified by that annotation.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+public @interface PerformanceRelated {}
@@ -2,6 +2,9 @@
  * A collection of annotations that can be placed on Refaster rule classes and Refaster rule
  * collection classes, thus influencing the way in which associated rule matches are reported in
  * non-patch mode.
+ *
+ * <p>The exception is {@link tech.picnic.errorprone.refaster.annotation.HotPath}, which is placed
+ * on the code being analyzed instead.
  */
 @com.google.errorprone.annotations.CheckReturnValue
 @org.jspecify.annotations.NullMarked
@@ -0,0 +1,13 @@
+#!/usr/bin/env bash
+
+# Measures the compilation overhead introduced by Error Prone and by each of
+# the bug checkers and Refaster rules defined by this project, by compiling a
+# synthetic corpus. Additional arguments are passed to Maven, such that the
+# benchmark parameters can be overridden (e.g. `-Dbenchmark.iterations=10`).
+# The results are written to
+# `compilation-benchmark/target/compilation-benchmark.tsv`.
+
+set -e -u -o pipefail
+
+mvn install -pl compilation-benchmark -am -Dverification.skip -DskipTests
+mvn exec:exec -pl compilation-benchmark "${@}"